@@ -0,0 +1,126 @@
+package io.github.vampireachao.stream.core.collection;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * 可增长的double列表，元素不装箱
+ * 非线程安全
+ *
+ * @author VampireAchao
+ */
+public class DoubleList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private double[] elements;
+    private int size;
+
+    public DoubleList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 按初始容量创建
+     *
+     * @param initialCapacity 初始容量
+     */
+    public DoubleList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+        }
+        this.elements = new double[initialCapacity];
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     */
+    public void add(double value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * 将另一个列表的元素追加到尾部
+     *
+     * @param other 另一个列表
+     */
+    public void addAll(DoubleList other) {
+        int newSize = size + other.size;
+        if (newSize > elements.length) {
+            grow(newSize);
+        }
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size = newSize;
+    }
+
+    /**
+     * 将数组的一段追加到尾部
+     *
+     * @param values 数组
+     * @param offset 起始下标
+     * @param length 元素个数
+     */
+    public void addAll(double[] values, int offset, int length) {
+        int newSize = size + length;
+        if (newSize > elements.length) {
+            grow(newSize);
+        }
+        System.arraycopy(values, offset, elements, size, length);
+        size = newSize;
+    }
+
+    /**
+     * 获取指定下标的元素
+     *
+     * @param index 下标
+     * @return 元素
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 按顺序对每个元素执行操作
+     *
+     * @param action 操作
+     */
+    public void forEach(DoubleConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    /**
+     * 转换为数组
+     *
+     * @return 数组
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, elements.length + (elements.length >> 1));
+        elements = Arrays.copyOf(elements, Math.max(newCapacity, DEFAULT_CAPACITY));
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
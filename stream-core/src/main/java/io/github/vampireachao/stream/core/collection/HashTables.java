@@ -0,0 +1,60 @@
+package io.github.vampireachao.stream.core.collection;
+
+/**
+ * 开放寻址哈希表的公共计算
+ *
+ * @author VampireAchao
+ */
+final class HashTables {
+
+    private static final int INT_PHI = 0x9E3779B9;
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private HashTables() {
+        /* Do not new me! */
+    }
+
+    /**
+     * 打散int的哈希值，避免连续数值在线性探测时聚集
+     *
+     * @param x 值
+     * @return 打散后的哈希值
+     */
+    static int mix(int x) {
+        int h = x * INT_PHI;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 打散long的哈希值，避免连续数值在线性探测时聚集
+     *
+     * @param x 值
+     * @return 打散后的哈希值
+     */
+    static int mix(long x) {
+        long h = x * LONG_PHI;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * 根据预期元素个数计算2的幂次的表容量
+     *
+     * @param expectedSize 预期元素个数
+     * @param loadFactor   负载因子
+     * @param minCapacity  最小容量
+     * @return 表容量
+     */
+    static int tableSize(int expectedSize, float loadFactor, int minCapacity) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        int capacity = Integer.highestOneBit((int) Math.max(needed - 1, minCapacity - 1)) << 1;
+        return Math.max(capacity, minCapacity);
+    }
+}
@@ -0,0 +1,311 @@
+package io.github.vampireachao.stream.core.collection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 基于开放寻址(线性探测)的int键哈希表，键不装箱，也没有节点对象，适用于按int键分组等场景
+ * 值可以为null，非线程安全
+ *
+ * @param <V> 值类型
+ * @author VampireAchao
+ */
+public class IntObjHashMap<V> {
+    /**
+     * 空槽位标记，键0本身通过{@link #containsZero}单独记录
+     */
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean containsZero;
+    private V zeroValue;
+
+    public IntObjHashMap() {
+        this(16);
+    }
+
+    /**
+     * 按预期键个数创建，避免扩容
+     *
+     * @param expectedSize 预期键个数
+     */
+    public IntObjHashMap(int expectedSize) {
+        allocate(HashTables.tableSize(expectedSize, LOAD_FACTOR, MIN_CAPACITY));
+    }
+
+    /**
+     * 对键和值执行的操作
+     *
+     * @param <V> 值类型
+     */
+    @FunctionalInterface
+    public interface IntObjConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    /**
+     * 获取键对应的值
+     *
+     * @param key 键
+     * @return 值，键不存在时为null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == FREE) {
+            return zeroValue;
+        }
+        int pos = indexOf(key);
+        return pos < 0 ? null : (V) values[pos];
+    }
+
+    /**
+     * 是否包含键
+     *
+     * @param key 键
+     * @return 是否包含
+     */
+    public boolean containsKey(int key) {
+        return key == FREE ? containsZero : indexOf(key) >= 0;
+    }
+
+    /**
+     * 放入键值对
+     *
+     * @param key   键
+     * @param value 值
+     * @return 之前的值，键不存在时为null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (key == FREE) {
+            V old = zeroValue;
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue = value;
+            return old;
+        }
+        int pos = slotOf(key);
+        V old = (V) values[pos];
+        values[pos] = value;
+        if (keys[pos] == FREE) {
+            keys[pos] = key;
+            if (++size >= resizeAt) {
+                rehash(keys.length << 1);
+            }
+        }
+        return old;
+    }
+
+    /**
+     * 获取键对应的值，键不存在时用mapping计算并放入
+     *
+     * @param key     键
+     * @param mapping 计算值的函数
+     * @return 键对应的值
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key, IntFunction<? extends V> mapping) {
+        if (key == FREE) {
+            if (!containsZero) {
+                zeroValue = mapping.apply(key);
+                containsZero = true;
+                size++;
+            }
+            return zeroValue;
+        }
+        int pos = slotOf(key);
+        if (keys[pos] != FREE) {
+            return (V) values[pos];
+        }
+        V value = mapping.apply(key);
+        keys[pos] = key;
+        values[pos] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return value;
+    }
+
+    /**
+     * 将另一个哈希表的键值对全部放入当前哈希表，键相同时用merger合并值
+     *
+     * @param other  另一个哈希表
+     * @param merger 合并值的函数，参数依次为当前值、另一个哈希表的值
+     * @return 当前哈希表
+     */
+    public IntObjHashMap<V> merge(IntObjHashMap<V> other, BinaryOperator<V> merger) {
+        other.forEach((key, value) -> {
+            if (containsKey(key)) {
+                put(key, merger.apply(get(key), value));
+            } else {
+                put(key, value);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * 将每个值转换后放入一个新的哈希表，键的布局不变，无需重新哈希
+     *
+     * @param mapper 转换函数
+     * @param <R>    转换后的值类型
+     * @return 新的哈希表
+     */
+    @SuppressWarnings("unchecked")
+    public <R> IntObjHashMap<R> mapValues(Function<? super V, ? extends R> mapper) {
+        IntObjHashMap<R> result = new IntObjHashMap<>(0);
+        result.keys = keys.clone();
+        result.values = new Object[values.length];
+        result.mask = mask;
+        result.resizeAt = resizeAt;
+        result.size = size;
+        result.containsZero = containsZero;
+        if (containsZero) {
+            result.zeroValue = mapper.apply(zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                result.values[i] = mapper.apply((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 对每个键值对执行操作，顺序不确定
+     *
+     * @param action 操作
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(IntObjConsumer<? super V> action) {
+        if (containsZero) {
+            action.accept(FREE, zeroValue);
+        }
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != FREE) {
+                action.accept(ks[i], (V) vs[i]);
+            }
+        }
+    }
+
+    /**
+     * 获取所有键，顺序不确定
+     *
+     * @return 键数组
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int i = 0;
+        if (containsZero) {
+            result[i++] = FREE;
+        }
+        for (int key : keys) {
+            if (key != FREE) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 转换为键装箱的{@link HashMap}
+     *
+     * @return map
+     */
+    public Map<Integer, V> toMap() {
+        Map<Integer, V> map = new HashMap<>((int) (size / .75f) + 1);
+        forEach(map::put);
+        return map;
+    }
+
+    /**
+     * 查找键所在的槽位
+     *
+     * @return 槽位，不存在时返回-1
+     */
+    private int indexOf(int key) {
+        int[] ks = keys;
+        int pos = HashTables.mix(key) & mask;
+        int cur;
+        while ((cur = ks[pos]) != FREE) {
+            if (cur == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 查找键所在的槽位，不存在时返回可以放入该键的空槽位
+     */
+    private int slotOf(int key) {
+        int[] ks = keys;
+        int pos = HashTables.mix(key) & mask;
+        int cur;
+        while ((cur = ks[pos]) != FREE && cur != key) {
+            pos = (pos + 1) & mask;
+        }
+        return pos;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(mask, (int) Math.ceil(capacity * LOAD_FACTOR));
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE) {
+                int pos = HashTables.mix(key) & mask;
+                while (keys[pos] != FREE) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        int[] array = keys();
+        Arrays.sort(array);
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(array[i]).append('=').append(get(array[i]));
+        }
+        return builder.append('}').toString();
+    }
+}
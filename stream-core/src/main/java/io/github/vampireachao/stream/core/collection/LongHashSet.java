@@ -0,0 +1,177 @@
+package io.github.vampireachao.stream.core.collection;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * 基于开放寻址(线性探测)的long集合，元素不装箱，适用于大量数值去重的场景
+ * 非线程安全
+ *
+ * @author VampireAchao
+ */
+public class LongHashSet {
+    /**
+     * 空槽位标记，0本身通过{@link #containsZero}单独记录
+     */
+    private static final long FREE = 0L;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] keys;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * 按预期元素个数创建，避免扩容
+     *
+     * @param expectedSize 预期元素个数
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(HashTables.tableSize(expectedSize, LOAD_FACTOR, MIN_CAPACITY));
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param key 元素
+     * @return 元素之前不存在则返回true
+     */
+    public boolean add(long key) {
+        if (key == FREE) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        long[] ks = keys;
+        int pos = HashTables.mix(key) & mask;
+        long cur;
+        while ((cur = ks[pos]) != FREE) {
+            if (cur == key) {
+                return false;
+            }
+            pos = (pos + 1) & mask;
+        }
+        ks[pos] = key;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * 是否包含元素
+     *
+     * @param key 元素
+     * @return 是否包含
+     */
+    public boolean contains(long key) {
+        if (key == FREE) {
+            return containsZero;
+        }
+        long[] ks = keys;
+        int pos = HashTables.mix(key) & mask;
+        long cur;
+        while ((cur = ks[pos]) != FREE) {
+            if (cur == key) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 将另一个集合的元素全部加入当前集合
+     *
+     * @param other 另一个集合
+     */
+    public void addAll(LongHashSet other) {
+        if (other.containsZero) {
+            add(FREE);
+        }
+        for (long key : other.keys) {
+            if (key != FREE) {
+                add(key);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 对每个元素执行操作，顺序不确定
+     *
+     * @param action 操作
+     */
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(FREE);
+        }
+        for (long key : keys) {
+            if (key != FREE) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * 转换为数组，顺序不确定
+     *
+     * @return 数组
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        if (containsZero) {
+            result[i++] = FREE;
+        }
+        for (long key : keys) {
+            if (key != FREE) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(mask, (int) Math.ceil(capacity * LOAD_FACTOR));
+    }
+
+    private void rehash(int capacity) {
+        long[] old = keys;
+        allocate(capacity);
+        for (long key : old) {
+            if (key != FREE) {
+                int pos = HashTables.mix(key) & mask;
+                while (keys[pos] != FREE) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        long[] array = toArray();
+        Arrays.sort(array);
+        return Arrays.toString(array);
+    }
+}
@@ -0,0 +1,307 @@
+package io.github.vampireachao.stream.core.collection;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * 估计分位数的t-digest，将元素聚合为带权重的质心，占用的内存只与压缩参数有关，与元素个数无关
+ * 质心按k1尺度函数划分，越靠近两端质心越小，因此p99、p999这样的尾部分位数比中位数更精确
+ * 压缩参数越大越精确，质心个数不超过约压缩参数个，默认{@value #DEFAULT_COMPRESSION}时按排名计的误差通常在千分之一以内
+ * 相同或不同压缩参数的估计都可以合并，可用于并行流各分段、各分片的结果合并，支持序列化
+ * 非线程安全
+ *
+ * @author VampireAchao
+ */
+public final class TDigest implements Serializable {
+
+    /**
+     * 默认的压缩参数
+     */
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private static final long serialVersionUID = 1L;
+    private static final double HALF_PI = Math.PI / 2;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    private double centroidWeight;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    /**
+     * 尚未合并到质心的元素，攒够一批后排序并合并，避免每个元素都遍历质心
+     */
+    private transient double[] buffer;
+    private transient int buffered;
+    /**
+     * 合并时写入的质心，与{@link #means}、{@link #weights}交替使用
+     */
+    private transient double[] nextMeans;
+    private transient double[] nextWeights;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * 按压缩参数创建
+     *
+     * @param compression 压缩参数，不小于10
+     */
+    public TDigest(double compression) {
+        if (!(compression >= 10) || Double.isInfinite(compression)) {
+            throw new IllegalArgumentException("compression must not be less than 10: " + compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+    }
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素，不能为NaN
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("value must not be NaN");
+        }
+        if (buffer == null) {
+            buffer = new double[(int) Math.ceil(compression) * 5];
+        }
+        if (buffered == buffer.length) {
+            flush();
+        }
+        buffer[buffered++] = value;
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * 合并另一个估计，合并后相当于对两者的全部元素估计
+     *
+     * @param other 另一个估计
+     * @return 当前估计
+     */
+    public TDigest merge(TDigest other) {
+        if (other.count == 0) {
+            return this;
+        }
+        flush();
+        other.flush();
+        mergeSorted(other.means, other.weights, other.centroids, other.centroidWeight);
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * 估计分位数
+     *
+     * @param q 分位，范围[0, 1]，如0.99表示p99
+     * @return 分位数，没有元素时为NaN
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be in [0, 1]: " + q);
+        }
+        flush();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        int n = centroids;
+        if (n == 1) {
+            return means[0];
+        }
+        double total = centroidWeight;
+        double index = q * total;
+        if (index < 1) {
+            return min;
+        }
+        // 第一个质心的左半部分在最小值与其均值之间插值
+        if (weights[0] > 1 && index < weights[0] / 2) {
+            return min + (index - 1) / (weights[0] / 2 - 1) * (means[0] - min);
+        }
+        if (index > total - 1) {
+            return max;
+        }
+        if (weights[n - 1] > 1 && total - index <= weights[n - 1] / 2) {
+            return max - (total - index - 1) / (weights[n - 1] / 2 - 1) * (max - means[n - 1]);
+        }
+        // 相邻质心的中心之间线性插值，权重为1的质心就是原始元素，不参与插值
+        double weightSoFar = weights[0] / 2;
+        for (int i = 0; i < n - 1; i++) {
+            double dw = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + dw > index) {
+                double leftUnit = 0;
+                if (weights[i] == 1) {
+                    if (index - weightSoFar < 0.5) {
+                        return means[i];
+                    }
+                    leftUnit = 0.5;
+                }
+                double rightUnit = 0;
+                if (weights[i + 1] == 1) {
+                    if (weightSoFar + dw - index <= 0.5) {
+                        return means[i + 1];
+                    }
+                    rightUnit = 0.5;
+                }
+                double z1 = index - weightSoFar - leftUnit;
+                double z2 = weightSoFar + dw - index - rightUnit;
+                return weightedAverage(means[i], z2, means[i + 1], z1);
+            }
+            weightSoFar += dw;
+        }
+        double z1 = index - total + weights[n - 1] / 2;
+        double z2 = weights[n - 1] / 2 - z1;
+        return weightedAverage(means[n - 1], z2, max, z1);
+    }
+
+    /**
+     * 估计多个分位数
+     *
+     * @param qs 分位，范围[0, 1]
+     * @return 分位数，与分位一一对应
+     */
+    public double[] quantiles(double... qs) {
+        double[] result = new double[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            result[i] = quantile(qs[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 元素个数
+     *
+     * @return 元素个数
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * 最小值
+     *
+     * @return 最小值，没有元素时为NaN
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * 最大值
+     *
+     * @return 最大值，没有元素时为NaN
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * 将攒下的元素排序后合并到质心
+     */
+    private void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+        int n = buffered;
+        buffered = 0;
+        mergeSorted(buffer, null, n, n);
+    }
+
+    /**
+     * 将按均值排好序的质心与现有质心归并，按k1尺度函数重新划分
+     *
+     * @param otherMeans   均值
+     * @param otherWeights 权重，为null时权重都为1
+     * @param n            个数
+     * @param otherWeight  总权重
+     */
+    private void mergeSorted(double[] otherMeans, double[] otherWeights, int n, double otherWeight) {
+        double total = centroidWeight + otherWeight;
+        int capacity = centroids + n;
+        if (nextMeans == null || nextMeans.length < capacity) {
+            int length = Math.max(capacity, means.length);
+            nextMeans = new double[length];
+            nextWeights = new double[length];
+        }
+        int out = -1;
+        double weightSoFar = 0;
+        double limit = 0;
+        int i = 0;
+        int j = 0;
+        while (i < centroids || j < n) {
+            double mean;
+            double weight;
+            if (j == n || (i < centroids && means[i] <= otherMeans[j])) {
+                mean = means[i];
+                weight = weights[i++];
+            } else {
+                mean = otherMeans[j];
+                weight = otherWeights == null ? 1 : otherWeights[j];
+                j++;
+            }
+            if (out >= 0 && weightSoFar + nextWeights[out] + weight <= limit) {
+                nextWeights[out] += weight;
+                nextMeans[out] += (mean - nextMeans[out]) * weight / nextWeights[out];
+            } else {
+                if (out >= 0) {
+                    weightSoFar += nextWeights[out];
+                }
+                limit = total * maxQuantile(weightSoFar / total);
+                out++;
+                nextMeans[out] = mean;
+                nextWeights[out] = weight;
+            }
+        }
+        double[] swap = means;
+        means = nextMeans;
+        nextMeans = swap;
+        swap = weights;
+        weights = nextWeights;
+        nextWeights = swap;
+        centroids = out + 1;
+        centroidWeight = total;
+    }
+
+    /**
+     * 从分位q0开始的质心最多能覆盖到的分位：k1尺度函数{@code k(q) = compression / 2π * asin(2q - 1)}上增加1
+     */
+    private double maxQuantile(double q0) {
+        double k = Math.asin(2 * q0 - 1) + 2 * Math.PI / compression;
+        return k >= HALF_PI ? 1 : (Math.sin(k) + 1) / 2;
+    }
+
+    private static double weightedAverage(double x1, double w1, double x2, double w2) {
+        double average = (x1 * w1 + x2 * w2) / (w1 + w2);
+        return Math.max(Math.min(x1, x2), Math.min(average, Math.max(x1, x2)));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        flush();
+        out.defaultWriteObject();
+    }
+
+    @Override
+    public String toString() {
+        return "TDigest{compression=" + compression + ", size=" + count + ", centroids=" + centroids + "}";
+    }
+}
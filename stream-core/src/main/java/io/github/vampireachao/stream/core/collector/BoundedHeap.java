@@ -0,0 +1,147 @@
+package io.github.vampireachao.stream.core.collector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 有界二叉堆，只保留按比较器排序后最靠前的k个元素，用于代替{@code sorted(comparator).limit(k)}，无需对全部元素排序
+ * 堆顶是当前保留的元素中最靠后的一个，新元素只有排在堆顶之前时才会替换堆顶，时间复杂度为O(n log k)
+ * 比较器认为相等的元素按遇到顺序排列，与稳定排序后截取的结果一致：
+ * 每个元素记录其在当前分段内的序号，合并时后一段的序号加上前一段的元素个数，即为全局的遇到顺序
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ */
+final class BoundedHeap<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int limit;
+    private final Comparator<? super T> comparator;
+    private Object[] elements;
+    private long[] sequences;
+    private int size;
+    /**
+     * 已遇到的元素个数
+     */
+    private long seen;
+
+    BoundedHeap(int limit, Comparator<? super T> comparator) {
+        this.limit = limit;
+        this.comparator = comparator;
+        int capacity = Math.min(limit, INITIAL_CAPACITY);
+        this.elements = new Object[capacity];
+        this.sequences = new long[capacity];
+    }
+
+    void add(T t) {
+        offer(t, seen++);
+    }
+
+    /**
+     * 合并后一段的堆，调用后不应再使用other
+     *
+     * @param other 后一段的堆
+     * @return 当前堆
+     */
+    @SuppressWarnings("unchecked")
+    BoundedHeap<T> merge(BoundedHeap<T> other) {
+        for (int i = 0; i < other.size; i++) {
+            offer((T) other.elements[i], seen + other.sequences[i]);
+        }
+        seen += other.seen;
+        return this;
+    }
+
+    /**
+     * 按比较器顺序交出保留的元素，会清空堆
+     *
+     * @return 排好序的元素
+     */
+    @SuppressWarnings("unchecked")
+    List<T> drain() {
+        // 堆排序：依次将堆顶(最靠后的元素)移到末尾
+        int n = size;
+        while (size > 1) {
+            swap(0, --size);
+            siftDown(0);
+        }
+        size = 0;
+        List<T> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            list.add((T) elements[i]);
+        }
+        return list;
+    }
+
+    private void offer(T t, long sequence) {
+        if (limit == 0) {
+            return;
+        }
+        if (size < limit) {
+            if (size == elements.length) {
+                int capacity = (int) Math.min((long) size << 1, limit);
+                elements = Arrays.copyOf(elements, capacity);
+                sequences = Arrays.copyOf(sequences, capacity);
+            }
+            elements[size] = t;
+            sequences[size] = sequence;
+            siftUp(size++);
+            return;
+        }
+        if (compare(t, sequence, 0) < 0) {
+            elements[0] = t;
+            sequences[0] = sequence;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compare(i, parent) <= 0) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            int right = child + 1;
+            if (right < size && compare(right, child) > 0) {
+                child = right;
+            }
+            if (compare(i, child) >= 0) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(int i, int j) {
+        return compare((T) elements[i], sequences[i], j);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(T t, long sequence, int j) {
+        int c = comparator.compare(t, (T) elements[j]);
+        return c != 0 ? c : Long.compare(sequence, sequences[j]);
+    }
+
+    private void swap(int i, int j) {
+        Object element = elements[i];
+        elements[i] = elements[j];
+        elements[j] = element;
+        long sequence = sequences[i];
+        sequences[i] = sequences[j];
+        sequences[j] = sequence;
+    }
+}
@@ -1,5 +1,12 @@
 package io.github.vampireachao.stream.core.collector;
 
+import io.github.vampireachao.stream.core.collection.DoubleList;
+import io.github.vampireachao.stream.core.collection.HyperLogLog;
+import io.github.vampireachao.stream.core.collection.IntList;
+import io.github.vampireachao.stream.core.collection.IntObjHashMap;
+import io.github.vampireachao.stream.core.collection.LongList;
+import io.github.vampireachao.stream.core.collection.LongObjHashMap;
+import io.github.vampireachao.stream.core.collection.TDigest;
 import io.github.vampireachao.stream.core.lambda.function.SerBiOp;
 import io.github.vampireachao.stream.core.lambda.function.SerFunc;
 import io.github.vampireachao.stream.core.lambda.function.SerUnOp;
@@ -9,6 +16,7 @@ import io.github.vampireachao.stream.core.stream.Steam;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.*;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
@@ -36,6 +44,10 @@ public class Collective {
             Collector.Characteristics.IDENTITY_FINISH));
     static final Set<Collector.Characteristics> CH_NOID = Collections.emptySet();
     private static final String NON_NULL_MSG = "element cannot be mapped to a null key";
+    /**
+     * 按范围分组时，使用数组下标定位分组的最大范围，更大的范围改用哈希
+     */
+    private static final int DENSE_GROUPING_LIMIT = 1 << 16;
 
     private Collective() {
     }
@@ -106,6 +118,126 @@ public class Collective {
                 CH_UNORDERED_ID);
     }
 
+    /**
+     * Returns a {@code Collector} that applies a {@code long}-producing mapping
+     * function to the input elements and accumulates the results into a new
+     * {@code long[]}, in encounter order, without boxing.
+     *
+     * <p>Values are appended to chunks that are never copied while growing, and
+     * the combiner of a parallel reduction only links the chunks of the right
+     * result to the left one; the values are copied once, into the result array.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the value to be collected
+     * @return a {@code Collector} which collects the mapped values into
+     * a {@code long[]}, in encounter order
+     * @see #toLongList(ToLongFunction)
+     */
+    public static <T>
+    Collector<T, ?, long[]> toLongArray(ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<>(LongBuffer::new, (b, t) -> b.add(mapper.applyAsLong(t)),
+                LongBuffer::combine, LongBuffer::toArray, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that applies a {@code long}-producing mapping
+     * function to the input elements and accumulates the results into a new
+     * growable {@link LongList}, in encounter order, without boxing.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the value to be collected
+     * @return a {@code Collector} which collects the mapped values into
+     * {@code LongList}, in encounter order
+     * @see #toLongArray(ToLongFunction)
+     */
+    public static <T>
+    Collector<T, ?, LongList> toLongList(ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<>(LongBuffer::new, (b, t) -> b.add(mapper.applyAsLong(t)),
+                LongBuffer::combine, LongBuffer::toLongList, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that applies a {@code int}-producing mapping
+     * function to the input elements and accumulates the results into a new
+     * {@code int[]}, in encounter order, without boxing.
+     *
+     * <p>Values are appended to chunks that are never copied while growing, and
+     * the combiner of a parallel reduction only links the chunks of the right
+     * result to the left one; the values are copied once, into the result array.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the value to be collected
+     * @return a {@code Collector} which collects the mapped values into
+     * an {@code int[]}, in encounter order
+     * @see #toIntList(ToIntFunction)
+     */
+    public static <T>
+    Collector<T, ?, int[]> toIntArray(ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<>(IntBuffer::new, (b, t) -> b.add(mapper.applyAsInt(t)),
+                IntBuffer::combine, IntBuffer::toArray, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that applies a {@code int}-producing mapping
+     * function to the input elements and accumulates the results into a new
+     * growable {@link IntList}, in encounter order, without boxing.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the value to be collected
+     * @return a {@code Collector} which collects the mapped values into
+     * {@code IntList}, in encounter order
+     * @see #toIntArray(ToIntFunction)
+     */
+    public static <T>
+    Collector<T, ?, IntList> toIntList(ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<>(IntBuffer::new, (b, t) -> b.add(mapper.applyAsInt(t)),
+                IntBuffer::combine, IntBuffer::toIntList, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that applies a {@code double}-producing mapping
+     * function to the input elements and accumulates the results into a new
+     * {@code double[]}, in encounter order, without boxing.
+     *
+     * <p>Values are appended to chunks that are never copied while growing, and
+     * the combiner of a parallel reduction only links the chunks of the right
+     * result to the left one; the values are copied once, into the result array.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the value to be collected
+     * @return a {@code Collector} which collects the mapped values into
+     * a {@code double[]}, in encounter order
+     * @see #toDoubleList(ToDoubleFunction)
+     */
+    public static <T>
+    Collector<T, ?, double[]> toDoubleArray(ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<>(DoubleBuffer::new, (b, t) -> b.add(mapper.applyAsDouble(t)),
+                DoubleBuffer::combine, DoubleBuffer::toArray, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that applies a {@code double}-producing mapping
+     * function to the input elements and accumulates the results into a new
+     * growable {@link DoubleList}, in encounter order, without boxing.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the value to be collected
+     * @return a {@code Collector} which collects the mapped values into
+     * {@code DoubleList}, in encounter order
+     * @see #toDoubleArray(ToDoubleFunction)
+     */
+    public static <T>
+    Collector<T, ?, DoubleList> toDoubleList(ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<>(DoubleBuffer::new, (b, t) -> b.add(mapper.applyAsDouble(t)),
+                DoubleBuffer::combine, DoubleBuffer::toDoubleList, CH_NOID);
+    }
+
     /**
      * Returns a {@code Collector} that concatenates the input elements into a
      * {@code String}, in encounter order.
@@ -179,6 +311,43 @@ public class Collective {
         };
     }
 
+    /**
+     * Puts a value with a single lookup, keeping the null-tolerant semantics
+     * of {@link #toMap(Function, Function, BinaryOperator, Supplier)}: a
+     * {@code null} key or value replaces the existing mapping, a non-null value
+     * is merged with a non-null existing one by the given remapping function.
+     *
+     * @param map       the map
+     * @param key       the key, may be {@code null}
+     * @param value     the value, may be {@code null}
+     * @param remapping a remapping function never returning {@code null}
+     * @param <K>       type of the map keys
+     * @param <U>       type of the map values
+     */
+    private static <K, U> void putOrMerge(Map<K, U> map, K key, U value, BinaryOperator<U> remapping) {
+        if (key == null || value == null) {
+            map.put(key, value);
+        } else {
+            // Map.merge puts the value when the key is absent or mapped to null
+            map.merge(key, value, remapping);
+        }
+    }
+
+    /**
+     * Adapts a merge function so that a {@code null} result keeps the new
+     * value instead of removing the mapping, as {@link Map#merge} would do.
+     *
+     * @param mergeFunction the merge function
+     * @param <U>           type of the map values
+     * @return a remapping function never returning {@code null}
+     */
+    private static <U> BinaryOperator<U> nullableRemapping(BinaryOperator<U> mergeFunction) {
+        return (oldValue, newValue) -> {
+            U merged = mergeFunction.apply(oldValue, newValue);
+            return merged == null ? newValue : merged;
+        };
+    }
+
     /**
      * Adapts a {@code Collector} accepting elements of type {@code U} to one
      * accepting elements of type {@code T} by applying a mapping function to
@@ -207,7 +376,7 @@ public class Collective {
                                Collector<? super U, A, R> downstream) {
         BiConsumer<A, ? super U> downstreamAccumulator = downstream.accumulator();
         return new Collective.CollectorImpl<>(downstream.supplier(),
-                (r, t) -> downstreamAccumulator.accept(r, Opp.of(t).map(mapper).get()),
+                (r, t) -> downstreamAccumulator.accept(r, t == null ? null : mapper.apply(t)),
                 downstream.combiner(), downstream.finisher(),
                 downstream.characteristics());
     }
@@ -283,6 +452,30 @@ public class Collective {
         return reducing(0L, e -> 1L, Long::sum);
     }
 
+    /**
+     * Returns a concurrent {@code Collector} accepting elements of type
+     * {@code T} that counts the number of input elements.  If no elements are
+     * present, the result is 0.
+     *
+     * <p>The count is kept in a {@link LongAdder}, so that a single result
+     * container can be shared by all threads of a parallel reduction, e.g. as
+     * the downstream of {@link #groupingByConcurrent(Function, Collector)},
+     * without contention and without a combine phase.
+     *
+     * @param <T> the type of the input elements
+     * @return a concurrent, unordered {@code Collector} that counts the input elements
+     * @see #counting()
+     */
+    public static <T> Collector<T, ?, Long>
+    countingConcurrent() {
+        return new Collective.CollectorImpl<T, LongAdder, Long>(LongAdder::new, (a, t) -> a.increment(),
+                (a, b) -> {
+                    a.add(b.sum());
+                    return a;
+                },
+                LongAdder::sum, CH_CONCURRENT_NOID);
+    }
+
     /**
      * Returns a {@code Collector} that produces the minimal element according
      * to a given {@code Comparator}, described as an {@code Optional<T>}.
@@ -359,6 +552,31 @@ public class Collective {
                 a -> a[0], CH_NOID);
     }
 
+    /**
+     * Returns a concurrent {@code Collector} that produces the sum of a
+     * long-valued function applied to the input elements.  If no elements are
+     * present, the result is 0.
+     *
+     * <p>The sum is kept in a {@link LongAdder}, so that a single result
+     * container can be shared by all threads of a parallel reduction without
+     * contention and without a combine phase.
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the property to be summed
+     * @return a concurrent, unordered {@code Collector} that produces the sum of a derived property
+     * @see #summingLong(ToLongFunction)
+     */
+    public static <T> Collector<T, ?, Long>
+    summingLongConcurrent(ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new Collective.CollectorImpl<T, LongAdder, Long>(LongAdder::new, (a, t) -> a.add(mapper.applyAsLong(t)),
+                (a, b) -> {
+                    a.add(b.sum());
+                    return a;
+                },
+                LongAdder::sum, CH_CONCURRENT_NOID);
+    }
+
     /**
      * Returns a {@code Collector} that produces the sum of a double-valued
      * function applied to the input elements.  If no elements are present,
@@ -795,11 +1013,15 @@ public class Collective {
                                   Collector<? super T, A, D> downstream) {
         Supplier<A> downstreamSupplier = downstream.supplier();
         BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        // 提到累加器外，避免每个元素都创建一个lambda
+        Function<K, A> newContainer = k -> downstreamSupplier.get();
         BiConsumer<Map<K, A>, T> accumulator = (m, t) -> {
-            // stream-core changed this line
-            K key = Opp.of(t).map(classifier).orElse(null);
-            A container = m.computeIfAbsent(key, k -> downstreamSupplier.get());
-            Opp.of(t).ifPresent(o -> downstreamAccumulator.accept(container, o));
+            // stream-core changed this line: null元素归入null键，但不交给下游
+            if (t == null) {
+                m.computeIfAbsent(null, newContainer);
+                return;
+            }
+            downstreamAccumulator.accept(m.computeIfAbsent(classifier.apply(t), newContainer), t);
         };
         BinaryOperator<Map<K, A>> merger = Collective.mapMerger(downstream.combiner());
         @SuppressWarnings("unchecked")
@@ -817,6 +1039,264 @@ public class Collective {
         }
     }
 
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function, and collecting the {@code long} values extracted
+     * from the elements of each group into a {@code long[]}, in encounter order.
+     *
+     * <p>This is equivalent to
+     * {@code groupingBy(classifier, toLongArray(mapper))}: the values of each
+     * group are accumulated into a primitive buffer and never boxed.
+     *
+     * @param <T>        the type of the input elements
+     * @param <K>        the type of the keys
+     * @param classifier the classifier function mapping input elements to keys
+     * @param mapper     a function extracting the value to be collected
+     * @return a {@code Collector} implementing the group-by operation
+     * @see #toLongArray(ToLongFunction)
+     */
+    public static <T, K> Collector<T, ?, Map<K, long[]>>
+    groupingByToLongArray(Function<? super T, ? extends K> classifier, ToLongFunction<? super T> mapper) {
+        return groupingBy(classifier, toLongArray(mapper));
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function, and collecting the {@code int} values extracted
+     * from the elements of each group into a {@code int[]}, in encounter order.
+     *
+     * <p>This is equivalent to
+     * {@code groupingBy(classifier, toIntArray(mapper))}: the values of each
+     * group are accumulated into a primitive buffer and never boxed.
+     *
+     * @param <T>        the type of the input elements
+     * @param <K>        the type of the keys
+     * @param classifier the classifier function mapping input elements to keys
+     * @param mapper     a function extracting the value to be collected
+     * @return a {@code Collector} implementing the group-by operation
+     * @see #toIntArray(ToIntFunction)
+     */
+    public static <T, K> Collector<T, ?, Map<K, int[]>>
+    groupingByToIntArray(Function<? super T, ? extends K> classifier, ToIntFunction<? super T> mapper) {
+        return groupingBy(classifier, toIntArray(mapper));
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function, and collecting the {@code double} values extracted
+     * from the elements of each group into a {@code double[]}, in encounter order.
+     *
+     * <p>This is equivalent to
+     * {@code groupingBy(classifier, toDoubleArray(mapper))}: the values of each
+     * group are accumulated into a primitive buffer and never boxed.
+     *
+     * @param <T>        the type of the input elements
+     * @param <K>        the type of the keys
+     * @param classifier the classifier function mapping input elements to keys
+     * @param mapper     a function extracting the value to be collected
+     * @return a {@code Collector} implementing the group-by operation
+     * @see #toDoubleArray(ToDoubleFunction)
+     */
+    public static <T, K> Collector<T, ?, Map<K, double[]>>
+    groupingByToDoubleArray(Function<? super T, ? extends K> classifier, ToDoubleFunction<? super T> mapper) {
+        return groupingBy(classifier, toDoubleArray(mapper));
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements by a {@code long}
+     * key, and returning the results in a {@link LongObjHashMap}.
+     *
+     * <p>Unlike {@link #groupingBy(Function)}, the keys are never boxed and the
+     * map has no entry objects: keys and values are kept in two parallel arrays
+     * of an open-addressing hash table.
+     *
+     * @param <T>        the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     * @see #groupingByLong(ToLongFunction, Collector)
+     */
+    public static <T> Collector<T, ?, LongObjHashMap<List<T>>>
+    groupingByLong(ToLongFunction<? super T> classifier) {
+        return groupingByLong(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements by a {@code long}
+     * key, and then performing a reduction operation on the values associated
+     * with a given key using the specified downstream {@code Collector}.
+     *
+     * @param <T>        the type of the input elements
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <D>        the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     * @see #groupingByLong(ToLongFunction)
+     */
+    public static <T, A, D> Collector<T, ?, LongObjHashMap<D>>
+    groupingByLong(ToLongFunction<? super T> classifier, Collector<? super T, A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        BiConsumer<LongObjHashMap<A>, T> accumulator = (m, t) ->
+                downstreamAccumulator.accept(m.computeIfAbsent(classifier.applyAsLong(t), k -> downstreamSupplier.get()), t);
+        BinaryOperator<LongObjHashMap<A>> merger = (left, right) -> left.merge(right, downstreamCombiner);
+        return new Collective.CollectorImpl<>(LongObjHashMap::new, accumulator, merger,
+                intermediate -> intermediate.mapValues(downstream.finisher()), CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements by an {@code int}
+     * key, and returning the results in an {@link IntObjHashMap}.
+     *
+     * @param <T>        the type of the input elements
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     * @see #groupingByInt(ToIntFunction, Collector)
+     * @see #groupingByInt(ToIntFunction, int, int, Collector)
+     */
+    public static <T> Collector<T, ?, IntObjHashMap<List<T>>>
+    groupingByInt(ToIntFunction<? super T> classifier) {
+        return groupingByInt(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements by an {@code int}
+     * key, and then performing a reduction operation on the values associated
+     * with a given key using the specified downstream {@code Collector}.
+     *
+     * @param <T>        the type of the input elements
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <D>        the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     * @see #groupingByInt(ToIntFunction)
+     */
+    public static <T, A, D> Collector<T, ?, IntObjHashMap<D>>
+    groupingByInt(ToIntFunction<? super T> classifier, Collector<? super T, A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        BiConsumer<IntObjHashMap<A>, T> accumulator = (m, t) ->
+                downstreamAccumulator.accept(m.computeIfAbsent(classifier.applyAsInt(t), k -> downstreamSupplier.get()), t);
+        BinaryOperator<IntObjHashMap<A>> merger = (left, right) -> left.merge(right, downstreamCombiner);
+        return new Collective.CollectorImpl<>(IntObjHashMap::new, accumulator, merger,
+                intermediate -> intermediate.mapValues(downstream.finisher()), CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements by an {@code int}
+     * key known to lie in the small range {@code [min, max]}.
+     *
+     * <p>The groups are accumulated in a dense array indexed by
+     * {@code key - min}, so no hashing happens per element; only the non-empty
+     * groups are copied into the resulting {@link IntObjHashMap}. Since every
+     * partial result of a parallel collection allocates such an array, ranges
+     * wider than {@value #DENSE_GROUPING_LIMIT} keys fall back to the hashed
+     * {@link #groupingByInt(ToIntFunction, Collector)}, still rejecting keys
+     * out of range.
+     *
+     * @param <T>        the type of the input elements
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <D>        the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param min        the least possible key, inclusive
+     * @param max        the greatest possible key, inclusive
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     * @throws IllegalArgumentException if the range is empty, or, during
+     *                                  collection, a key is out of range
+     */
+    public static <T, A, D> Collector<T, ?, IntObjHashMap<D>>
+    groupingByInt(ToIntFunction<? super T> classifier, int min, int max, Collector<? super T, A, D> downstream) {
+        long range = (long) max - min + 1;
+        if (range <= 0) {
+            throw new IllegalArgumentException("illegal key range: [" + min + ", " + max + "]");
+        }
+        ToIntFunction<T> checkedClassifier = t -> {
+            int key = classifier.applyAsInt(t);
+            if (key < min || key > max) {
+                throw new IllegalArgumentException("key " + key + " out of range [" + min + ", " + max + "]");
+            }
+            return key;
+        };
+        if (range > DENSE_GROUPING_LIMIT) {
+            return groupingByInt(checkedClassifier, downstream);
+        }
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        BiConsumer<Object[], T> accumulator = (groups, t) -> {
+            int key = checkedClassifier.applyAsInt(t);
+            @SuppressWarnings("unchecked")
+            A container = (A) groups[key - min];
+            if (container == null) {
+                container = downstreamSupplier.get();
+                groups[key - min] = container;
+            }
+            downstreamAccumulator.accept(container, t);
+        };
+        BinaryOperator<Object[]> merger = (left, right) -> {
+            for (int i = 0; i < left.length; i++) {
+                if (right[i] == null) {
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                A merged = left[i] == null ? (A) right[i] : downstreamCombiner.apply((A) left[i], (A) right[i]);
+                left[i] = merged;
+            }
+            return left;
+        };
+        Function<Object[], IntObjHashMap<D>> finisher = groups -> {
+            int count = 0;
+            for (Object group : groups) {
+                if (group != null) {
+                    count++;
+                }
+            }
+            IntObjHashMap<D> result = new IntObjHashMap<>(count);
+            for (int i = 0; i < groups.length; i++) {
+                if (groups[i] != null) {
+                    @SuppressWarnings("unchecked")
+                    A container = (A) groups[i];
+                    result.put(min + i, downstreamFinisher.apply(container));
+                }
+            }
+            return result;
+        };
+        return new Collective.CollectorImpl<>(() -> new Object[(int) range], accumulator, merger, finisher, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by" operation
+     * on input elements of type {@code T}, grouping elements by an enum key
+     * into an {@link EnumMap}, which is backed by an array indexed by ordinal.
+     *
+     * @param <T>        the type of the input elements
+     * @param <K>        the type of the enum keys
+     * @param <A>        the intermediate accumulation type of the downstream collector
+     * @param <D>        the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param keyType    the class of the enum keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     */
+    public static <T, K extends Enum<K>, A, D> Collector<T, ?, EnumMap<K, D>>
+    groupingByEnum(Function<? super T, K> classifier, Class<K> keyType, Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(keyType);
+        return groupingBy(classifier, () -> new EnumMap<>(keyType), downstream);
+    }
+
     /**
      * Returns a concurrent {@code Collector} implementing a "group by"
      * operation on input elements of type {@code T}, grouping elements
@@ -1179,14 +1659,21 @@ public class Collective {
                              Function<? super T, ? extends U> valueMapper,
                              BinaryOperator<U> mergeFunction,
                              Supplier<M> mapSupplier) {
-        BiConsumer<M, T> accumulator
-                = (map, element) -> {
-            Opp<? extends K> keyOpp = Opp.of(element).map(keyMapper);
-            U value = Opp.of(element).map(valueMapper).map(newValue -> keyOpp.map(map::get)
-                    .map(oldValue -> mergeFunction.apply(oldValue, newValue)).orElse(newValue)).get();
-            map.put(keyOpp.get(), value);
+        BinaryOperator<U> remapping = nullableRemapping(mergeFunction);
+        BiConsumer<M, T> accumulator = (map, element) -> {
+            if (element == null) {
+                map.put(null, null);
+                return;
+            }
+            putOrMerge(map, keyMapper.apply(element), valueMapper.apply(element), remapping);
+        };
+        BinaryOperator<M> merger = (m1, m2) -> {
+            for (Map.Entry<K, U> e : m2.entrySet()) {
+                putOrMerge(m1, e.getKey(), e.getValue(), remapping);
+            }
+            return m1;
         };
-        return new Collective.CollectorImpl<>(mapSupplier, accumulator, mapMerger(mergeFunction), CH_ID);
+        return new Collective.CollectorImpl<>(mapSupplier, accumulator, merger, CH_ID);
     }
 
     /**
@@ -1400,6 +1887,360 @@ public class Collective {
                 }, CH_ID);
     }
 
+    /**
+     * Returns a {@code Collector} that keeps the {@code n} greatest input
+     * elements according to the given {@code Comparator}, in descending order.
+     * Elements that compare equal are kept in encounter order, so the result
+     * is the same as {@code sorted(comparator.reversed()).limit(n)}, but only a
+     * bounded heap of {@code n} elements is maintained for each partition.
+     *
+     * <p>For example, to compute the three oldest persons in each city:
+     * <pre>{@code
+     *     Map<City, List<Person>> oldestByCity
+     *         = people.stream().collect(groupingBy(Person::getCity,
+     *                                              topK(3, comparing(Person::getAge))));
+     * }</pre>
+     *
+     * @param <T>        the type of the input elements
+     * @param n          the number of elements to keep, not negative
+     * @param comparator a {@code Comparator} for comparing elements
+     * @return a {@code Collector} which collects the greatest elements into a
+     * {@code List}
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @see #bottomK(int, Comparator)
+     */
+    public static <T>
+    Collector<T, ?, List<T>> topK(int n, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        return bottomK(n, Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Returns a {@code Collector} that keeps the {@code n} least input
+     * elements according to the given {@code Comparator}, in ascending order.
+     * Elements that compare equal are kept in encounter order, so the result
+     * is the same as {@code sorted(comparator).limit(n)}, but only a bounded
+     * heap of {@code n} elements is maintained for each partition.
+     *
+     * @param <T>        the type of the input elements
+     * @param n          the number of elements to keep, not negative
+     * @param comparator a {@code Comparator} for comparing elements
+     * @return a {@code Collector} which collects the least elements into a
+     * {@code List}
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @see #topK(int, Comparator)
+     */
+    public static <T>
+    Collector<T, ?, List<T>> bottomK(int n, Comparator<? super T> comparator) {
+        Objects.requireNonNull(comparator);
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        return new Collective.CollectorImpl<>(
+                () -> new BoundedHeap<T>(n, comparator),
+                BoundedHeap::add,
+                BoundedHeap::merge,
+                BoundedHeap::drain,
+                CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that estimates the number of distinct keys
+     * extracted from the input elements, using a {@link HyperLogLog} sketch.
+     *
+     * <p>Unlike {@code map(keyFn).distinct().count()}, the keys are not kept:
+     * the sketch uses a fixed {@code 2^precision} bytes whatever the number of
+     * elements, and the sketches of parallel partitions are merged register by
+     * register.  The relative standard error is about
+     * {@code 1.04 / sqrt(2^precision)}, i.e. 0.8% for a precision of 14.
+     *
+     * <p>For example, to estimate the number of distinct users of each day:
+     * <pre>{@code
+     *     Map<LocalDate, Long> usersByDay
+     *         = events.stream().collect(groupingBy(Event::getDay,
+     *                                              approxDistinctCount(Event::getUserId, 14)));
+     * }</pre>
+     *
+     * @param <T>       the type of the input elements
+     * @param keyFn     a function extracting the key to be counted, {@code null}
+     *                  counts as a key
+     * @param precision the precision of the sketch, in
+     *                  [{@value HyperLogLog#MIN_PRECISION}, {@value HyperLogLog#MAX_PRECISION}]
+     * @return a {@code Collector} which estimates the number of distinct keys
+     * @throws IllegalArgumentException if {@code precision} is out of range
+     * @see #hyperLogLog(Function, int)
+     */
+    public static <T>
+    Collector<T, ?, Long> approxDistinctCount(Function<? super T, ?> keyFn, int precision) {
+        return collectingAndThen(hyperLogLog(keyFn, precision), HyperLogLog::estimate);
+    }
+
+    /**
+     * Returns a {@code Collector} that adds the keys extracted from the input
+     * elements to a new {@link HyperLogLog} sketch.
+     *
+     * <p>The sketch is serializable and can be merged with sketches of the
+     * same precision built elsewhere, e.g. on other shards, before
+     * {@linkplain HyperLogLog#estimate() estimating} the overall number of
+     * distinct keys.
+     *
+     * @param <T>       the type of the input elements
+     * @param keyFn     a function extracting the key to be counted, {@code null}
+     *                  counts as a key
+     * @param precision the precision of the sketch, in
+     *                  [{@value HyperLogLog#MIN_PRECISION}, {@value HyperLogLog#MAX_PRECISION}]
+     * @return a {@code Collector} which collects the keys into a {@code HyperLogLog}
+     * @throws IllegalArgumentException if {@code precision} is out of range
+     * @see #approxDistinctCount(Function, int)
+     */
+    public static <T>
+    Collector<T, ?, HyperLogLog> hyperLogLog(Function<? super T, ?> keyFn, int precision) {
+        Objects.requireNonNull(keyFn);
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be in [" + HyperLogLog.MIN_PRECISION + ", "
+                    + HyperLogLog.MAX_PRECISION + "]: " + precision);
+        }
+        return new Collective.CollectorImpl<>(
+                () -> new HyperLogLog(precision),
+                (HyperLogLog sketch, T t) -> sketch.add(keyFn.apply(t)),
+                HyperLogLog::merge,
+                CH_UNORDERED_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that estimates the given quantiles of a
+     * double-valued function applied to the input elements, in a single pass
+     * and with bounded memory, using a {@link TDigest} of the
+     * {@linkplain TDigest#DEFAULT_COMPRESSION default compression}.
+     *
+     * <p>Unlike sorting all the values, only the centroids of the digest are
+     * kept, and the digests of parallel partitions are merged.  Tail quantiles
+     * such as p99 are estimated more accurately than the median.  If no
+     * elements are present, every quantile is {@code NaN}.
+     *
+     * <p>For example, to compute the p50, p95 and p99 latency of each endpoint:
+     * <pre>{@code
+     *     Map<String, double[]> latencyByEndpoint
+     *         = requests.stream().collect(groupingBy(Request::getEndpoint,
+     *                                                quantiles(Request::getMillis, 0.5, 0.95, 0.99)));
+     * }</pre>
+     *
+     * @param <T>    the type of the input elements
+     * @param mapper a function extracting the property to be measured
+     * @param qs     the quantiles to estimate, each in [0, 1]
+     * @return a {@code Collector} that produces the estimated quantiles, in the
+     * order of {@code qs}
+     * @throws IllegalArgumentException if a quantile is out of range
+     * @see #tDigest(ToDoubleFunction, double)
+     */
+    public static <T>
+    Collector<T, ?, double[]> quantiles(ToDoubleFunction<? super T> mapper, double... qs) {
+        double[] quantiles = qs.clone();
+        for (double q : quantiles) {
+            if (!(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("q must be in [0, 1]: " + q);
+            }
+        }
+        return collectingAndThen(tDigest(mapper, TDigest.DEFAULT_COMPRESSION), digest -> digest.quantiles(quantiles));
+    }
+
+    /**
+     * Returns a {@code Collector} that adds a double-valued function applied
+     * to the input elements to a new {@link TDigest}.
+     *
+     * <p>The digest can be queried for any quantile afterwards, and is
+     * serializable and mergeable with digests built elsewhere.
+     *
+     * @param <T>         the type of the input elements
+     * @param mapper      a function extracting the property to be measured
+     * @param compression the compression of the digest, not less than 10; the
+     *                    larger, the more accurate and the more centroids
+     * @return a {@code Collector} which collects the values into a {@code TDigest}
+     * @throws IllegalArgumentException if {@code compression} is less than 10
+     * @see #quantiles(ToDoubleFunction, double...)
+     */
+    public static <T>
+    Collector<T, ?, TDigest> tDigest(ToDoubleFunction<? super T> mapper, double compression) {
+        Objects.requireNonNull(mapper);
+        if (!(compression >= 10) || Double.isInfinite(compression)) {
+            throw new IllegalArgumentException("compression must not be less than 10: " + compression);
+        }
+        return new Collective.CollectorImpl<>(
+                () -> new TDigest(compression),
+                (TDigest digest, T t) -> digest.add(mapper.applyAsDouble(t)),
+                TDigest::merge,
+                CH_UNORDERED_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that is a composite of two downstream collectors.
+     * Every element is processed by both downstream collectors, in a single
+     * pass, then their results are merged using the specified merge function
+     * into the final result.
+     *
+     * <p>This is a backport of {@code Collectors.teeing} of JDK 12.  The
+     * resulting collector is {@code UNORDERED} or {@code CONCURRENT} only if
+     * both downstream collectors are.
+     *
+     * <p>For example, to compute the average of the input elements:
+     * <pre>{@code
+     *     double average = stream.collect(teeing(summingDouble(i -> i), counting(),
+     *                                            (sum, n) -> sum / n));
+     * }</pre>
+     *
+     * @param <T>         the type of the input elements
+     * @param <R1>        the result type of the first collector
+     * @param <R2>        the result type of the second collector
+     * @param <R>         the final result type
+     * @param downstream1 the first downstream collector
+     * @param downstream2 the second downstream collector
+     * @param merger      the function which merges two results into the single one
+     * @return a {@code Collector} which aggregates the results of two supplied collectors
+     * @see #multi(Collector[])
+     */
+    public static <T, R1, R2, R>
+    Collector<T, ?, R> teeing(Collector<? super T, ?, R1> downstream1,
+                              Collector<? super T, ?, R2> downstream2,
+                              BiFunction<? super R1, ? super R2, R> merger) {
+        return teeing0(downstream1, downstream2, merger);
+    }
+
+    private static <T, A1, A2, R1, R2, R>
+    Collector<T, ?, R> teeing0(Collector<? super T, A1, R1> downstream1,
+                               Collector<? super T, A2, R2> downstream2,
+                               BiFunction<? super R1, ? super R2, R> merger) {
+        Objects.requireNonNull(downstream1, "downstream1");
+        Objects.requireNonNull(downstream2, "downstream2");
+        Objects.requireNonNull(merger, "merger");
+
+        Supplier<A1> c1Supplier = Objects.requireNonNull(downstream1.supplier(), "downstream1 supplier");
+        Supplier<A2> c2Supplier = Objects.requireNonNull(downstream2.supplier(), "downstream2 supplier");
+        BiConsumer<A1, ? super T> c1Accumulator = Objects.requireNonNull(downstream1.accumulator(), "downstream1 accumulator");
+        BiConsumer<A2, ? super T> c2Accumulator = Objects.requireNonNull(downstream2.accumulator(), "downstream2 accumulator");
+        BinaryOperator<A1> c1Combiner = Objects.requireNonNull(downstream1.combiner(), "downstream1 combiner");
+        BinaryOperator<A2> c2Combiner = Objects.requireNonNull(downstream2.combiner(), "downstream2 combiner");
+        Function<A1, R1> c1Finisher = Objects.requireNonNull(downstream1.finisher(), "downstream1 finisher");
+        Function<A2, R2> c2Finisher = Objects.requireNonNull(downstream2.finisher(), "downstream2 finisher");
+
+        class PairBox {
+            A1 left = c1Supplier.get();
+            A2 right = c2Supplier.get();
+
+            void add(T t) {
+                c1Accumulator.accept(left, t);
+                c2Accumulator.accept(right, t);
+            }
+
+            PairBox combine(PairBox other) {
+                left = c1Combiner.apply(left, other.left);
+                right = c2Combiner.apply(right, other.right);
+                return this;
+            }
+
+            R get() {
+                R1 r1 = c1Finisher.apply(left);
+                R2 r2 = c2Finisher.apply(right);
+                return merger.apply(r1, r2);
+            }
+        }
+
+        return new Collective.CollectorImpl<>(PairBox::new, PairBox::add, PairBox::combine, PairBox::get,
+                commonCharacteristics(Arrays.asList(downstream1, downstream2)));
+    }
+
+    /**
+     * Returns a {@code Collector} that is a composite of any number of
+     * downstream collectors.  Every element is processed by all downstream
+     * collectors, in a single pass, and the result is the list of their
+     * results, in the order of the downstream collectors.
+     *
+     * <p>This is the N-ary form of {@link #teeing(Collector, Collector, BiFunction)}.
+     * The resulting collector is {@code UNORDERED} or {@code CONCURRENT} only
+     * if all downstream collectors are.
+     *
+     * <p>For example, to compute the count, the sum and the maximum of the
+     * amounts, and the amounts by day, over the same orders:
+     * <pre>{@code
+     *     List<Object> results = orders.stream().collect(multi(counting(),
+     *                                                          summingLong(Order::getAmount),
+     *                                                          maxBy(comparing(Order::getAmount)),
+     *                                                          groupingBy(Order::getDay)));
+     *     long count = (Long) results.get(0);
+     * }</pre>
+     *
+     * @param <T>         the type of the input elements
+     * @param downstreams the downstream collectors
+     * @return a {@code Collector} which produces an unmodifiable list of the
+     * results of the supplied collectors
+     * @see #teeing(Collector, Collector, BiFunction)
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <T>
+    Collector<T, ?, List<Object>> multi(Collector<? super T, ?, ?>... downstreams) {
+        int n = downstreams.length;
+        List<Collector<? super T, Object, Object>> collectors = new ArrayList<>(n);
+        List<Supplier<Object>> suppliers = new ArrayList<>(n);
+        List<BiConsumer<Object, ? super T>> accumulators = new ArrayList<>(n);
+        List<BinaryOperator<Object>> combiners = new ArrayList<>(n);
+        List<Function<Object, Object>> finishers = new ArrayList<>(n);
+        for (Collector<? super T, ?, ?> collector : downstreams) {
+            Collector<? super T, Object, Object> downstream = (Collector<? super T, Object, Object>)
+                    Objects.requireNonNull(collector, "downstream");
+            collectors.add(downstream);
+            suppliers.add(downstream.supplier());
+            accumulators.add(downstream.accumulator());
+            combiners.add(downstream.combiner());
+            finishers.add(downstream.finisher());
+        }
+        return new Collective.CollectorImpl<>(
+                () -> {
+                    Object[] containers = new Object[n];
+                    for (int i = 0; i < n; i++) {
+                        containers[i] = suppliers.get(i).get();
+                    }
+                    return containers;
+                },
+                (Object[] containers, T t) -> {
+                    for (int i = 0; i < n; i++) {
+                        accumulators.get(i).accept(containers[i], t);
+                    }
+                },
+                (left, right) -> {
+                    for (int i = 0; i < n; i++) {
+                        left[i] = combiners.get(i).apply(left[i], right[i]);
+                    }
+                    return left;
+                },
+                containers -> {
+                    Object[] results = new Object[n];
+                    for (int i = 0; i < n; i++) {
+                        results[i] = finishers.get(i).apply(containers[i]);
+                    }
+                    return Collections.unmodifiableList(Arrays.asList(results));
+                },
+                commonCharacteristics(collectors));
+    }
+
+    /**
+     * The {@code UNORDERED} and {@code CONCURRENT} characteristics shared by
+     * all the given collectors; {@code IDENTITY_FINISH} is never included.
+     */
+    private static Set<Collector.Characteristics> commonCharacteristics(List<? extends Collector<?, ?, ?>> downstreams) {
+        EnumSet<Collector.Characteristics> characteristics = EnumSet.of(Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.CONCURRENT);
+        for (Collector<?, ?, ?> downstream : downstreams) {
+            characteristics.retainAll(downstream.characteristics());
+        }
+        if (characteristics.isEmpty()) {
+            return CH_NOID;
+        }
+        if (characteristics.size() == 2) {
+            return CH_CONCURRENT_NOID;
+        }
+        return Collections.unmodifiableSet(characteristics);
+    }
+
     /**
      * Simple implementation class for {@code Collector}.
      *
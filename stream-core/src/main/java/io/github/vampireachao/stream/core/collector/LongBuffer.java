@@ -0,0 +1,95 @@
+package io.github.vampireachao.stream.core.collector;
+
+import io.github.vampireachao.stream.core.collection.LongList;
+
+import java.util.Arrays;
+
+/**
+ * long基本类型收集器的累加容器，元素不装箱
+ * 元素按块存放，扩容时不拷贝已有元素；合并时只追加另一个容器的块，不拷贝元素，
+ * 因此并行收集的合并开销与元素个数无关，只在最终转换为数组或列表时拷贝一次
+ * 非线程安全
+ *
+ * @author VampireAchao
+ */
+final class LongBuffer {
+
+    private static final int FIRST_CHUNK = 1 << 4;
+    private static final int MAX_CHUNK = 1 << 16;
+
+    private long[][] chunks = new long[4][];
+    /**
+     * 每个块中的元素个数
+     */
+    private int[] lengths = new int[4];
+    private int chunkCount;
+    private int size;
+
+    /**
+     * 添加元素
+     *
+     * @param value 元素
+     */
+    void add(long value) {
+        if (chunkCount == 0 || lengths[chunkCount - 1] == chunks[chunkCount - 1].length) {
+            // 块大小随元素个数翻倍增长，避免大量小块
+            append(new long[Math.min(MAX_CHUNK, Math.max(FIRST_CHUNK, size))], 0);
+        }
+        chunks[chunkCount - 1][lengths[chunkCount - 1]++] = value;
+        size++;
+    }
+
+    /**
+     * 将另一个容器的块追加到尾部，之后另一个容器不能再使用
+     *
+     * @param other 另一个容器
+     * @return 当前容器
+     */
+    LongBuffer combine(LongBuffer other) {
+        for (int i = 0; i < other.chunkCount; i++) {
+            append(other.chunks[i], other.lengths[i]);
+        }
+        size += other.size;
+        return this;
+    }
+
+    private void append(long[] chunk, int length) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount << 1);
+            lengths = Arrays.copyOf(lengths, chunkCount << 1);
+        }
+        chunks[chunkCount] = chunk;
+        lengths[chunkCount++] = length;
+    }
+
+    /**
+     * 转换为数组，只有一个恰好填满的块时直接返回该块
+     *
+     * @return 数组
+     */
+    long[] toArray() {
+        if (chunkCount == 1 && lengths[0] == chunks[0].length) {
+            return chunks[0];
+        }
+        long[] array = new long[size];
+        int offset = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            System.arraycopy(chunks[i], 0, array, offset, lengths[i]);
+            offset += lengths[i];
+        }
+        return array;
+    }
+
+    /**
+     * 转换为{@link LongList}
+     *
+     * @return 列表
+     */
+    LongList toLongList() {
+        LongList list = new LongList(size);
+        for (int i = 0; i < chunkCount; i++) {
+            list.addAll(chunks[i], 0, lengths[i]);
+        }
+        return list;
+    }
+}
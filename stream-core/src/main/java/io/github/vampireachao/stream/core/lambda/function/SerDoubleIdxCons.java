@@ -0,0 +1,21 @@
+package io.github.vampireachao.stream.core.lambda.function;
+
+import java.io.Serializable;
+
+/**
+ * 可序列化的double元素带下标消费者，元素与下标都是基本类型，调用时不装箱
+ *
+ * @author VampireAchao
+ * @see SerIdxCons
+ */
+@FunctionalInterface
+public interface SerDoubleIdxCons extends Serializable {
+
+    /**
+     * Performs this operation on the given arguments.
+     *
+     * @param value the element
+     * @param index the encounter index of the element
+     */
+    void accept(double value, int index);
+}
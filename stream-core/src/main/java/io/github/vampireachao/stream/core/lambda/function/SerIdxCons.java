@@ -0,0 +1,62 @@
+package io.github.vampireachao.stream.core.lambda.function;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 可序列化的带下标消费者，下标为基本类型int，调用时不装箱
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ * @see java.util.function.BiConsumer
+ */
+@FunctionalInterface
+public interface SerIdxCons<T> extends Serializable {
+
+    /**
+     * multi
+     *
+     * @param consumers lambda
+     * @param <T>       type
+     * @return lambda
+     */
+    @SafeVarargs
+    static <T> SerIdxCons<T> multi(SerIdxCons<T>... consumers) {
+        return Stream.of(consumers).reduce(SerIdxCons::andThen).orElseGet(SerIdxCons::nothing);
+    }
+
+    /**
+     * nothing
+     *
+     * @param <T> type
+     * @return nothing
+     */
+    static <T> SerIdxCons<T> nothing() {
+        return (t, i) -> {};
+    }
+
+    /**
+     * Performs this operation on the given arguments.
+     *
+     * @param t     the element
+     * @param index the encounter index of the element
+     */
+    void accept(T t, int index);
+
+    /**
+     * Returns a composed {@code SerIdxCons} that performs, in sequence, this
+     * operation followed by the {@code after} operation.
+     *
+     * @param after the operation to perform after this operation
+     * @return a composed {@code SerIdxCons}
+     * @throws NullPointerException if {@code after} is null
+     */
+    default SerIdxCons<T> andThen(SerIdxCons<? super T> after) {
+        Objects.requireNonNull(after);
+        return (t, i) -> {
+            accept(t, i);
+            after.accept(t, i);
+        };
+    }
+}
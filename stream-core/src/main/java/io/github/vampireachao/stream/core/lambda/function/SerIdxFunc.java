@@ -0,0 +1,40 @@
+package io.github.vampireachao.stream.core.lambda.function;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 可序列化的带下标函数，下标为基本类型int，调用时不装箱
+ *
+ * @param <T> 元素类型
+ * @param <R> 返回值类型
+ * @author VampireAchao
+ * @see java.util.function.BiFunction
+ */
+@FunctionalInterface
+public interface SerIdxFunc<T, R> extends Serializable {
+
+    /**
+     * Applies this function to the given arguments.
+     *
+     * @param t     the element
+     * @param index the encounter index of the element
+     * @return the function result
+     */
+    R apply(T t, int index);
+
+    /**
+     * Returns a composed function that first applies this function to
+     * its input, and then applies the {@code after} function to the result.
+     *
+     * @param after the function to apply after this function is applied
+     * @param <V>   the type of output of the {@code after} function
+     * @return a composed function
+     * @throws NullPointerException if after is null
+     */
+    default <V> SerIdxFunc<T, V> andThen(Function<? super R, ? extends V> after) {
+        Objects.requireNonNull(after);
+        return (t, i) -> after.apply(apply(t, i));
+    }
+}
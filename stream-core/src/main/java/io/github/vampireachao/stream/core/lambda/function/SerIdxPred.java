@@ -0,0 +1,48 @@
+package io.github.vampireachao.stream.core.lambda.function;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 可序列化的带下标断言，下标为基本类型int，调用时不装箱
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ * @see java.util.function.BiPredicate
+ */
+@FunctionalInterface
+public interface SerIdxPred<T> extends Serializable {
+
+    /**
+     * Evaluates this predicate on the given arguments.
+     *
+     * @param t     the element
+     * @param index the encounter index of the element
+     * @return {@code true} if the input arguments match the predicate,
+     * otherwise {@code false}
+     */
+    boolean test(T t, int index);
+
+    /**
+     * Returns a composed predicate that represents a short-circuiting logical
+     * AND of this predicate and another.
+     *
+     * @param other a predicate that will be logically-ANDed with this predicate
+     * @return a composed predicate
+     * @throws NullPointerException if other is null
+     */
+    default SerIdxPred<T> and(SerIdxPred<? super T> other) {
+        Objects.requireNonNull(other);
+        return (t, i) -> test(t, i) && other.test(t, i);
+    }
+
+    /**
+     * Returns a predicate that represents the logical negation of this
+     * predicate.
+     *
+     * @return a predicate that represents the logical negation of this predicate
+     */
+    default SerIdxPred<T> negate() {
+        return (t, i) -> !test(t, i);
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.vampireachao.stream.core.lambda.function;
+
+import java.io.Serializable;
+
+/**
+ * 可序列化的int元素带下标一元操作，元素与下标都是基本类型，调用时不装箱
+ *
+ * @author VampireAchao
+ * @see SerIdxFunc
+ */
+@FunctionalInterface
+public interface SerIntIdxUnOp extends Serializable {
+
+    /**
+     * Applies this operator to the given arguments.
+     *
+     * @param value the element
+     * @param index the encounter index of the element
+     * @return the operator result
+     */
+    int applyAsInt(int value, int index);
+}
@@ -0,0 +1,23 @@
+package io.github.vampireachao.stream.core.lambda.function;
+
+import java.io.Serializable;
+
+/**
+ * 可序列化的long元素带下标断言，元素与下标都是基本类型，调用时不装箱
+ *
+ * @author VampireAchao
+ * @see SerIdxPred
+ */
+@FunctionalInterface
+public interface SerLongIdxPred extends Serializable {
+
+    /**
+     * Evaluates this predicate on the given arguments.
+     *
+     * @param value the element
+     * @param index the encounter index of the element
+     * @return {@code true} if the input arguments match the predicate,
+     * otherwise {@code false}
+     */
+    boolean test(long value, int index);
+}
@@ -0,0 +1,75 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步映射的默认执行器
+ * 运行在JDK21及以上时使用虚拟线程，每个映射一个虚拟线程，阻塞调用不占用平台线程；
+ * 否则使用一个有界的守护线程池，空闲的线程会被回收
+ *
+ * @author VampireAchao
+ */
+final class AsyncExecutors {
+
+    /**
+     * 无虚拟线程时，默认线程池的线程数上限
+     */
+    static final int MAX_POOL_SIZE = Math.max(Runtime.getRuntime().availableProcessors() * 4, 16);
+
+    private AsyncExecutors() {
+        /* Do not new me! */
+    }
+
+    /**
+     * 获取默认执行器
+     *
+     * @return 执行器
+     */
+    static Executor defaultExecutor() {
+        return Holder.EXECUTOR;
+    }
+
+    /**
+     * 首次使用时才创建执行器
+     */
+    private static final class Holder {
+        private static final Executor EXECUTOR = create();
+    }
+
+    private static Executor create() {
+        Executor virtual = virtualThreadExecutor();
+        if (virtual != null) {
+            return virtual;
+        }
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, "steam-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_POOL_SIZE, MAX_POOL_SIZE,
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 项目仍以java8为编译目标，通过反射获取JDK21的{@code Executors.newVirtualThreadPerTaskExecutor()}
+     *
+     * @return 虚拟线程执行器，不支持时返回null
+     */
+    private static Executor virtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
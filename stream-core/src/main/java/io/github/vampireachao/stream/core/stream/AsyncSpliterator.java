@@ -0,0 +1,155 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 异步映射的spliterator，将每个元素交给执行器执行映射，同时最多有maxConcurrency个映射在执行
+ * 有序时按遇到顺序交出结果，队首未完成时等待队首；无序时按完成顺序交出结果
+ * 只有消费结果的线程会从源拉取元素，源无需线程安全；映射失败时取消其余正在执行的映射，并将异常抛给消费方
+ * 短路的终端操作不会通知spliterator，由终端操作结束后的收尾操作调用{@link #cancel()}
+ *
+ * @param <T> 源元素类型
+ * @param <R> 映射后的元素类型
+ * @author VampireAchao
+ */
+final class AsyncSpliterator<T, R> implements Spliterator<R> {
+
+    private final Spliterator<T> source;
+    private final Function<? super T, ? extends R> mapper;
+    private final int maxConcurrency;
+    private final Executor executor;
+    private final boolean ordered;
+    /**
+     * 正在执行的映射，有序时按遇到顺序排列
+     */
+    private final ArrayDeque<Future<R>> inFlight;
+    /**
+     * 无序时按完成顺序获取结果
+     */
+    private final CompletionService<R> completion;
+    private boolean exhausted;
+    private volatile boolean cancelled;
+
+    AsyncSpliterator(Spliterator<T> source, Function<? super T, ? extends R> mapper,
+                     int maxConcurrency, Executor executor, boolean ordered) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.source = source;
+        this.mapper = mapper;
+        this.maxConcurrency = maxConcurrency;
+        this.executor = executor;
+        this.ordered = ordered;
+        this.inFlight = new ArrayDeque<>(Math.min(maxConcurrency, 1 << 10));
+        this.completion = ordered ? null : new ExecutorCompletionService<>(executor);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        fill();
+        if (inFlight.isEmpty()) {
+            return false;
+        }
+        action.accept(await(ordered ? inFlight.poll() : take()));
+        return true;
+    }
+
+    /**
+     * 从源拉取元素并提交映射，直到正在执行的映射达到上限或源耗尽
+     */
+    private void fill() {
+        while (!exhausted && inFlight.size() < maxConcurrency) {
+            exhausted = !source.tryAdvance(this::submit);
+        }
+    }
+
+    private void submit(T t) {
+        Future<R> future;
+        if (ordered) {
+            FutureTask<R> task = new FutureTask<>(() -> mapper.apply(t));
+            executor.execute(task);
+            future = task;
+        } else {
+            future = completion.submit(() -> mapper.apply(t));
+        }
+        inFlight.add(future);
+    }
+
+    private Future<R> take() {
+        try {
+            Future<R> future = completion.take();
+            inFlight.remove(future);
+            return future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new CompletionException(e);
+        }
+    }
+
+    private R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            cancel();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        } catch (CancellationException e) {
+            cancel();
+            throw e;
+        }
+    }
+
+    /**
+     * 取消所有正在执行的映射，终端操作结束、流关闭或映射失败时调用，之后不再拉取元素
+     */
+    void cancel() {
+        cancelled = true;
+        Future<R> future;
+        while ((future = inFlight.poll()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        // 并发度由自身控制，不再拆分
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = source.estimateSize();
+        return size == Long.MAX_VALUE ? size : size + inFlight.size();
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = source.characteristics() & (SIZED | ORDERED);
+        return ordered ? characteristics : characteristics & ~ORDERED;
+    }
+}
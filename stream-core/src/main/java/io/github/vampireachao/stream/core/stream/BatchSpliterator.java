@@ -0,0 +1,136 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * 将源按指定长度分批的spliterator，惰性拉取，同一时刻每个分段最多持有一批元素，可用于无限流
+ * 源为SUBSIZED时，拆分点会对齐到批次边界：前缀段从后缀段头部借入不足一批的元素，保证除全局最后一批外每一批都是满的
+ * 源大小未知时，拆分会先拉取若干批元素到数组中，与{@link Spliterators.AbstractSpliterator}的策略一致
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ */
+final class BatchSpliterator<T> implements Spliterator<List<T>> {
+
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    private final Spliterator<T> source;
+    private final int batchSize;
+    /**
+     * 源耗尽后追加在尾部的元素，来自拆分时从后缀段借入的元素
+     */
+    private List<T> tail;
+    private int batch;
+
+    BatchSpliterator(Spliterator<T> source, int batchSize) {
+        this(source, batchSize, null);
+    }
+
+    private BatchSpliterator(Spliterator<T> source, int batchSize, List<T> tail) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.source = source;
+        this.batchSize = batchSize;
+        this.tail = tail;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+        Objects.requireNonNull(action);
+        List<T> next = nextBatch();
+        if (next == null) {
+            return false;
+        }
+        action.accept(next);
+        return true;
+    }
+
+    private List<T> nextBatch() {
+        long est = source.estimateSize() + (tail == null ? 0 : tail.size());
+        List<T> list = new ArrayList<>((int) Math.min(batchSize, Math.max(Math.min(est, BATCH_UNIT), 1)));
+        //noinspection StatementWithEmptyBody
+        while (list.size() < batchSize && source.tryAdvance(list::add)) {
+            // 持续拉取直到凑满一批
+        }
+        if (list.size() < batchSize && tail != null) {
+            int take = Math.min(batchSize - list.size(), tail.size());
+            list.addAll(tail.subList(0, take));
+            tail = take == tail.size() ? null : new ArrayList<>(tail.subList(take, tail.size()));
+        }
+        return list.isEmpty() ? null : list;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (source.hasCharacteristics(SUBSIZED)) {
+            return splitAligned();
+        }
+        return splitBatches();
+    }
+
+    private Spliterator<List<T>> splitAligned() {
+        if (source.estimateSize() <= batchSize) {
+            return null;
+        }
+        Spliterator<T> prefix = source.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        int remainder = (int) (prefix.getExactSizeIfKnown() % batchSize);
+        List<T> borrowed = null;
+        if (remainder != 0) {
+            // 从后缀段头部借入元素，补齐前缀段的最后一批
+            borrowed = new ArrayList<>(batchSize - remainder);
+            //noinspection StatementWithEmptyBody
+            while (borrowed.size() < batchSize - remainder && source.tryAdvance(borrowed::add)) {
+                // 借入直到补齐
+            }
+        }
+        return new BatchSpliterator<>(prefix, batchSize, borrowed);
+    }
+
+    private Spliterator<List<T>> splitBatches() {
+        long est = estimateSize();
+        if (est <= 1) {
+            return null;
+        }
+        // 每次拆分拉取的批数逐步增长，每次增长约BATCH_UNIT个元素
+        int unit = Math.max(1, BATCH_UNIT / batchSize);
+        int n = (int) Math.min(Math.min((long) batch + unit, MAX_BATCH), est);
+        Object[] batches = new Object[n];
+        int count = 0;
+        List<T> next;
+        while (count < n && (next = nextBatch()) != null) {
+            batches[count++] = next;
+        }
+        if (count == 0) {
+            return null;
+        }
+        batch = count;
+        @SuppressWarnings("unchecked")
+        Spliterator<List<T>> prefix = (Spliterator<List<T>>) (Spliterator<?>) Spliterators.spliterator(batches, 0, count, characteristics() | SIZED | SUBSIZED);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = source.estimateSize();
+        if (size == Long.MAX_VALUE) {
+            return size;
+        }
+        size += tail == null ? 0 : tail.size();
+        return (size + batchSize - 1) / batchSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ORDERED | SIZED | SUBSIZED) | NONNULL;
+    }
+}
@@ -0,0 +1,294 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 将多个spliterator依次拼接的spliterator，与{@link java.util.stream.Stream#concat}嵌套拼接不同，
+ * 所有部分平铺在同一层，遍历时不会产生深度调用链，拆分时按元素个数在部分之间二分，只剩一个部分时由该部分自行拆分
+ * 所有部分都有确定大小时，保留{@link #SIZED}与{@link #SUBSIZED}
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ */
+final class ConcatSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * 尚未展开的部分，首次使用时展开为数组，之后为null
+     */
+    private Parts<T> pending;
+    private Spliterator<? extends T>[] parts;
+    private int index;
+    private int fence;
+    private final int characteristics;
+
+    private ConcatSpliterator(Parts<T> pending, int characteristics) {
+        this.pending = pending;
+        this.characteristics = characteristics;
+    }
+
+    private ConcatSpliterator(Spliterator<? extends T>[] parts, int index, int fence) {
+        this.parts = parts;
+        this.index = index;
+        this.fence = fence;
+        this.characteristics = characteristics(parts, index, fence);
+    }
+
+    private static int characteristics(Spliterator<?>[] parts, int from, int to) {
+        int characteristics = ~0;
+        long size = 0;
+        for (int i = from; i < to; i++) {
+            characteristics &= parts[i].characteristics();
+            size += parts[i].estimateSize();
+            if (size < 0) {
+                characteristics &= ~(SIZED | SUBSIZED);
+            }
+        }
+        return characteristics & ~(DISTINCT | SORTED);
+    }
+
+    private void expand() {
+        if (pending != null) {
+            parts = pending.toArray();
+            fence = parts.length;
+            pending = null;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        expand();
+        while (index < fence) {
+            if (parts[index].tryAdvance(action)) {
+                return true;
+            }
+            parts[index++] = null;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        expand();
+        while (index < fence) {
+            parts[index].forEachRemaining(action);
+            parts[index++] = null;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        expand();
+        if (fence - index == 1) {
+            @SuppressWarnings("unchecked")
+            Spliterator<T> prefix = (Spliterator<T>) parts[index].trySplit();
+            return prefix;
+        }
+        if (fence - index < 1) {
+            return null;
+        }
+        // 在部分之间按元素个数二分，至少拆出一个部分
+        long half = estimateSize() >>> 1;
+        int mid = index + 1;
+        long size = parts[index].estimateSize();
+        while (mid < fence - 1 && size < half) {
+            size += parts[mid++].estimateSize();
+        }
+        ConcatSpliterator<T> prefix = new ConcatSpliterator<>(parts, index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        expand();
+        long size = 0;
+        for (int i = index; i < fence; i++) {
+            size += parts[i].estimateSize();
+            if (size < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    /**
+     * 待拼接的部分，用于{@link Steam#push}、{@link Steam#unshift}等操作连续拼接时平铺而不是嵌套
+     * 不可变：追加部分返回新的对象，但与原对象共享存储，只有在原对象已是最新时才原地追加，否则拷贝，
+     * 因此连续拼接n次的开销是O(n)，而不是每次都重建
+     * 前插的部分倒序存放在front中，后插的部分顺序存放在back中
+     *
+     * @param <T> 元素类型
+     */
+    static final class Parts<T> {
+
+        private final List<Part<T>> front;
+        private final List<Part<T>> back;
+        private final int frontSize;
+        private final int backSize;
+
+        private Parts(List<Part<T>> front, List<Part<T>> back) {
+            this.front = front;
+            this.back = back;
+            this.frontSize = front.size();
+            this.backSize = back.size();
+        }
+
+        /**
+         * 创建只有一个部分的拼接
+         *
+         * @param spliterator 部分
+         * @param closer      部分的关闭处理器
+         * @param <T>         元素类型
+         * @return 拼接
+         */
+        static <T> Parts<T> of(Spliterator<? extends T> spliterator, Runnable closer) {
+            List<Part<T>> back = new ArrayList<>();
+            back.add(new Part<>(spliterator, closer, null));
+            return new Parts<>(new ArrayList<>(), back);
+        }
+
+        /**
+         * 在末尾追加
+         *
+         * @param spliterator 部分
+         * @param closer      部分的关闭处理器
+         * @return 新的拼接
+         */
+        Parts<T> push(Spliterator<? extends T> spliterator, Runnable closer) {
+            Parts<T> parts = backSize == back.size() ? this : copy();
+            parts.back.add(new Part<>(spliterator, closer, parts.back.get(backSize - 1)));
+            return new Parts<>(parts.front, parts.back);
+        }
+
+        /**
+         * 在开头插入
+         *
+         * @param spliterator 部分
+         * @param closer      部分的关闭处理器
+         * @return 新的拼接
+         */
+        Parts<T> unshift(Spliterator<? extends T> spliterator, Runnable closer) {
+            Parts<T> parts = frontSize == front.size() ? this : copy();
+            parts.front.add(new Part<>(spliterator, closer, frontSize == 0 ? null : parts.front.get(frontSize - 1)));
+            return new Parts<>(parts.front, parts.back);
+        }
+
+        /**
+         * 将另一个拼接的所有部分追加到末尾
+         *
+         * @param other 另一个拼接
+         * @return 新的拼接
+         */
+        Parts<T> pushAll(Parts<? extends T> other) {
+            Parts<T> parts = this;
+            for (Part<? extends T> part : other.parts()) {
+                parts = parts.push(part.spliterator, part.closer);
+            }
+            return parts;
+        }
+
+        private Parts<T> copy() {
+            return new Parts<>(new ArrayList<>(front.subList(0, frontSize)), new ArrayList<>(back.subList(0, backSize)));
+        }
+
+        private List<Part<T>> parts() {
+            List<Part<T>> parts = new ArrayList<>(frontSize + backSize);
+            for (int i = frontSize - 1; i >= 0; i--) {
+                parts.add(front.get(i));
+            }
+            parts.addAll(back.subList(0, backSize));
+            return parts;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Spliterator<? extends T>[] toArray() {
+            List<Part<T>> parts = parts();
+            Spliterator<?>[] array = new Spliterator<?>[parts.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = parts.get(i).spliterator;
+            }
+            // 数组中只存放各部分的Spliterator<? extends T>
+            return (Spliterator<? extends T>[]) array;
+        }
+
+        /**
+         * 创建拼接后的spliterator，特征值由各部分累计得到，无需遍历所有部分
+         *
+         * @return spliterator
+         */
+        Spliterator<T> spliterator() {
+            Part<T> last = back.get(backSize - 1);
+            int characteristics = last.characteristics;
+            long size = last.size;
+            if (frontSize > 0) {
+                Part<T> first = front.get(frontSize - 1);
+                characteristics &= first.characteristics;
+                size += first.size;
+            }
+            if (size < 0) {
+                characteristics &= ~(SIZED | SUBSIZED);
+            }
+            return new ConcatSpliterator<>(this, characteristics & ~(DISTINCT | SORTED));
+        }
+
+        /**
+         * 按遇到顺序依次关闭各部分，所有部分都会被关闭，第一个异常之后的异常作为被抑制的异常
+         */
+        void close() {
+            Throwable failure = null;
+            for (Part<T> part : parts()) {
+                try {
+                    part.closer.run();
+                } catch (Throwable e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        }
+    }
+
+    /**
+     * 拼接的一个部分，同时记录同一侧从第一个部分到该部分的累计特征值与累计大小
+     */
+    private static final class Part<T> {
+        private final Spliterator<? extends T> spliterator;
+        private final Runnable closer;
+        private final int characteristics;
+        private final long size;
+
+        private Part(Spliterator<? extends T> spliterator, Runnable closer, Part<T> previous) {
+            this.spliterator = spliterator;
+            this.closer = closer;
+            int own = spliterator.characteristics();
+            long ownSize = (own & SIZED) != 0 ? spliterator.estimateSize() : Long.MAX_VALUE;
+            if (previous == null) {
+                this.characteristics = own;
+                this.size = ownSize;
+            } else {
+                this.characteristics = previous.characteristics & own;
+                long sum = previous.size + ownSize;
+                this.size = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+    }
+}
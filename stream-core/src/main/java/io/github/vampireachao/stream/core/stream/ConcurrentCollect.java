@@ -0,0 +1,264 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * 调用过{@link Steam#unordered()}的并行流的{@link Steam#toMap}、{@link Steam#group}、{@link Steam#toSet()}使用的并发收集器
+ * 所有线程共同写入同一个预设容量的{@link ConcurrentHashMap}，没有合并阶段
+ * 与对应的非并发收集一样支持null键、null值，{@link ConcurrentHashMap}中以占位对象代替null，
+ * 最后拷贝为{@link HashMap}、{@link HashSet}并还原null，结果与非并发收集的类型一致，之后仍可使用null键
+ *
+ * @author VampireAchao
+ */
+final class ConcurrentCollect {
+
+    private static final Set<Collector.Characteristics> CH_CONCURRENT_NOID
+            = Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED));
+    private static final Object NULL = new Object();
+
+    private ConcurrentCollect() {
+        /* Do not new me! */
+    }
+
+    /**
+     * 并发收集为map，null键、null值覆盖已有的值，合并结果为null时保留新值
+     *
+     * @param keyMapper     key操作
+     * @param valueMapper   value操作
+     * @param mergeFunction 合并操作
+     * @param size          元素个数，未知时为-1
+     * @param <T>           元素类型
+     * @param <K>           key类型
+     * @param <U>           value类型
+     * @return 收集器
+     */
+    static <T, K, U> Collector<T, ?, Map<K, U>> toMap(Function<? super T, ? extends K> keyMapper,
+                                                     Function<? super T, ? extends U> valueMapper,
+                                                     BinaryOperator<U> mergeFunction,
+                                                     long size) {
+        @SuppressWarnings("unchecked")
+        BinaryOperator<Object> merge = (BinaryOperator<Object>) mergeFunction;
+        // 只用于合并两个非null值，已有的值为null时直接替换
+        BinaryOperator<Object> remapping = (oldValue, newValue) -> {
+            if (oldValue == NULL) {
+                return newValue;
+            }
+            Object merged = merge.apply(oldValue, newValue);
+            return merged == null ? newValue : merged;
+        };
+        BiConsumer<Table, T> accumulator = (table, element) -> {
+            if (element == null) {
+                table.put(null, null);
+                return;
+            }
+            K key = keyMapper.apply(element);
+            U value = valueMapper.apply(element);
+            if (key == null || value == null) {
+                table.put(key, value);
+            } else {
+                table.map.merge(key, value, remapping);
+            }
+        };
+        return new Collector<T, Table, Map<K, U>>() {
+            @Override
+            public Supplier<Table> supplier() {
+                return () -> new Table(size);
+            }
+
+            @Override
+            public BiConsumer<Table, T> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            public BinaryOperator<Table> combiner() {
+                return (left, right) -> {
+                    right.map.forEach((key, value) -> {
+                        if (key == NULL || value == NULL) {
+                            left.put(unmask(key), unmask(value));
+                        } else {
+                            left.map.merge(key, value, remapping);
+                        }
+                    });
+                    return left;
+                };
+            }
+
+            @Override
+            public Function<Table, Map<K, U>> finisher() {
+                return Table::toMap;
+            }
+
+            @Override
+            public Set<Characteristics> characteristics() {
+                return CH_CONCURRENT_NOID;
+            }
+        };
+    }
+
+    /**
+     * 并发分组，下游收集器是并发的时直接累加，否则在分组的容器上同步后累加
+     * null元素归入null键，但不交给下游
+     *
+     * @param classifier 分组依据
+     * @param downstream 下游收集器
+     * @param <T>        元素类型
+     * @param <K>        分组依据类型
+     * @param <A>        下游收集器的累加容器类型
+     * @param <D>        下游收集器的结果类型
+     * @return 收集器
+     */
+    static <T, K, A, D> Collector<T, ?, Map<K, D>> groupingBy(Function<? super T, ? extends K> classifier,
+                                                            Collector<? super T, A, D> downstream) {
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<Object, Object> newContainer = k -> downstreamSupplier.get();
+        boolean concurrent = downstream.characteristics().contains(Collector.Characteristics.CONCURRENT);
+        BiConsumer<Table, T> accumulator = (table, t) -> {
+            if (t == null) {
+                table.computeIfAbsent(null, newContainer);
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            A container = (A) table.computeIfAbsent(classifier.apply(t), newContainer);
+            if (concurrent) {
+                downstreamAccumulator.accept(container, t);
+            } else {
+                synchronized (container) {
+                    downstreamAccumulator.accept(container, t);
+                }
+            }
+        };
+        @SuppressWarnings("unchecked")
+        Function<A, Object> downstreamFinisher = (Function<A, Object>) downstream.finisher();
+        boolean identityFinish = downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH);
+        return new Collector<T, Table, Map<K, D>>() {
+            @Override
+            public Supplier<Table> supplier() {
+                return () -> new Table(-1);
+            }
+
+            @Override
+            public BiConsumer<Table, T> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public BinaryOperator<Table> combiner() {
+                return (left, right) -> {
+                    right.map.forEach((key, value) -> left.map.merge(key, value,
+                            (l, r) -> downstreamCombiner.apply((A) l, (A) r)));
+                    return left;
+                };
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Function<Table, Map<K, D>> finisher() {
+                return table -> {
+                    if (!identityFinish) {
+                        table.map.replaceAll((k, v) -> mask(downstreamFinisher.apply((A) v)));
+                    }
+                    return table.toMap();
+                };
+            }
+
+            @Override
+            public Set<Characteristics> characteristics() {
+                return CH_CONCURRENT_NOID;
+            }
+        };
+    }
+
+    /**
+     * 并发收集为set
+     *
+     * @param size 元素个数，未知时为-1
+     * @param <T>  元素类型
+     * @return 收集器
+     */
+    static <T> Collector<T, ?, Set<T>> toSet(long size) {
+        return new Collector<T, Table, Set<T>>() {
+            @Override
+            public Supplier<Table> supplier() {
+                return () -> new Table(size);
+            }
+
+            @Override
+            public BiConsumer<Table, T> accumulator() {
+                return (table, t) -> table.put(t, Boolean.TRUE);
+            }
+
+            @Override
+            public BinaryOperator<Table> combiner() {
+                return (left, right) -> {
+                    left.map.putAll(right.map);
+                    return left;
+                };
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Function<Table, Set<T>> finisher() {
+                return table -> {
+                    Set<T> set = new HashSet<>(table.map.size() * 4 / 3 + 1);
+                    table.map.keySet().forEach(key -> set.add((T) unmask(key)));
+                    return set;
+                };
+            }
+
+            @Override
+            public Set<Characteristics> characteristics() {
+                return CH_CONCURRENT_NOID;
+            }
+        };
+    }
+
+    private static Object mask(Object o) {
+        return o == null ? NULL : o;
+    }
+
+    private static Object unmask(Object o) {
+        return o == NULL ? null : o;
+    }
+
+    /**
+     * 所有线程共享的累加容器
+     */
+    private static final class Table {
+        private final ConcurrentHashMap<Object, Object> map;
+
+        private Table(long size) {
+            this.map = size < 0 ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>((int) Math.min(1 << 30, size));
+        }
+
+        private void put(Object key, Object value) {
+            map.put(mask(key), mask(value));
+        }
+
+        private Object computeIfAbsent(Object key, Function<Object, Object> mappingFunction) {
+            return map.computeIfAbsent(mask(key), mappingFunction);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <K, V> Map<K, V> toMap() {
+            Map<K, V> result = new HashMap<>(map.size() * 4 / 3 + 1);
+            map.forEach((key, value) -> result.put((K) unmask(key), (V) unmask(value)));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,832 @@
+package io.github.vampireachao.stream.core.stream;
+
+import io.github.vampireachao.stream.core.collection.LongHashSet;
+import io.github.vampireachao.stream.core.collection.DoubleList;
+import io.github.vampireachao.stream.core.lambda.function.SerDoubleIdxCons;
+import io.github.vampireachao.stream.core.lambda.function.SerDoubleIdxPred;
+import io.github.vampireachao.stream.core.lambda.function.SerDoubleIdxUnOp;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.*;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 对{@link DoubleStream}的封装和拓展，元素全程不装箱，api与{@link Steam}保持一致
+ * 适用于金额、比率等场景，避免{@code Steam<Double>}带来的装箱开销
+ *
+ * @author VampireAchao
+ * @see DoubleStream
+ * @see Steam
+ */
+public class DoubleSteam implements DoubleStream {
+
+    /**
+     * 并行去重结果的特征值
+     */
+    private static final int DISTINCT_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.IMMUTABLE;
+    /**
+     * 未找到元素时的下标
+     */
+    private static final int NOT_FOUND_INDEX = -1;
+
+    protected DoubleStream stream;
+
+    /**
+     * 执行上下文，由中间操作向后传递
+     */
+    SteamContext context = SteamContext.DEFAULT;
+
+    DoubleSteam(DoubleStream stream) {
+        this.stream = stream;
+    }
+
+    // --------------------------------------------------------------- Static method start
+
+    /**
+     * 返回空的串行流
+     *
+     * @return 一个空的串行流
+     */
+    public static DoubleSteam empty() {
+        return new DoubleSteam(DoubleStream.empty());
+    }
+
+    /**
+     * 返回包含单个元素的串行流
+     *
+     * @param t 单个元素
+     * @return 包含单个元素的串行流
+     */
+    public static DoubleSteam of(double t) {
+        return new DoubleSteam(DoubleStream.of(t));
+    }
+
+    /**
+     * 返回包含指定元素的串行流
+     *
+     * @param values 指定元素
+     * @return 包含指定元素的串行流
+     */
+    public static DoubleSteam of(double... values) {
+        return (values == null || values.length == 0) ? empty() : new DoubleSteam(DoubleStream.of(values));
+    }
+
+    /**
+     * 通过传入的{@link DoubleStream}创建流
+     *
+     * @param stream {@link DoubleStream}
+     * @return 流
+     */
+    public static DoubleSteam of(DoubleStream stream) {
+        return new DoubleSteam(Objects.requireNonNull(stream));
+    }
+
+    /**
+     * 返回无限有序流，该流由 初始值 以及执行 迭代函数 进行迭代获取到元素
+     *
+     * @param seed 初始值
+     * @param f    用上一个元素作为参数执行并返回一个新的元素
+     * @return 无限有序流
+     */
+    public static DoubleSteam iterate(final double seed, final DoubleUnaryOperator f) {
+        return new DoubleSteam(DoubleStream.iterate(seed, f));
+    }
+
+    /**
+     * 返回无限串行无序流，其中每一个元素都由给定的{@code DoubleSupplier}生成
+     *
+     * @param s 用来生成元素的 {@code DoubleSupplier}
+     * @return 无限串行无序流
+     */
+    public static DoubleSteam generate(DoubleSupplier s) {
+        return new DoubleSteam(DoubleStream.generate(s));
+    }
+
+    /**
+     * 创建一个惰性拼接流，其元素是第一个流的所有元素，然后是第二个流的所有元素
+     *
+     * @param a 第一个流
+     * @param b 第二个流
+     * @return 拼接两个流之后的流
+     */
+    public static DoubleSteam concat(DoubleStream a, DoubleStream b) {
+        return new DoubleSteam(DoubleStream.concat(a, b));
+    }
+
+    // --------------------------------------------------------------- Static method end
+
+    /**
+     * 过滤元素，返回与指定断言匹配的元素组成的流
+     * 这是一个无状态中间操作
+     *
+     * @param predicate 断言
+     * @return 返回叠加过滤操作后的流
+     */
+    @Override
+    public DoubleSteam filter(DoublePredicate predicate) {
+        return context.wrap(stream.filter(predicate));
+    }
+
+    /**
+     * 过滤元素，返回与指定断言匹配的元素组成的流，断言带下标，元素与下标都不装箱
+     * 下标为遇到顺序下标，带下标的断言按遇到顺序逐个执行，并行流只并行执行之后的操作
+     * 这是一个无状态中间操作
+     *
+     * @param predicate 断言
+     * @return 返回叠加过滤操作后的流
+     */
+    public DoubleSteam filterIdx(SerDoubleIdxPred predicate) {
+        Objects.requireNonNull(predicate);
+        return idx((value, i, downstream) -> {
+            if (predicate.test(value, i)) {
+                downstream.accept(value);
+            }
+        }, IdxSpliterator.FILTER_CLEARED);
+    }
+
+    /**
+     * 返回与指定函数将元素作为参数执行的结果组成的流
+     * 这是一个无状态中间操作
+     *
+     * @param mapper 指定的函数
+     * @return 返回叠加操作后的流
+     */
+    @Override
+    public DoubleSteam map(DoubleUnaryOperator mapper) {
+        return context.wrap(stream.map(mapper));
+    }
+
+    /**
+     * 返回与指定函数将元素作为参数执行的结果组成的流，操作带下标，元素与下标都不装箱
+     * 下标为遇到顺序下标，带下标的操作按遇到顺序逐个执行，并行流只并行执行之后的操作
+     * 这是一个无状态中间操作
+     *
+     * @param mapper 指定的函数
+     * @return 返回叠加操作后的流
+     */
+    public DoubleSteam mapIdx(SerDoubleIdxUnOp mapper) {
+        Objects.requireNonNull(mapper);
+        return idx((value, i, downstream) -> downstream.accept(mapper.applyAsDouble(value, i)), IdxSpliterator.MAP_CLEARED);
+    }
+
+    private DoubleSteam idx(PrimitiveIdxSpliterators.OfDouble.Stage stage, int cleared) {
+        return context.wrap(StreamSupport.doubleStream(new PrimitiveIdxSpliterators.OfDouble(stream.spliterator(), stage, cleared), isParallel())
+                .onClose(stream::close));
+    }
+
+    /**
+     * 返回与指定函数将元素作为参数执行的结果组成的对象流
+     * 这是一个无状态中间操作
+     *
+     * @param mapper 指定的函数
+     * @param <U>    函数执行后返回的类型
+     * @return 返回叠加操作后的对象流
+     */
+    @Override
+    public <U> Steam<U> mapToObj(DoubleFunction<? extends U> mapper) {
+        return context.wrap(stream.mapToObj(mapper));
+    }
+
+    /**
+     * 和{@link DoubleSteam#map(DoubleUnaryOperator)}一样，只不过函数的返回值必须为int类型
+     * 这是一个无状态中间操作
+     *
+     * @param mapper 返回值为int类型的函数
+     * @return 叠加操作后元素类型全为int的流
+     */
+    @Override
+    public IntSteam mapToInt(DoubleToIntFunction mapper) {
+        return context.wrap(stream.mapToInt(mapper));
+    }
+
+    /**
+     * 和{@link DoubleSteam#map(DoubleUnaryOperator)}一样，只不过函数的返回值必须为long类型
+     * 这是一个无状态中间操作
+     *
+     * @param mapper 返回值为long类型的函数
+     * @return 叠加操作后元素类型全为long的流
+     */
+    @Override
+    public LongSteam mapToLong(DoubleToLongFunction mapper) {
+        return context.wrap(stream.mapToLong(mapper));
+    }
+
+    /**
+     * 扩散流操作，将原有流元素执行mapper操作，返回多个流所有元素组成的流
+     * 这是一个无状态中间操作
+     *
+     * @param mapper 操作，返回DoubleStream
+     * @return 返回叠加拆分操作后的流
+     */
+    @Override
+    public DoubleSteam flatMap(DoubleFunction<? extends DoubleStream> mapper) {
+        return context.wrap(stream.flatMap(mapper));
+    }
+
+    /**
+     * 返回一个具有去重特征的流，元素不装箱，与{@link Double#equals(Object)}一致按{@link Double#doubleToLongBits(double)}比较
+     * 串行流下保留遇到顺序中最先出现的元素，并行流下同样保持遇到顺序，但执行终端操作时需要先完成上游的计算
+     * 这是一个有状态中间操作
+     *
+     * @return 一个具有去重特征的流
+     */
+    @Override
+    public DoubleSteam distinct() {
+        if (isParallel()) {
+            // 执行终端操作时才计算上游，此时已在终端操作的线程池中
+            final DoubleStream upstream = stream;
+            return context.wrap(StreamSupport.doubleStream(() -> Spliterators.spliterator(
+                            upstream.collect(DistinctBuffer::new, DistinctBuffer::add, DistinctBuffer::addAll).toArray(), DISTINCT_CHARACTERISTICS),
+                    Spliterator.SIZED | Spliterator.SUBSIZED | DISTINCT_CHARACTERISTICS, true).onClose(upstream::close));
+        }
+        LongHashSet exists = new LongHashSet();
+        return context.wrap(stream.filter(value -> exists.add(Double.doubleToLongBits(value))));
+    }
+
+    /**
+     * 返回一个元素按自然顺序排序的流
+     * 这是一个有状态中间操作
+     *
+     * @return 一个元素按自然顺序排序的流
+     */
+    @Override
+    public DoubleSteam sorted() {
+        return context.wrap(stream.sorted());
+    }
+
+    /**
+     * 返回与指定函数将元素作为参数执行后组成的流，主要用来调试
+     * 这是一个无状态中间操作
+     *
+     * @param action 指定的函数
+     * @return 返回叠加操作后的流
+     */
+    @Override
+    public DoubleSteam peek(DoubleConsumer action) {
+        return context.wrap(stream.peek(action));
+    }
+
+    /**
+     * 返回叠加调用{@link java.io.PrintStream#println(double)}打印出结果的流
+     *
+     * @return 返回叠加操作后的流
+     */
+    public DoubleSteam log() {
+        return peek(System.out::println);
+    }
+
+    /**
+     * 返回截取后面一些元素的流
+     * 这是一个短路状态中间操作
+     *
+     * @param maxSize 元素截取后的个数
+     * @return 截取后的流
+     */
+    @Override
+    public DoubleSteam limit(long maxSize) {
+        return context.wrap(stream.limit(maxSize));
+    }
+
+    /**
+     * 返回丢弃前面n个元素后的剩余元素组成的流
+     * 这是一个有状态中间操作
+     *
+     * @param n 需要丢弃的元素个数
+     * @return 丢弃前面n个元素后的剩余元素组成的流
+     */
+    @Override
+    public DoubleSteam skip(long n) {
+        return context.wrap(stream.skip(n));
+    }
+
+    /**
+     * 对流里面的每一个元素执行一个操作
+     * 这是一个终端操作
+     *
+     * @param action 操作
+     */
+    @Override
+    public void forEach(DoubleConsumer action) {
+        context.execute(isParallel(), () -> stream.forEach(action));
+    }
+
+    /**
+     * 对流里面的每一个元素按照顺序执行一个操作
+     * 这是一个终端操作
+     *
+     * @param action 操作
+     */
+    @Override
+    public void forEachOrdered(DoubleConsumer action) {
+        context.execute(isParallel(), () -> stream.forEachOrdered(action));
+    }
+
+    /**
+     * 对流里面的每一个元素按照遇到顺序执行一个操作，操作带下标，元素与下标都不装箱
+     * 这是一个终端操作
+     *
+     * @param action 操作
+     */
+    public void forEachIdx(SerDoubleIdxCons action) {
+        Objects.requireNonNull(action);
+        idx((value, i, downstream) -> action.accept(value, i), IdxSpliterator.FILTER_CLEARED).forEach(value -> {});
+    }
+
+    /**
+     * 返回一个包含此流元素的数组
+     * 这是一个终端操作
+     *
+     * @return 包含此流元素的数组
+     */
+    @Override
+    public double[] toArray() {
+        return context.evaluate(isParallel(), () -> stream.toArray());
+    }
+
+    /**
+     * 对元素进行聚合，并返回聚合后的值
+     * 这是一个终端操作
+     *
+     * @param identity 初始值
+     * @param op       聚合操作
+     * @return 聚合计算后的值
+     */
+    @Override
+    public double reduce(double identity, DoubleBinaryOperator op) {
+        return context.evaluateAsDouble(isParallel(), () -> stream.reduce(identity, op));
+    }
+
+    /**
+     * 对元素进行聚合，并返回聚合后用 {@link OptionalDouble}包裹的值
+     * 这是一个终端操作
+     *
+     * @param op 聚合操作
+     * @return 聚合后用 {@link OptionalDouble}包裹的值
+     */
+    @Override
+    public OptionalDouble reduce(DoubleBinaryOperator op) {
+        return context.evaluate(isParallel(), () -> stream.reduce(op));
+    }
+
+    /**
+     * 对元素进行收集，并返回收集后的容器
+     * 这是一个终端操作
+     *
+     * @param supplier    提供初始值的函数式接口
+     * @param accumulator 具体收集操作
+     * @param combiner    用于并行流时组合多个结果
+     * @param <R>         用于收集元素的容器
+     * @return 收集后的容器
+     */
+    @Override
+    public <R> R collect(Supplier<R> supplier, ObjDoubleConsumer<R> accumulator, BiConsumer<R, R> combiner) {
+        return context.evaluate(isParallel(), () -> stream.collect(supplier, accumulator, combiner));
+    }
+
+    /**
+     * 求和
+     *
+     * @return 元素之和
+     */
+    @Override
+    public double sum() {
+        return context.evaluateAsDouble(isParallel(), () -> stream.sum());
+    }
+
+    /**
+     * 获取最小值
+     *
+     * @return 最小值
+     */
+    @Override
+    public OptionalDouble min() {
+        return context.evaluate(isParallel(), () -> stream.min());
+    }
+
+    /**
+     * 获取最大值
+     *
+     * @return 最大值
+     */
+    @Override
+    public OptionalDouble max() {
+        return context.evaluate(isParallel(), () -> stream.max());
+    }
+
+    /**
+     * 返回流元素个数
+     *
+     * @return 流元素个数
+     */
+    @Override
+    public long count() {
+        return context.evaluateAsLong(isParallel(), () -> stream.count());
+    }
+
+    /**
+     * 获取平均值
+     *
+     * @return 平均值
+     */
+    @Override
+    public OptionalDouble average() {
+        return context.evaluate(isParallel(), () -> stream.average());
+    }
+
+    /**
+     * 获取统计信息，包括个数、和、最小值、最大值、平均值
+     *
+     * @return 统计信息
+     */
+    @Override
+    public DoubleSummaryStatistics summaryStatistics() {
+        return context.evaluate(isParallel(), () -> stream.summaryStatistics());
+    }
+
+    /**
+     * 判断是否有任何一个元素满足给定断言
+     *
+     * @param predicate 断言
+     * @return 是否有任何一个元素满足给定断言
+     */
+    @Override
+    public boolean anyMatch(DoublePredicate predicate) {
+        return context.evaluateAsBoolean(isParallel(), () -> stream.anyMatch(predicate));
+    }
+
+    /**
+     * 判断是否所有元素满足给定断言
+     *
+     * @param predicate 断言
+     * @return 是否所有元素满足给定断言
+     */
+    @Override
+    public boolean allMatch(DoublePredicate predicate) {
+        return context.evaluateAsBoolean(isParallel(), () -> stream.allMatch(predicate));
+    }
+
+    /**
+     * 判断是否没有元素满足给定断言
+     *
+     * @param predicate 断言
+     * @return 是否没有元素满足给定断言
+     */
+    @Override
+    public boolean noneMatch(DoublePredicate predicate) {
+        return context.evaluateAsBoolean(isParallel(), () -> stream.noneMatch(predicate));
+    }
+
+    /**
+     * 获取第一个元素
+     *
+     * @return 第一个元素
+     */
+    @Override
+    public OptionalDouble findFirst() {
+        return context.evaluate(isParallel(), () -> stream.findFirst());
+    }
+
+    /**
+     * 获取与给定断言匹配的第一个元素
+     *
+     * @param predicate 断言
+     * @return 与给定断言匹配的第一个元素
+     */
+    public OptionalDouble findFirst(DoublePredicate predicate) {
+        return context.evaluate(isParallel(), () -> stream.filter(predicate).findFirst());
+    }
+
+    /**
+     * 获取与给定断言匹配的第一个元素的下标
+     *
+     * @param predicate 断言
+     * @return 与给定断言匹配的第一个元素的下标，如果不存在则返回-1
+     */
+    public int findFirstIdx(DoublePredicate predicate) {
+        Objects.requireNonNull(predicate);
+        return (int) idx((value, i, downstream) -> {
+            if (predicate.test(value)) {
+                downstream.accept(i);
+            }
+        }, IdxSpliterator.FILTER_CLEARED).findFirst().orElse(NOT_FOUND_INDEX);
+    }
+
+    /**
+     * 获取最后一个元素
+     *
+     * @return 最后一个元素
+     */
+    public OptionalDouble findLast() {
+        return context.evaluate(isParallel(), () -> stream.reduce((l, r) -> r));
+    }
+
+    /**
+     * 获取与给定断言匹配的最后一个元素
+     *
+     * @param predicate 断言
+     * @return 与给定断言匹配的最后一个元素
+     */
+    public OptionalDouble findLast(DoublePredicate predicate) {
+        return context.evaluate(isParallel(), () -> stream.filter(predicate).reduce((l, r) -> r));
+    }
+
+    /**
+     * 考虑性能，随便取一个，这里不是随机取一个，是随便取一个
+     *
+     * @return 随便取一个
+     */
+    @Override
+    public OptionalDouble findAny() {
+        return context.evaluate(isParallel(), () -> stream.findAny());
+    }
+
+    /**
+     * 获取流中指定下标的元素，如果是负数，则从最后一个开始数起
+     *
+     * @param idx 下标
+     * @return 指定下标的元素
+     */
+    public OptionalDouble at(int idx) {
+        double[] array = toArray();
+        if (idx < 0) {
+            idx += array.length;
+        }
+        return idx < 0 || idx >= array.length ? OptionalDouble.empty() : OptionalDouble.of(array[idx]);
+    }
+
+    /**
+     * 装箱为{@link Steam}
+     *
+     * @return 装箱后的流
+     */
+    @Override
+    public Steam<Double> boxed() {
+        return context.wrap(stream.boxed());
+    }
+
+    /**
+     * 返回一个串行流，该方法可以将并行流转换为串行流
+     *
+     * @return 串行流
+     */
+    @Override
+    public DoubleSteam sequential() {
+        this.stream = stream.sequential();
+        return this;
+    }
+
+    /**
+     * 将流转换为并行
+     *
+     * @return 并行流
+     */
+    @Override
+    public DoubleSteam parallel() {
+        this.stream = stream.parallel();
+        return this;
+    }
+
+    /**
+     * 将流转换为并行，并在指定的线程池中执行，见{@link Steam#parallel(ForkJoinPool)}
+     *
+     * @param pool 线程池
+     * @return 并行流
+     */
+    public DoubleSteam parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        this.stream = stream.parallel();
+        this.context = context.withPool(pool);
+        return this;
+    }
+
+    /**
+     * 获取通过{@link #parallel(ForkJoinPool)}指定的线程池的统计信息
+     *
+     * @return 统计信息，未指定线程池时为空
+     */
+    public Optional<PoolStats> stats() {
+        return Optional.ofNullable(context.stats());
+    }
+
+    /**
+     * 更改流的并行状态
+     *
+     * @param parallel 是否并行
+     * @return 流
+     */
+    public DoubleSteam parallel(boolean parallel) {
+        return parallel ? parallel() : sequential();
+    }
+
+    /**
+     * 返回一个无序流(无手动排序)
+     *
+     * @return 无序流
+     */
+    @Override
+    public DoubleSteam unordered() {
+        return context.wrap(stream.unordered());
+    }
+
+    /**
+     * 在流关闭时执行操作
+     *
+     * @param closeHandler 在流关闭时执行的操作
+     * @return 流
+     */
+    @Override
+    public DoubleSteam onClose(Runnable closeHandler) {
+        this.stream = stream.onClose(closeHandler);
+        return this;
+    }
+
+    /**
+     * 与给定元素组成的流合并，成为新的流
+     *
+     * @param obj 元素
+     * @return 流
+     */
+    public DoubleSteam push(double... obj) {
+        return context.wrap(DoubleStream.concat(this.stream, of(obj)));
+    }
+
+    /**
+     * 给定元素组成的流与当前流合并，成为新的流
+     *
+     * @param obj 元素
+     * @return 流
+     */
+    public DoubleSteam unshift(double... obj) {
+        return context.wrap(DoubleStream.concat(of(obj), this.stream));
+    }
+
+    /**
+     * 返回流的并行状态
+     *
+     * @return 流的并行状态
+     */
+    @Override
+    public boolean isParallel() {
+        return stream.isParallel();
+    }
+
+    /**
+     * 关闭流
+     *
+     * @see AutoCloseable#close()
+     */
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    /**
+     * 返回流的迭代器
+     *
+     * @return 流的迭代器
+     */
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return stream.iterator();
+    }
+
+    /**
+     * 返回流的拆分器
+     *
+     * @return 流的拆分器
+     */
+    @Override
+    public Spliterator.OfDouble spliterator() {
+        return stream.spliterator();
+    }
+
+    /**
+     * 转换为ArrayList，元素会在这里装箱
+     *
+     * @return list
+     */
+    public List<Double> toList() {
+        return context.evaluate(isParallel(), () -> stream.collect(ArrayList::new, List::add, List::addAll));
+    }
+
+    /**
+     * 转换为{@link DoubleList}，元素不装箱
+     *
+     * @return DoubleList
+     */
+    public DoubleList toDoubleList() {
+        return context.evaluate(isParallel(), () -> stream.collect(DoubleList::new, DoubleList::add, DoubleList::addAll));
+    }
+
+    /**
+     * 返回拼接后的字符串
+     *
+     * @return 拼接后的字符串
+     */
+    public String join() {
+        return join("");
+    }
+
+    /**
+     * 返回拼接后的字符串
+     *
+     * @param delimiter 分隔符
+     * @return 拼接后的字符串
+     */
+    public String join(CharSequence delimiter) {
+        return join(delimiter, "", "");
+    }
+
+    /**
+     * 返回拼接后的字符串
+     *
+     * @param delimiter 分隔符
+     * @param prefix    前缀
+     * @param suffix    后缀
+     * @return 拼接后的字符串
+     */
+    public String join(CharSequence delimiter,
+                       CharSequence prefix,
+                       CharSequence suffix) {
+        return context.evaluate(isParallel(), () -> stream.mapToObj(String::valueOf).collect(Collectors.joining(delimiter, prefix, suffix)));
+    }
+
+    /**
+     * 通过给定分组依据进行分组，每组的元素收集到double数组中，元素不装箱
+     *
+     * @param classifier 分组依据
+     * @param <K>        分组依据对应类型，也是Map中key的类型
+     * @return 分组后的map
+     */
+    public <K> Map<K, double[]> group(DoubleFunction<? extends K> classifier) {
+        Objects.requireNonNull(classifier);
+        Map<K, DoubleList> groups = context.evaluate(isParallel(), () -> stream.collect(HashMap::new,
+                (map, value) -> map.computeIfAbsent(classifier.apply(value), k -> new DoubleList()).add(value),
+                (left, right) -> right.forEach((k, v) -> left.merge(k, v, (l, r) -> {
+                    l.addAll(r);
+                    return l;
+                }))));
+        Map<K, double[]> result = new HashMap<>(groups.size() * 4 / 3 + 1);
+        groups.forEach((k, v) -> result.put(k, v.toArray()));
+        return result;
+    }
+
+    /**
+     * 按指定长度切分为元素为double数组的流，切分是惰性的，不会先收集整个流
+     * <p>
+     * 形如：[1,2,3,4,5] -> [[1,2], [3,4], [5]]
+     * </p>
+     *
+     * @param batchSize 指定长度, 正整数
+     * @return 切好的流
+     */
+    public Steam<double[]> split(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        Spliterator.OfDouble source = stream.spliterator();
+        long size = source.getExactSizeIfKnown();
+        long estimate = size < 0 ? Long.MAX_VALUE : (size + batchSize - 1) / batchSize;
+        Spliterator<double[]> batches = new Spliterators.AbstractSpliterator<double[]>(estimate,
+                source.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED) | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super double[]> action) {
+                DoubleList batch = new DoubleList(Math.min(batchSize, 1024));
+                while (batch.size() < batchSize && source.tryAdvance((DoubleConsumer) batch::add)) {
+                    // 持续拉取直到凑满一批
+                }
+                if (batch.isEmpty()) {
+                    return false;
+                }
+                action.accept(batch.toArray());
+                return true;
+            }
+        };
+        return context.wrap(StreamSupport.stream(batches, isParallel()).onClose(stream::close));
+    }
+
+    /**
+     * 去重时使用的缓冲，保持遇到顺序
+     */
+    private static final class DistinctBuffer {
+        private final LongHashSet exists = new LongHashSet();
+        private final DoubleList values = new DoubleList();
+
+        void add(double value) {
+            if (exists.add(Double.doubleToLongBits(value))) {
+                values.add(value);
+            }
+        }
+
+        void addAll(DistinctBuffer other) {
+            other.values.forEach(this::add);
+        }
+
+        double[] toArray() {
+            return values.toArray();
+        }
+    }
+}
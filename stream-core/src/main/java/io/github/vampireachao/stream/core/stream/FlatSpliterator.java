@@ -0,0 +1,128 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 推送式的扩散spliterator，用于{@link Steam#mapMulti(BiConsumer)}与{@link Steam#flat(java.util.function.Function)}
+ * 操作产生的元素直接交给下游，不为每个元素创建{@link Steam.Builder}、中间流或缓冲区：
+ * {@link #forEachRemaining(Consumer)}整个遍历只创建一个发送器，{@link #tryAdvance(Consumer)}每次只交出一个元素，多出的元素暂存到下次交出
+ * 拆分直接委托给源，并行时与源的拆分方式一致
+ *
+ * @param <T> 源元素类型
+ * @param <R> 输出元素类型
+ * @author VampireAchao
+ */
+final class FlatSpliterator<T, R> implements Spliterator<R>, Consumer<T> {
+
+    private final Spliterator<T> source;
+    private final BiConsumer<? super T, ? super Steam.Builder<R>> mapper;
+    private final Emitter<R> emitter = new Emitter<>(this::emit);
+    private Consumer<? super R> downstream;
+    private boolean emitted;
+    private ArrayDeque<Object> pending;
+
+    FlatSpliterator(Spliterator<T> source, BiConsumer<? super T, ? super Steam.Builder<R>> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void accept(T t) {
+        mapper.accept(t, emitter);
+    }
+
+    private void emit(R r) {
+        if (emitted) {
+            if (pending == null) {
+                pending = new ArrayDeque<>();
+            }
+            pending.add(Joins.mask(r));
+            return;
+        }
+        emitted = true;
+        downstream.accept(r);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (pending != null && !pending.isEmpty()) {
+            action.accept((R) Joins.unmask(pending.poll()));
+            return true;
+        }
+        downstream = action;
+        emitted = false;
+        try {
+            //noinspection StatementWithEmptyBody
+            while (!emitted && source.tryAdvance(this)) {
+                // 操作可能不发送元素，继续向后查找
+            }
+            return emitted;
+        } finally {
+            downstream = null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(Consumer<? super R> action) {
+        while (pending != null && !pending.isEmpty()) {
+            action.accept((R) Joins.unmask(pending.poll()));
+        }
+        Emitter<R> direct = new Emitter<>(action);
+        source.forEachRemaining(t -> mapper.accept(t, direct));
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        if (pending != null && !pending.isEmpty()) {
+            // 暂存的元素在源剩余元素之前，此时拆分会打乱顺序
+            return null;
+        }
+        Spliterator<T> prefix = source.trySplit();
+        return prefix == null ? null : new FlatSpliterator<>(prefix, mapper);
+    }
+
+    @Override
+    public long estimateSize() {
+        // 每个元素可能产生任意多个元素，只能以源的大小作为估计，与flatMap一致
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ORDERED;
+    }
+
+    @Override
+    public Comparator<? super R> getComparator() {
+        throw new IllegalStateException();
+    }
+
+    /**
+     * 直接将元素发送给下游的建造器，只能在操作内部使用，不能构建流
+     *
+     * @param <R> 元素类型
+     */
+    private static final class Emitter<R> implements Steam.Builder<R> {
+        private final Consumer<? super R> downstream;
+
+        private Emitter(Consumer<? super R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void accept(R r) {
+            downstream.accept(r);
+        }
+
+        @Override
+        public Steam<R> build() {
+            throw new IllegalStateException("mapMulti buffer can only be used to accept elements");
+        }
+    }
+}
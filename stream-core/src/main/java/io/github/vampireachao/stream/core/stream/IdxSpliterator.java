@@ -0,0 +1,182 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * 携带下标的spliterator，为每个元素提供其在源中的遇到顺序下标
+ * 源为SUBSIZED(如list、数组)时，拆分后的前缀段与后缀段各自持有正确的起始下标，并行流也能拿到真实下标，无需共享计数器；
+ * 源无法精确拆分时，拆分会先将一批元素拷贝到数组中，再为这一批分配连续的下标
+ * 操作可以对一个元素发送多个结果，{@link #tryAdvance(Consumer)}每次只交出一个，多出的结果暂存到下次交出
+ *
+ * @param <T> 源元素类型
+ * @param <R> 输出元素类型
+ * @author VampireAchao
+ */
+final class IdxSpliterator<T, R> implements Spliterator<R>, Consumer<T> {
+
+    /**
+     * 映射类操作需要去掉的特征值
+     */
+    static final int MAP_CLEARED = DISTINCT | SORTED | NONNULL;
+    /**
+     * 过滤类操作需要去掉的特征值
+     */
+    static final int FILTER_CLEARED = SIZED | SUBSIZED | SORTED;
+
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    /**
+     * 对每个元素及其下标执行的操作，向下游发送零个或多个元素
+     *
+     * @param <T> 源元素类型
+     * @param <R> 输出元素类型
+     */
+    @FunctionalInterface
+    interface Stage<T, R> {
+        void accept(T t, int index, Consumer<? super R> downstream);
+    }
+
+    private final Spliterator<T> source;
+    private final Stage<T, R> stage;
+    private final int clearedCharacteristics;
+    private final Consumer<R> emitter = this::emit;
+    private int index;
+    private int batch;
+    private Consumer<? super R> downstream;
+    private boolean emitted;
+    private ArrayDeque<Object> pending;
+
+    IdxSpliterator(Spliterator<T> source, Stage<T, R> stage, int clearedCharacteristics) {
+        this(source, stage, clearedCharacteristics, 0);
+    }
+
+    private IdxSpliterator(Spliterator<T> source, Stage<T, R> stage, int clearedCharacteristics, int index) {
+        this.source = source;
+        this.stage = stage;
+        this.clearedCharacteristics = clearedCharacteristics;
+        this.index = index;
+    }
+
+    @Override
+    public void accept(T t) {
+        stage.accept(t, index++, emitter);
+    }
+
+    private void emit(R r) {
+        if (emitted) {
+            if (pending == null) {
+                pending = new ArrayDeque<>();
+            }
+            pending.add(Joins.mask(r));
+            return;
+        }
+        emitted = true;
+        downstream.accept(r);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (pending != null && !pending.isEmpty()) {
+            action.accept((R) Joins.unmask(pending.poll()));
+            return true;
+        }
+        downstream = action;
+        emitted = false;
+        try {
+            //noinspection StatementWithEmptyBody
+            while (source.tryAdvance(this) && !emitted) {
+                // 过滤类操作可能不发送元素，继续向后查找
+            }
+            return emitted;
+        } finally {
+            downstream = null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(Consumer<? super R> action) {
+        while (pending != null && !pending.isEmpty()) {
+            action.accept((R) Joins.unmask(pending.poll()));
+        }
+        source.forEachRemaining(t -> stage.accept(t, index++, action));
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        if (pending != null && !pending.isEmpty()) {
+            // 暂存的结果在源剩余元素之前，此时拆分会打乱顺序
+            return null;
+        }
+        if (source.hasCharacteristics(SUBSIZED)) {
+            Spliterator<T> prefix = source.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            IdxSpliterator<T, R> split = new IdxSpliterator<>(prefix, stage, clearedCharacteristics, index);
+            index += (int) prefix.getExactSizeIfKnown();
+            return split;
+        }
+        return splitBatch();
+    }
+
+    /**
+     * 源大小未知时，拷贝一批元素到数组中作为前缀段，与{@link Spliterators.AbstractSpliterator}的策略一致
+     */
+    private Spliterator<R> splitBatch() {
+        long est = source.estimateSize();
+        if (est <= 1) {
+            return null;
+        }
+        int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        if (est < n) {
+            n = (int) est;
+        }
+        Object[] array = new Object[n];
+        int[] count = {0};
+        int limit = n;
+        //noinspection StatementWithEmptyBody
+        while (count[0] < limit && source.tryAdvance(t -> array[count[0]++] = t)) {
+            // 拷贝一批元素
+        }
+        if (count[0] == 0) {
+            return null;
+        }
+        batch = count[0];
+        @SuppressWarnings("unchecked")
+        Spliterator<T> prefix = (Spliterator<T>) Spliterators.spliterator(array, 0, count[0], source.characteristics() & ~SORTED);
+        IdxSpliterator<T, R> split = new IdxSpliterator<>(prefix, stage, clearedCharacteristics, index);
+        index += count[0];
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = source.estimateSize();
+        if (pending == null || size == Long.MAX_VALUE) {
+            return size;
+        }
+        return size + pending.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~clearedCharacteristics;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Comparator<? super R> getComparator() {
+        if (hasCharacteristics(SORTED)) {
+            // 只有不改变元素的操作(如peek)才会保留SORTED，此时源的比较器同样适用
+            return (Comparator<? super R>) source.getComparator();
+        }
+        throw new IllegalStateException();
+    }
+}
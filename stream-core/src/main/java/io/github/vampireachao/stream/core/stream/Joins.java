@@ -0,0 +1,364 @@
+package io.github.vampireachao.stream.core.stream;
+
+import io.github.vampireachao.stream.core.collection.IntHashSet;
+import io.github.vampireachao.stream.core.collection.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 基于哈希的连接操作的公共实现
+ * 构建侧的哈希表在构建完成后只读，并行流可以直接在多个线程中探测，无需加锁
+ *
+ * @author VampireAchao
+ */
+final class Joins {
+
+    /**
+     * 并发集合、ArrayDeque等不支持null，用该对象代替null键或null元素
+     */
+    private static final Object NULL_KEY = new Object();
+    /**
+     * 元素个数超过该值时，并行流才会并行构建哈希表
+     */
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 13;
+
+    private Joins() {
+        /* Do not new me! */
+    }
+
+    /**
+     * 将null键替换为{@link #NULL_KEY}
+     *
+     * @param key 键
+     * @return 可放入并发集合的键
+     */
+    static Object mask(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    /**
+     * 将{@link #NULL_KEY}还原为null
+     *
+     * @param key 键
+     * @return 原始的键
+     */
+    static Object unmask(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    /**
+     * 获取可迭代对象的元素个数，未知时返回-1
+     *
+     * @param iterable 可迭代对象
+     * @return 元素个数
+     */
+    static int sizeOf(Iterable<?> iterable) {
+        return iterable instanceof Collection ? ((Collection<?>) iterable).size() : -1;
+    }
+
+    /**
+     * 构建键集合
+     *
+     * @param others    构建侧
+     * @param keyMapper 键
+     * @param parallel  是否并行构建
+     * @param <U>       构建侧元素类型
+     * @return 键集合，null键已替换
+     */
+    static <U> Set<Object> keySet(Iterable<U> others, Function<? super U, ?> keyMapper, boolean parallel) {
+        int size = sizeOf(others);
+        if (parallel && size > PARALLEL_BUILD_THRESHOLD) {
+            Set<Object> keys = ConcurrentHashMap.newKeySet(size);
+            StreamSupport.stream(others.spliterator(), true).forEach(e -> keys.add(mask(keyMapper.apply(e))));
+            return keys;
+        }
+        Set<Object> keys = new HashSet<>(size < 0 ? 16 : (int) (size / .75f) + 1);
+        for (U e : others) {
+            keys.add(mask(keyMapper.apply(e)));
+        }
+        return keys;
+    }
+
+    /**
+     * 以较小的一侧(源列表)构建哈希表，用较大的一侧探测，返回两侧都存在的键
+     * 这样哈希表的大小只与较小的一侧有关
+     *
+     * @param source         较小的一侧
+     * @param keyMapper      较小一侧的键
+     * @param others         较大的一侧
+     * @param otherKeyMapper 较大一侧的键
+     * @param parallel       是否并行探测
+     * @param <T>            较小一侧元素类型
+     * @param <U>            较大一侧元素类型
+     * @return 两侧都存在的键，null键已替换
+     */
+    static <T, U> Set<Object> matchedKeys(List<T> source, Function<? super T, ?> keyMapper,
+                                          Iterable<U> others, Function<? super U, ?> otherKeyMapper, boolean parallel) {
+        Set<Object> sourceKeys = keySet(source, keyMapper, parallel);
+        Set<Object> matched = parallel ? ConcurrentHashMap.newKeySet(sourceKeys.size()) : new HashSet<>();
+        StreamSupport.stream(others.spliterator(), parallel).forEach(e -> {
+            Object key = mask(otherKeyMapper.apply(e));
+            if (sourceKeys.contains(key)) {
+                matched.add(key);
+            }
+        });
+        return matched;
+    }
+
+    /**
+     * 构建long键集合
+     *
+     * @param others    构建侧
+     * @param keyMapper 键
+     * @param parallel  是否并行构建
+     * @param <U>       构建侧元素类型
+     * @return 键集合
+     */
+    static <U> LongHashSet longKeySet(Iterable<U> others, ToLongFunction<? super U> keyMapper, boolean parallel) {
+        int size = sizeOf(others);
+        if (parallel && size > PARALLEL_BUILD_THRESHOLD) {
+            return StreamSupport.stream(others.spliterator(), true)
+                    .collect(LongHashSet::new, (set, e) -> set.add(keyMapper.applyAsLong(e)), LongHashSet::addAll);
+        }
+        LongHashSet keys = new LongHashSet(Math.max(size, 0));
+        for (U e : others) {
+            keys.add(keyMapper.applyAsLong(e));
+        }
+        return keys;
+    }
+
+    /**
+     * 以较小的一侧构建long键哈希表，用较大的一侧探测，返回两侧都存在的键
+     *
+     * @param source         较小的一侧
+     * @param keyMapper      较小一侧的键
+     * @param others         较大的一侧
+     * @param otherKeyMapper 较大一侧的键
+     * @param parallel       是否并行探测
+     * @param <T>            较小一侧元素类型
+     * @param <U>            较大一侧元素类型
+     * @return 两侧都存在的键
+     */
+    static <T, U> LongHashSet matchedLongKeys(List<T> source, ToLongFunction<? super T> keyMapper,
+                                              Iterable<U> others, ToLongFunction<? super U> otherKeyMapper, boolean parallel) {
+        LongHashSet sourceKeys = longKeySet(source, keyMapper, parallel);
+        return StreamSupport.stream(others.spliterator(), parallel).collect(LongHashSet::new, (set, e) -> {
+            long key = otherKeyMapper.applyAsLong(e);
+            if (sourceKeys.contains(key)) {
+                set.add(key);
+            }
+        }, LongHashSet::addAll);
+    }
+
+    /**
+     * 构建int键集合
+     *
+     * @param others    构建侧
+     * @param keyMapper 键
+     * @param parallel  是否并行构建
+     * @param <U>       构建侧元素类型
+     * @return 键集合
+     */
+    static <U> IntHashSet intKeySet(Iterable<U> others, ToIntFunction<? super U> keyMapper, boolean parallel) {
+        int size = sizeOf(others);
+        if (parallel && size > PARALLEL_BUILD_THRESHOLD) {
+            return StreamSupport.stream(others.spliterator(), true)
+                    .collect(IntHashSet::new, (set, e) -> set.add(keyMapper.applyAsInt(e)), IntHashSet::addAll);
+        }
+        IntHashSet keys = new IntHashSet(Math.max(size, 0));
+        for (U e : others) {
+            keys.add(keyMapper.applyAsInt(e));
+        }
+        return keys;
+    }
+
+    /**
+     * 以较小的一侧构建int键哈希表，用较大的一侧探测，返回两侧都存在的键
+     *
+     * @param source         较小的一侧
+     * @param keyMapper      较小一侧的键
+     * @param others         较大的一侧
+     * @param otherKeyMapper 较大一侧的键
+     * @param parallel       是否并行探测
+     * @param <T>            较小一侧元素类型
+     * @param <U>            较大一侧元素类型
+     * @return 两侧都存在的键
+     */
+    static <T, U> IntHashSet matchedIntKeys(List<T> source, ToIntFunction<? super T> keyMapper,
+                                            Iterable<U> others, ToIntFunction<? super U> otherKeyMapper, boolean parallel) {
+        IntHashSet sourceKeys = intKeySet(source, keyMapper, parallel);
+        return StreamSupport.stream(others.spliterator(), parallel).collect(IntHashSet::new, (set, e) -> {
+            int key = otherKeyMapper.applyAsInt(e);
+            if (sourceKeys.contains(key)) {
+                set.add(key);
+            }
+        }, IntHashSet::addAll);
+    }
+
+    /**
+     * 连接类型
+     */
+    enum Type {
+        /**
+         * 内连接，只保留两侧都匹配的组合
+         */
+        INNER,
+        /**
+         * 左连接，左侧未匹配的元素与null组合
+         */
+        LEFT,
+        /**
+         * 全连接，在左连接的基础上，右侧未匹配的元素与null组合
+         */
+        FULL
+    }
+
+    /**
+     * 同一个键对应多个元素时的桶，键只对应一个元素时直接存放元素本身，避免额外分配
+     */
+    private static final class Group extends ArrayList<Object> {
+        private static final long serialVersionUID = 1L;
+
+        private Group(Object first, Object second) {
+            super(4);
+            add(first);
+            add(second);
+        }
+    }
+
+    /**
+     * 构建连接的哈希表，键和值中的null均已替换，同一个键的多个元素保持遇到顺序
+     *
+     * @param others    构建侧
+     * @param keyMapper 键
+     * @param keyFilter 不为null时，只放入键在其中的元素
+     * @param expected  预期键个数，用于预设容量
+     * @param parallel  是否并行构建
+     * @param <U>       构建侧元素类型
+     * @return 哈希表
+     */
+    static <U> Map<Object, Object> table(Collection<U> others, Function<? super U, ?> keyMapper,
+                                         Set<Object> keyFilter, int expected, boolean parallel) {
+        if (parallel && others.size() > PARALLEL_BUILD_THRESHOLD) {
+            // 各分段各自构建，按顺序合并，保证同一个键的多个元素保持遇到顺序
+            return StreamSupport.stream(others.spliterator(), true).collect(HashMap::new,
+                    (table, e) -> putIfMatched(table, keyMapper, keyFilter, e), Joins::mergeTable);
+        }
+        Map<Object, Object> table = new HashMap<>((int) (expected / .75f) + 1);
+        for (U e : others) {
+            putIfMatched(table, keyMapper, keyFilter, e);
+        }
+        return table;
+    }
+
+    private static <U> void putIfMatched(Map<Object, Object> table, Function<? super U, ?> keyMapper,
+                                         Set<Object> keyFilter, U e) {
+        Object key = mask(keyMapper.apply(e));
+        if (keyFilter == null || keyFilter.contains(key)) {
+            put(table, key, mask(e));
+        }
+    }
+
+    private static void put(Map<Object, Object> table, Object key, Object value) {
+        Object old = table.putIfAbsent(key, value);
+        if (old == null) {
+            return;
+        }
+        if (old instanceof Group) {
+            ((Group) old).add(value);
+        } else {
+            table.put(key, new Group(old, value));
+        }
+    }
+
+    private static Map<Object, Object> mergeTable(Map<Object, Object> left, Map<Object, Object> right) {
+        right.forEach((key, bucket) -> {
+            if (bucket instanceof Group) {
+                for (Object value : (Group) bucket) {
+                    put(left, key, value);
+                }
+            } else {
+                put(left, key, bucket);
+            }
+        });
+        return left;
+    }
+
+    /**
+     * 将元素与桶中的每一个元素组合，发送到下游
+     *
+     * @param t          探测侧元素
+     * @param bucket     哈希表中的桶
+     * @param combiner   组合
+     * @param downstream 下游
+     * @param <T>        探测侧元素类型
+     * @param <U>        构建侧元素类型
+     * @param <R>        组合后的元素类型
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U, R> void emit(T t, Object bucket, BiFunction<? super T, ? super U, ? extends R> combiner,
+                               Consumer<? super R> downstream) {
+        if (bucket instanceof Group) {
+            for (Object value : (Group) bucket) {
+                downstream.accept(combiner.apply(t, (U) unmask(value)));
+            }
+        } else {
+            downstream.accept(combiner.apply(t, (U) unmask(bucket)));
+        }
+    }
+
+    /**
+     * 依次遍历前半部分与后半部分，后半部分在前半部分遍历完后才生成
+     * 拆分时按批次从当前位置取出元素，前半部分总是先于后半部分被完整遍历，后半部分可以依赖前半部分的遍历结果
+     *
+     * @param head 前半部分
+     * @param tail 后半部分
+     * @param <R>  元素类型
+     * @return 拼接后的spliterator
+     */
+    static <R> Spliterator<R> followedBy(Spliterator<R> head, Supplier<? extends Stream<R>> tail) {
+        return new Spliterators.AbstractSpliterator<R>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private Spliterator<R> current = head;
+            private boolean tailStarted;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                while (!current.tryAdvance(action)) {
+                    if (tailStarted) {
+                        return false;
+                    }
+                    tailStarted = true;
+                    current = tail.get().spliterator();
+                }
+                return true;
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super R> action) {
+                current.forEachRemaining(action);
+                if (!tailStarted) {
+                    tailStarted = true;
+                    current = tail.get().spliterator();
+                    current.forEachRemaining(action);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按排序依据排序的实现，每个元素只提取一次排序依据(Schwartzian transform)，排序过程中不再调用提取函数
+ * 数值排序依据不装箱：顺序排序使用LSD基数排序，并行排序使用{@link Arrays#parallelSort}，
+ * 所有排序都是稳定的，排序依据相等的元素保持遇到顺序
+ *
+ * @author VampireAchao
+ */
+final class KeySort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int RADIX_MASK = RADIX - 1;
+
+    private KeySort() {
+        /* Do not new me! */
+    }
+
+    /**
+     * 按long排序依据排序
+     *
+     * @param elements 元素
+     * @param keyFn    排序依据
+     * @param parallel 是否并行排序
+     * @param <T>      元素类型
+     * @return 排序后的元素
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> byLong(Object[] elements, ToLongFunction<? super T> keyFn, boolean parallel) {
+        int n = elements.length;
+        if (parallel) {
+            LongKeyed[] keyed = new LongKeyed[n];
+            for (int i = 0; i < n; i++) {
+                keyed[i] = new LongKeyed(keyFn.applyAsLong((T) elements[i]), elements[i]);
+            }
+            Arrays.parallelSort(keyed, LongKeyed.COMPARATOR);
+            return gather(keyed);
+        }
+        long[] keys = new long[n];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            // 翻转符号位，使有符号数按无符号的字节顺序排列
+            keys[i] = keyFn.applyAsLong((T) elements[i]) ^ Long.MIN_VALUE;
+            index[i] = i;
+        }
+        return gather(elements, radixSort(keys, index, Long.SIZE));
+    }
+
+    /**
+     * 按int排序依据排序
+     *
+     * @param elements 元素
+     * @param keyFn    排序依据
+     * @param parallel 是否并行排序
+     * @param <T>      元素类型
+     * @return 排序后的元素
+     */
+    @SuppressWarnings("unchecked")
+    static <T> List<T> byInt(Object[] elements, ToIntFunction<? super T> keyFn, boolean parallel) {
+        int n = elements.length;
+        if (parallel) {
+            // 高32位为排序依据，低32位为下标，下标唯一，因此排序结果是稳定的
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                packed[i] = (long) keyFn.applyAsInt((T) elements[i]) << Integer.SIZE | i;
+            }
+            Arrays.parallelSort(packed);
+            Object[] sorted = new Object[n];
+            for (int i = 0; i < n; i++) {
+                sorted[i] = elements[(int) packed[i]];
+            }
+            return (List<T>) Arrays.asList(sorted);
+        }
+        long[] keys = new long[n];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (keyFn.applyAsInt((T) elements[i]) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+            index[i] = i;
+        }
+        return gather(elements, radixSort(keys, index, Integer.SIZE));
+    }
+
+    /**
+     * 按任意排序依据排序
+     *
+     * @param elements   元素
+     * @param keyFn      排序依据
+     * @param comparator 排序依据的比较器
+     * @param parallel   是否并行排序
+     * @param <T>        元素类型
+     * @param <U>        排序依据类型
+     * @return 排序后的元素
+     */
+    @SuppressWarnings("unchecked")
+    static <T, U> List<T> byKey(Object[] elements, Function<? super T, ? extends U> keyFn,
+                                Comparator<? super U> comparator, boolean parallel) {
+        int n = elements.length;
+        Keyed[] keyed = new Keyed[n];
+        for (int i = 0; i < n; i++) {
+            keyed[i] = new Keyed(keyFn.apply((T) elements[i]), elements[i]);
+        }
+        Comparator<Keyed> byKey = (l, r) -> comparator.compare((U) l.key, (U) r.key);
+        if (parallel) {
+            Arrays.parallelSort(keyed, byKey);
+        } else {
+            Arrays.sort(keyed, byKey);
+        }
+        Object[] sorted = new Object[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = keyed[i].value;
+        }
+        return (List<T>) Arrays.asList(sorted);
+    }
+
+    /**
+     * LSD基数排序，按无符号数从低字节到高字节依次做稳定的计数排序，同时移动下标
+     * 所有元素某一字节都相同时跳过该字节，例如时间戳的高位字节
+     *
+     * @param keys  无符号排序依据
+     * @param index 下标
+     * @param bits  排序依据的有效位数
+     * @return 排序后的下标，可能是传入的数组，也可能是缓冲数组
+     */
+    static int[] radixSort(long[] keys, int[] index, int bits) {
+        int n = keys.length;
+        int passes = bits / RADIX_BITS;
+        // 一次遍历统计所有字节的分布
+        int[][] counts = new int[passes][RADIX];
+        for (long key : keys) {
+            for (int p = 0; p < passes; p++) {
+                counts[p][(int) (key >>> (p * RADIX_BITS)) & RADIX_MASK]++;
+            }
+        }
+        long[] keyBuffer = null;
+        int[] indexBuffer = null;
+        for (int p = 0; p < passes; p++) {
+            int[] count = counts[p];
+            if (n == 0 || count[(int) (keys[0] >>> (p * RADIX_BITS)) & RADIX_MASK] == n) {
+                continue;
+            }
+            if (keyBuffer == null) {
+                keyBuffer = new long[n];
+                indexBuffer = new int[n];
+            }
+            int offset = 0;
+            for (int b = 0; b < RADIX; b++) {
+                int c = count[b];
+                count[b] = offset;
+                offset += c;
+            }
+            int shift = p * RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                int pos = count[(int) (keys[i] >>> shift) & RADIX_MASK]++;
+                keyBuffer[pos] = keys[i];
+                indexBuffer[pos] = index[i];
+            }
+            // 交换数组而不是拷贝
+            long[] sortedKeys = keyBuffer;
+            keyBuffer = keys;
+            keys = sortedKeys;
+            int[] sortedIndex = indexBuffer;
+            indexBuffer = index;
+            index = sortedIndex;
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> gather(Object[] elements, int[] index) {
+        Object[] sorted = new Object[index.length];
+        for (int i = 0; i < index.length; i++) {
+            sorted[i] = elements[index[i]];
+        }
+        return (List<T>) Arrays.asList(sorted);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> gather(LongKeyed[] keyed) {
+        Object[] sorted = new Object[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = keyed[i].value;
+        }
+        return (List<T>) Arrays.asList(sorted);
+    }
+
+    private static final class Keyed {
+        private final Object key;
+        private final Object value;
+
+        private Keyed(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static final class LongKeyed {
+        private static final Comparator<LongKeyed> COMPARATOR = (l, r) -> Long.compare(l.key, r.key);
+
+        private final long key;
+        private final Object value;
+
+        private LongKeyed(long key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * 随机访问列表的惰性视图，只在访问时按下标换算，不拷贝元素
+ * 视图创建后源列表不应再改变大小
+ *
+ * @author VampireAchao
+ */
+final class ListViews {
+
+    private ListViews() {
+        /* Do not new me! */
+    }
+
+    /**
+     * 倒序视图
+     *
+     * @param list 源列表
+     * @param <T>  元素类型
+     * @return 倒序视图
+     */
+    static <T> List<T> reverse(List<T> list) {
+        if (list instanceof Reversed) {
+            return ((Reversed<T>) list).list;
+        }
+        return new Reversed<>(list);
+    }
+
+    /**
+     * 删除{@code [start, start + deleteCount)}并在{@code start}处插入items之后的视图
+     *
+     * @param list        源列表
+     * @param start       起始下标，需在{@code [0, size]}之间
+     * @param deleteCount 删除个数，需保证不越界
+     * @param items       插入的元素
+     * @param <T>         元素类型
+     * @return 视图
+     */
+    static <T> List<T> splice(List<T> list, int start, int deleteCount, T[] items) {
+        return new Spliced<>(list, start, deleteCount, items);
+    }
+
+    private abstract static class View<T> extends AbstractList<T> implements RandomAccess {
+        @Override
+        public Spliterator<T> spliterator() {
+            return new RandomAccessSpliterator<>(this);
+        }
+    }
+
+    private static final class Reversed<T> extends View<T> {
+        private final List<T> list;
+        private final int size;
+
+        private Reversed(List<T> list) {
+            this.list = list;
+            this.size = list.size();
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return list.get(size - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class Spliced<T> extends View<T> {
+        private final List<T> list;
+        private final int start;
+        private final int deleteCount;
+        private final T[] items;
+        private final int size;
+
+        private Spliced(List<T> list, int start, int deleteCount, T[] items) {
+            this.list = list;
+            this.start = start;
+            this.deleteCount = deleteCount;
+            this.items = items;
+            this.size = list.size() - deleteCount + items.length;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            if (index < start) {
+                return list.get(index);
+            }
+            int offset = index - start;
+            if (offset < items.length) {
+                return items[offset];
+            }
+            return list.get(start + deleteCount + offset - items.length);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
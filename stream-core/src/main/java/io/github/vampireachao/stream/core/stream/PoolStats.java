@@ -0,0 +1,104 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 通过{@link Steam#parallel(ForkJoinPool)}指定线程池执行的流的统计信息，可用于按业务评估线程池大小
+ * 由该流及其后续中间操作产生的流共享，窃取次数取自线程池在终端操作执行期间的增量，线程池被多个业务共用时仅供参考
+ *
+ * @author VampireAchao
+ */
+public class PoolStats {
+
+    private final ForkJoinPool pool;
+    private final LongAdder tasks = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+
+    PoolStats(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    void record(long stealDelta, long nanos) {
+        tasks.increment();
+        steals.add(stealDelta);
+        elapsedNanos.add(nanos);
+    }
+
+    /**
+     * 执行流的线程池
+     *
+     * @return 线程池
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * 提交到线程池执行的终端操作个数
+     *
+     * @return 终端操作个数
+     */
+    public long getTasks() {
+        return tasks.sum();
+    }
+
+    /**
+     * 终端操作执行期间线程池的任务窃取次数
+     *
+     * @return 窃取次数
+     */
+    public long getSteals() {
+        return steals.sum();
+    }
+
+    /**
+     * 终端操作在线程池中执行的总耗时
+     *
+     * @param unit 时间单位
+     * @return 总耗时
+     */
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 线程池的并行度
+     *
+     * @return 并行度
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 线程池当前的工作线程数
+     *
+     * @return 工作线程数
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * 线程池当前排队中的任务数
+     *
+     * @return 排队中的任务数
+     */
+    public long getQueuedTaskCount() {
+        return pool.getQueuedTaskCount();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "parallelism=" + getParallelism() +
+                ", poolSize=" + getPoolSize() +
+                ", tasks=" + getTasks() +
+                ", steals=" + getSteals() +
+                ", elapsedMillis=" + getElapsed(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
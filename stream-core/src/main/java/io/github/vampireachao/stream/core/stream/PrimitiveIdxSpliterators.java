@@ -0,0 +1,188 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link IntSteam}、{@link LongSteam}、{@link DoubleSteam}的带下标spliterator，元素与下标都不装箱
+ * 下标按遇到顺序依次分配；并行流拆分时按批次从当前位置拉取元素并分配下标，因此并行流中的下标同样是遇到顺序下标
+ *
+ * @author VampireAchao
+ */
+final class PrimitiveIdxSpliterators {
+
+    private PrimitiveIdxSpliterators() {
+        /* Do not new me! */
+    }
+
+    /**
+     * int元素的带下标spliterator
+     */
+    static final class OfInt extends Spliterators.AbstractIntSpliterator implements IntConsumer {
+
+        /**
+         * 对每个元素及其下标执行的操作，向下游发送零个或一个元素
+         */
+        @FunctionalInterface
+        interface Stage {
+            void accept(int value, int index, IntConsumer downstream);
+        }
+
+        private final Spliterator.OfInt source;
+        private final Stage stage;
+        private final IntConsumer emitter = this::emit;
+        private int index;
+        private IntConsumer downstream;
+        private boolean emitted;
+
+        OfInt(Spliterator.OfInt source, Stage stage, int clearedCharacteristics) {
+            super(source.estimateSize(), source.characteristics() & ~clearedCharacteristics);
+            this.source = source;
+            this.stage = stage;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            downstream = action;
+            emitted = false;
+            try {
+                while (!emitted && source.tryAdvance(this)) {
+                    // 直到发送了一个元素或源耗尽
+                }
+            } finally {
+                downstream = null;
+            }
+            return emitted;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            source.forEachRemaining((int value) -> stage.accept(value, index++, action));
+        }
+
+        @Override
+        public void accept(int value) {
+            stage.accept(value, index++, emitter);
+        }
+
+        private void emit(int value) {
+            emitted = true;
+            downstream.accept(value);
+        }
+    }
+
+    /**
+     * long元素的带下标spliterator
+     */
+    static final class OfLong extends Spliterators.AbstractLongSpliterator implements LongConsumer {
+
+        /**
+         * 对每个元素及其下标执行的操作，向下游发送零个或一个元素
+         */
+        @FunctionalInterface
+        interface Stage {
+            void accept(long value, int index, LongConsumer downstream);
+        }
+
+        private final Spliterator.OfLong source;
+        private final Stage stage;
+        private final LongConsumer emitter = this::emit;
+        private int index;
+        private LongConsumer downstream;
+        private boolean emitted;
+
+        OfLong(Spliterator.OfLong source, Stage stage, int clearedCharacteristics) {
+            super(source.estimateSize(), source.characteristics() & ~clearedCharacteristics);
+            this.source = source;
+            this.stage = stage;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            downstream = action;
+            emitted = false;
+            try {
+                while (!emitted && source.tryAdvance(this)) {
+                    // 直到发送了一个元素或源耗尽
+                }
+            } finally {
+                downstream = null;
+            }
+            return emitted;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            source.forEachRemaining((long value) -> stage.accept(value, index++, action));
+        }
+
+        @Override
+        public void accept(long value) {
+            stage.accept(value, index++, emitter);
+        }
+
+        private void emit(long value) {
+            emitted = true;
+            downstream.accept(value);
+        }
+    }
+
+    /**
+     * double元素的带下标spliterator
+     */
+    static final class OfDouble extends Spliterators.AbstractDoubleSpliterator implements DoubleConsumer {
+
+        /**
+         * 对每个元素及其下标执行的操作，向下游发送零个或一个元素
+         */
+        @FunctionalInterface
+        interface Stage {
+            void accept(double value, int index, DoubleConsumer downstream);
+        }
+
+        private final Spliterator.OfDouble source;
+        private final Stage stage;
+        private final DoubleConsumer emitter = this::emit;
+        private int index;
+        private DoubleConsumer downstream;
+        private boolean emitted;
+
+        OfDouble(Spliterator.OfDouble source, Stage stage, int clearedCharacteristics) {
+            super(source.estimateSize(), source.characteristics() & ~clearedCharacteristics);
+            this.source = source;
+            this.stage = stage;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            downstream = action;
+            emitted = false;
+            try {
+                while (!emitted && source.tryAdvance(this)) {
+                    // 直到发送了一个元素或源耗尽
+                }
+            } finally {
+                downstream = null;
+            }
+            return emitted;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            source.forEachRemaining((double value) -> stage.accept(value, index++, action));
+        }
+
+        @Override
+        public void accept(double value) {
+            stage.accept(value, index++, emitter);
+        }
+
+        private void emit(double value) {
+            emitted = true;
+            downstream.accept(value);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link Steam#profile(String)}的记录器，由开启剖析的流及其后续中间操作产生的流共享
+ * 每个中间操作产生的流都会套上一层计数计时的spliterator，终端操作完成后汇总为{@link SteamProfile}交给监听器
+ * 未开启剖析时不会创建该对象，流水线没有任何额外开销
+ *
+ * @author VampireAchao
+ */
+final class Profiler {
+
+    private static final Set<String> STEAM_CLASSES = new HashSet<>(Arrays.asList(
+            Steam.class.getName(), IntSteam.class.getName(), LongSteam.class.getName(), DoubleSteam.class.getName()));
+    private static final String[] CHARACTERISTIC_NAMES = {"ORDERED", "DISTINCT", "SORTED", "SIZED",
+            "NONNULL", "IMMUTABLE", "CONCURRENT", "SUBSIZED"};
+    private static final int[] CHARACTERISTIC_VALUES = {Spliterator.ORDERED, Spliterator.DISTINCT, Spliterator.SORTED, Spliterator.SIZED,
+            Spliterator.NONNULL, Spliterator.IMMUTABLE, Spliterator.CONCURRENT, Spliterator.SUBSIZED};
+
+    private final String name;
+    private final Consumer<? super SteamProfile> listener;
+    private final List<Record> records = new ArrayList<>();
+    /**
+     * 终端操作的嵌套深度，终端操作内部再执行终端操作时只在最外层汇总
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    Profiler(String name, Consumer<? super SteamProfile> listener) {
+        this.name = name;
+        this.listener = listener;
+    }
+
+    /**
+     * 为中间操作产生的流套上计数计时的spliterator
+     * 需要立即获取spliterator的特征值，与直接调用{@link Stream#spliterator()}一样，并行流中的有状态操作会在此时执行
+     *
+     * @param stream 中间操作产生的流
+     * @param <T>    元素类型
+     * @return 计数计时的流
+     */
+    <T> Stream<T> stage(Stream<T> stream) {
+        boolean parallel = stream.isParallel();
+        Spliterator<T> spliterator = stream.spliterator();
+        Record record = add(operation(), spliterator.characteristics(), parallel, true);
+        return StreamSupport.stream(new ProfilingSpliterator<>(spliterator, record), parallel).onClose(stream::close);
+    }
+
+    /**
+     * 记录无法计数的中间操作，例如转为基本类型流的操作
+     *
+     * @param parallel 是否并行
+     */
+    void stage(boolean parallel) {
+        add(operation(), 0, parallel, false);
+    }
+
+    private synchronized Record add(String operation, int characteristics, boolean parallel, boolean counted) {
+        Record record = new Record(records.isEmpty() ? "source" : operation, characteristics, parallel, counted);
+        records.add(record);
+        return record;
+    }
+
+    /**
+     * 执行终端操作，完成后汇总剖析结果并交给监听器
+     *
+     * @param parallel 流是否并行
+     * @param terminal 终端操作
+     * @param <R>      结果类型
+     * @return 结果
+     */
+    <R> R terminal(boolean parallel, Supplier<R> terminal) {
+        if (depth.getAndIncrement() > 0) {
+            try {
+                return terminal.get();
+            } finally {
+                depth.decrementAndGet();
+            }
+        }
+        String operation = operation();
+        long start = System.nanoTime();
+        try {
+            return terminal.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            depth.decrementAndGet();
+            Consumer<? super SteamProfile> target = listener == null ? SteamProfile.getDefaultListener() : listener;
+            target.accept(new SteamProfile(name, operation, parallel, elapsed, stages()));
+        }
+    }
+
+    /**
+     * 汇总各操作，操作自身的耗时为其产生元素的耗时减去上游产生元素的耗时
+     */
+    private synchronized List<SteamProfile.Stage> stages() {
+        List<SteamProfile.Stage> stages = new ArrayList<>(records.size());
+        long upstreamOut = -1;
+        long upstreamNanos = 0;
+        for (Record record : records) {
+            long out = record.counted ? record.elements.sum() : -1;
+            long nanos = 0;
+            if (record.counted) {
+                long produce = Math.max(0, record.inclusiveNanos.sum() - record.downstreamNanos.sum());
+                nanos = Math.max(0, produce - upstreamNanos);
+                upstreamNanos = produce;
+            }
+            stages.add(new SteamProfile.Stage(record.name, upstreamOut, out, nanos, record.characteristics, record.parallel));
+            upstreamOut = out;
+        }
+        return stages;
+    }
+
+    /**
+     * 描述已记录的流水线
+     *
+     * @return 描述
+     */
+    synchronized String explain() {
+        StringJoiner joiner = new StringJoiner(System.lineSeparator());
+        for (Record record : records) {
+            joiner.add("  " + record.name + " parallel=" + record.parallel + " " +
+                    (record.counted ? characteristics(record.characteristics) : "-"));
+        }
+        return joiner.toString();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * 从调用栈中找到创建当前操作的方法：调用栈中最外层的流方法，内部的辅助方法不计入
+     */
+    static String operation() {
+        String operation = null;
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (STEAM_CLASSES.contains(element.getClassName())) {
+                if (!element.getMethodName().startsWith("lambda$")) {
+                    operation = element.getMethodName();
+                }
+            } else if (operation != null) {
+                break;
+            }
+        }
+        return operation == null ? "unknown" : operation;
+    }
+
+    /**
+     * 将特征值转换为可读的形式，如ORDERED|SIZED
+     *
+     * @param characteristics 特征值
+     * @return 可读的特征值
+     */
+    static String characteristics(int characteristics) {
+        StringJoiner joiner = new StringJoiner("|");
+        for (int i = 0; i < CHARACTERISTIC_VALUES.length; i++) {
+            if ((characteristics & CHARACTERISTIC_VALUES[i]) != 0) {
+                joiner.add(CHARACTERISTIC_NAMES[i]);
+            }
+        }
+        return joiner.length() == 0 ? "NONE" : joiner.toString();
+    }
+
+    private static final class Record {
+        private final String name;
+        private final int characteristics;
+        private final boolean parallel;
+        private final boolean counted;
+        private final LongAdder elements = new LongAdder();
+        /**
+         * 从该操作拉取元素的总耗时，包含上游与下游
+         */
+        private final LongAdder inclusiveNanos = new LongAdder();
+        /**
+         * 其中下游消费元素的耗时
+         */
+        private final LongAdder downstreamNanos = new LongAdder();
+
+        private Record(String name, int characteristics, boolean parallel, boolean counted) {
+            this.name = name;
+            this.characteristics = characteristics;
+            this.parallel = parallel;
+            this.counted = counted;
+        }
+
+        private void record(long count, long inclusive, long downstream) {
+            elements.add(count);
+            inclusiveNanos.add(inclusive);
+            downstreamNanos.add(downstream);
+        }
+    }
+
+    /**
+     * 计数计时的spliterator，记录产生的元素个数、拉取元素的总耗时，以及其中下游消费元素的耗时
+     */
+    private static final class ProfilingSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> source;
+        private final Record record;
+
+        private ProfilingSpliterator(Spliterator<T> source, Record record) {
+            this.source = source;
+            this.record = record;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Timed<T> timed = new Timed<>(action);
+            long start = System.nanoTime();
+            boolean advanced = source.tryAdvance(timed);
+            record.record(timed.count, System.nanoTime() - start, timed.nanos);
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Timed<T> timed = new Timed<>(action);
+            long start = System.nanoTime();
+            try {
+                source.forEachRemaining(timed);
+            } finally {
+                record.record(timed.count, System.nanoTime() - start, timed.nanos);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new ProfilingSpliterator<>(prefix, record);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return source.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    private static final class Timed<T> implements Consumer<T> {
+        private final Consumer<? super T> action;
+        private long count;
+        private long nanos;
+
+        private Timed(Consumer<? super T> action) {
+            this.action = action;
+        }
+
+        @Override
+        public void accept(T t) {
+            long start = System.nanoTime();
+            action.accept(t);
+            nanos += System.nanoTime() - start;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 基于下标访问的spliterator，适用于{@link java.util.RandomAccess}的列表及其视图
+ * 按下标二分拆分，拆分后各段大小精确，并行流可以均匀分配任务
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ */
+final class RandomAccessSpliterator<T> implements Spliterator<T> {
+
+    private final List<T> list;
+    private int index;
+    private final int fence;
+
+    RandomAccessSpliterator(List<T> list) {
+        this(list, 0, list.size());
+    }
+
+    private RandomAccessSpliterator(List<T> list, int origin, int fence) {
+        this.list = list;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        if (index < fence) {
+            action.accept(list.get(index++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        List<T> lst = list;
+        int hi = fence;
+        int i = index;
+        index = hi;
+        for (; i < hi; i++) {
+            action.accept(lst.get(i));
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+        if (lo >= mid) {
+            return null;
+        }
+        index = mid;
+        return new RandomAccessSpliterator<>(list, lo, mid);
+    }
+
+    @Override
+    public long estimateSize() {
+        return (long) fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
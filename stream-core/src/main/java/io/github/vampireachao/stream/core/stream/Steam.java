@@ -1,13 +1,21 @@
 package io.github.vampireachao.stream.core.stream;
 
+import io.github.vampireachao.stream.core.collection.IntHashSet;
+import io.github.vampireachao.stream.core.collection.IntObjHashMap;
+import io.github.vampireachao.stream.core.collection.LongHashSet;
+import io.github.vampireachao.stream.core.collection.LongObjHashMap;
 import io.github.vampireachao.stream.core.collector.Collective;
+import io.github.vampireachao.stream.core.lambda.function.SerIdxCons;
+import io.github.vampireachao.stream.core.lambda.function.SerIdxFunc;
+import io.github.vampireachao.stream.core.lambda.function.SerIdxPred;
 import io.github.vampireachao.stream.core.optional.Opp;
 
 import java.io.PrintStream;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.*;
 import java.util.stream.*;
@@ -49,10 +57,34 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     private static final int NOT_FOUND_INDEX = -1;
 
+    private static final Runnable NO_OP = () -> {
+    };
+
     protected Stream<T> stream;
 
+    /**
+     * 执行上下文，由中间操作向后传递
+     */
+    SteamContext context = SteamContext.DEFAULT;
+
+    /**
+     * 支持随机访问的源列表，仅在未叠加任何中间操作时存在，用于{@link #at(Integer)}、{@link #reverse()}等操作避免拷贝
+     */
+    protected final List<T> source;
+
+    /**
+     * 待拼接的部分，仅在由{@link #concat(Stream[])}、{@link #push}、{@link #unshift}创建且未叠加其他操作时存在，
+     * 用于连续拼接时平铺为同一层，避免嵌套拼接带来的深度调用链
+     */
+    private ConcatSpliterator.Parts<T> parts;
+
     Steam(Stream<T> stream) {
+        this(stream, null);
+    }
+
+    Steam(Stream<T> stream, List<T> source) {
         this.stream = stream;
+        this.source = source;
     }
 
     // --------------------------------------------------------------- Static method start
@@ -111,7 +143,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
     @SafeVarargs
     @SuppressWarnings("varargs")
     public static <T> Steam<T> of(T... values) {
-        return (values == null || values.length == 0) ? empty() : new Steam<>(Stream.of(values));
+        return (values == null || values.length == 0) ? empty() : new Steam<>(Stream.of(values), Arrays.asList(values));
     }
 
     /**
@@ -215,7 +247,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 如果两个输入流都是有序的，则结果流是有序的，如果任一输入流是并行的，则结果流是并行的。
      * 当结果流关闭时，两个输入流的关闭处理程序都会被调用。
      *
-     * <p>从重复串行流进行拼接时可能会导致深度调用链甚至抛出 {@code StackOverflowException}</p>
+     * <p>与{@link Stream#concat(Stream, Stream)}不同，重复拼接时所有部分平铺在同一层，不会产生深度调用链</p>
      *
      * @param <T> 元素类型
      * @param a   第一个流
@@ -223,7 +255,50 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 拼接两个流之后的流
      */
     public static <T> Steam<T> concat(Stream<? extends T> a, Stream<? extends T> b) {
-        return new Steam<>(Stream.concat(a, b));
+        ConcatSpliterator.Parts<T> parts = append(append(null, a), b);
+        return concat(SteamContext.DEFAULT, parts, a.isParallel() || b.isParallel());
+    }
+
+    /**
+     * 创建一个惰性拼接流，其元素依次是各个流的所有元素
+     * 如果所有输入流都是有序的，则结果流是有序的，如果任一输入流是并行的，则结果流是并行的，
+     * 所有输入流都有确定大小时，结果流也有确定大小，并行时按元素个数在各个流之间均匀拆分
+     * 当结果流关闭时，所有输入流的关闭处理程序都会按顺序被调用
+     *
+     * @param <T>     元素类型
+     * @param streams 流
+     * @return 拼接之后的流
+     */
+    @SafeVarargs
+    public static <T> Steam<T> concat(Stream<? extends T>... streams) {
+        if (streams.length == 0) {
+            return empty();
+        }
+        ConcatSpliterator.Parts<T> parts = null;
+        boolean parallel = false;
+        for (Stream<? extends T> stream : streams) {
+            parts = append(parts, stream);
+            parallel |= stream.isParallel();
+        }
+        return concat(SteamContext.DEFAULT, parts, parallel);
+    }
+
+    private static <T> ConcatSpliterator.Parts<T> append(ConcatSpliterator.Parts<T> parts, Stream<? extends T> stream) {
+        Objects.requireNonNull(stream);
+        ConcatSpliterator.Parts<? extends T> flat = stream instanceof Steam ? ((Steam<? extends T>) stream).takeParts() : null;
+        if (parts == null) {
+            // 只读取元素，视为Parts<T>是安全的
+            @SuppressWarnings("unchecked")
+            ConcatSpliterator.Parts<T> first = flat != null ? (ConcatSpliterator.Parts<T>) flat : ConcatSpliterator.Parts.of(stream.spliterator(), stream::close);
+            return first;
+        }
+        return flat != null ? parts.pushAll(flat) : parts.push(stream.spliterator(), stream::close);
+    }
+
+    private static <T> Steam<T> concat(SteamContext context, ConcatSpliterator.Parts<T> parts, boolean parallel) {
+        Steam<T> steam = context.wrap(StreamSupport.stream(parts.spliterator(), parallel).onClose(parts::close));
+        steam.parts = parts;
+        return steam;
     }
 
     /**
@@ -246,6 +321,10 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 流
      */
     public static <T> Steam<T> of(Iterable<T> iterable, boolean parallel) {
+        if (iterable instanceof List && iterable instanceof RandomAccess) {
+            List<T> list = (List<T>) iterable;
+            return new Steam<>(StreamSupport.stream(list.spliterator(), parallel), list);
+        }
         return Opp.of(iterable).map(Iterable::spliterator).map(spliterator -> StreamSupport.stream(spliterator, parallel)).map(Steam::new).orElseGet(Steam::empty);
     }
 
@@ -268,7 +347,21 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 拆分后元素组成的流
      */
     public static Steam<String> split(CharSequence str, String regex) {
-        return Opp.blank(str).map(CharSequence::toString).map(s -> s.split(regex)).map(Steam::of).orElseGet(Steam::empty);
+        return splitSeq(str, regex).map(CharSequence::toString);
+    }
+
+    /**
+     * 拆分字符串，转换为串行流，拆分结果与{@link String#split(String)}一致
+     * 惰性拆分，且不拷贝原字符串：元素是原字符串的只读视图，只需比较、解析时可以省去创建子串的开销，
+     * 需要保留元素时请调用{@link CharSequence#toString()}
+     *
+     * @param str   字符串
+     * @param regex 正则，单个字符或不含正则元字符时不使用正则匹配，其余情况复用编译好的正则
+     * @return 拆分后元素组成的流
+     */
+    public static Steam<CharSequence> splitSeq(CharSequence str, String regex) {
+        Objects.requireNonNull(regex);
+        return Opp.blank(str).map(s -> new Steam<>(StreamSupport.stream(Tokenizer.of(s, regex), false))).orElseGet(Steam::empty);
     }
 
     // --------------------------------------------------------------- Static method end
@@ -282,7 +375,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> filter(Predicate<? super T> predicate) {
-        return new Steam<>(stream.filter(predicate));
+        return context.wrap(stream.filter(predicate));
     }
 
     /**
@@ -301,20 +394,20 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
 
 
     /**
-     * 过滤元素，返回与指定断言匹配的元素组成的流，断言带下标，并行流时下标永远为-1
+     * 过滤元素，返回与指定断言匹配的元素组成的流，断言带下标，下标不装箱
+     * 源可精确拆分(如list、数组)时，并行流也能拿到元素在源中的真实下标
      * 这是一个无状态中间操作
      *
      * @param predicate 断言
      * @return 返回叠加过滤操作后的流
      */
-    public Steam<T> filterIdx(BiPredicate<? super T, Integer> predicate) {
+    public Steam<T> filterIdx(SerIdxPred<? super T> predicate) {
         Objects.requireNonNull(predicate);
-        if (isParallel()) {
-            return filter(e -> predicate.test(e, NOT_FOUND_INDEX));
-        } else {
-            AtomicInteger index = new AtomicInteger(NOT_FOUND_INDEX);
-            return filter(e -> predicate.test(e, index.incrementAndGet()));
-        }
+        return idx((e, i, downstream) -> {
+            if (predicate.test(e, i)) {
+                downstream.accept(e);
+            }
+        }, IdxSpliterator.FILTER_CLEARED);
     }
 
     /**
@@ -323,7 +416,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 过滤后的流
      */
     public Steam<T> nonNull() {
-        return new Steam<>(stream.filter(Objects::nonNull));
+        return context.wrap(stream.filter(Objects::nonNull));
     }
 
     /**
@@ -336,25 +429,21 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public <R> Steam<R> map(Function<? super T, ? extends R> mapper) {
-        return new Steam<>(stream.map(mapper));
+        return context.wrap(stream.map(mapper));
     }
 
     /**
-     * 返回与指定函数将元素作为参数执行的结果组成的流，操作带下标，并行流时下标永远为-1
+     * 返回与指定函数将元素作为参数执行的结果组成的流，操作带下标，下标不装箱
+     * 源可精确拆分(如list、数组)时，并行流也能拿到元素在源中的真实下标
      * 这是一个无状态中间操作
      *
      * @param mapper 指定的函数
      * @param <R>    函数执行后返回的类型
      * @return 返回叠加操作后的流
      */
-    public <R> Steam<R> mapIdx(BiFunction<? super T, Integer, ? extends R> mapper) {
+    public <R> Steam<R> mapIdx(SerIdxFunc<? super T, ? extends R> mapper) {
         Objects.requireNonNull(mapper);
-        if (isParallel()) {
-            return map(e -> mapper.apply(e, NOT_FOUND_INDEX));
-        } else {
-            AtomicInteger index = new AtomicInteger(NOT_FOUND_INDEX);
-            return map(e -> mapper.apply(e, index.incrementAndGet()));
-        }
+        return idx((e, i, downstream) -> downstream.accept(mapper.apply(e, i)), IdxSpliterator.MAP_CLEARED);
     }
 
     /**
@@ -371,25 +460,89 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public <R> Steam<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
-        return new Steam<>(stream.flatMap(mapper));
+        return context.wrap(stream.flatMap(mapper));
     }
 
     /**
-     * 扩散流操作，可能影响流元素个数，将原有流元素执行mapper操作，返回多个流所有元素组成的流，操作带下标，并行流时下标永远为-1
+     * 扩散流操作，可能影响流元素个数，将原有流元素执行mapper操作，返回多个流所有元素组成的流，操作带下标，下标不装箱
+     * 源可精确拆分(如list、数组)时，并行流也能拿到元素在源中的真实下标
      * 这是一个无状态中间操作
      *
      * @param mapper 操作，返回流
      * @param <R>    拆分后流的元素类型
      * @return 返回叠加拆分操作后的流
      */
-    public <R> Steam<R> flatIdx(BiFunction<? super T, Integer, ? extends Stream<? extends R>> mapper) {
+    public <R> Steam<R> flatIdx(SerIdxFunc<? super T, ? extends Stream<? extends R>> mapper) {
         Objects.requireNonNull(mapper);
-        if (isParallel()) {
-            return flatMap(e -> mapper.apply(e, NOT_FOUND_INDEX));
-        } else {
-            AtomicInteger index = new AtomicInteger(NOT_FOUND_INDEX);
-            return flatMap(e -> mapper.apply(e, index.incrementAndGet()));
-        }
+        return this.<Stream<? extends R>>mapIdx(mapper).flatMap(Function.identity());
+    }
+
+    /**
+     * 异步映射，适用于每个元素都要执行阻塞调用(如远程调用、逐条查询数据库)的场景，此时并行流的线程数受限于CPU核数，并不合适
+     * 同时最多有maxConcurrency个映射在执行，按遇到顺序交出结果，已完成的结果会立即交给下游，无需等待全部完成
+     * 任一映射失败时，其余正在执行的映射会被取消，异常抛给终端操作；终端操作结束(如findFirst、limit提前结束)或关闭流时，同样会取消正在执行的映射
+     * 返回的流是串行的，从源拉取元素及下游操作都在调用终端操作的线程中执行
+     * 这是一个有状态中间操作
+     *
+     * @param mapper         映射，在执行器中执行
+     * @param maxConcurrency 最大并发数，正整数
+     * @param executor       执行器
+     * @param <R>            映射后的元素类型
+     * @return 映射后的流
+     */
+    public <R> Steam<R> mapAsync(Function<? super T, ? extends R> mapper, int maxConcurrency, Executor executor) {
+        return async(mapper, maxConcurrency, executor, true);
+    }
+
+    /**
+     * 异步映射，使用默认执行器：JDK21及以上为虚拟线程，否则为有界的守护线程池
+     * 这是一个有状态中间操作
+     *
+     * @param mapper         映射，在执行器中执行
+     * @param maxConcurrency 最大并发数，正整数
+     * @param <R>            映射后的元素类型
+     * @return 映射后的流
+     * @see #mapAsync(Function, int, Executor)
+     */
+    public <R> Steam<R> mapAsync(Function<? super T, ? extends R> mapper, int maxConcurrency) {
+        return async(mapper, maxConcurrency, AsyncExecutors.defaultExecutor(), true);
+    }
+
+    /**
+     * 异步映射，与{@link #mapAsync(Function, int, Executor)}相同，只是按完成顺序交出结果，慢的调用不会阻塞已完成的结果
+     * 这是一个有状态中间操作
+     *
+     * @param mapper         映射，在执行器中执行
+     * @param maxConcurrency 最大并发数，正整数
+     * @param executor       执行器
+     * @param <R>            映射后的元素类型
+     * @return 映射后的流，无序
+     */
+    public <R> Steam<R> mapAsyncUnordered(Function<? super T, ? extends R> mapper, int maxConcurrency, Executor executor) {
+        return async(mapper, maxConcurrency, executor, false);
+    }
+
+    /**
+     * 异步映射，按完成顺序交出结果，使用默认执行器
+     * 这是一个有状态中间操作
+     *
+     * @param mapper         映射，在执行器中执行
+     * @param maxConcurrency 最大并发数，正整数
+     * @param <R>            映射后的元素类型
+     * @return 映射后的流，无序
+     * @see #mapAsyncUnordered(Function, int, Executor)
+     */
+    public <R> Steam<R> mapAsyncUnordered(Function<? super T, ? extends R> mapper, int maxConcurrency) {
+        return async(mapper, maxConcurrency, AsyncExecutors.defaultExecutor(), false);
+    }
+
+    private <R> Steam<R> async(Function<? super T, ? extends R> mapper, int maxConcurrency, Executor executor, boolean ordered) {
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(executor);
+        AsyncSpliterator<T, R> spliterator = new AsyncSpliterator<>(stream.spliterator(), mapper, maxConcurrency, executor, ordered);
+        // 短路的终端操作不再拉取元素时，取消已提交但用不到的映射
+        return context.withCompletion(spliterator::cancel)
+                .wrap(StreamSupport.stream(spliterator, false).onClose(spliterator::cancel).onClose(stream::close));
     }
 
     /**
@@ -397,11 +550,11 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 这是一个无状态中间操作
      *
      * @param mapper 返回值为int类型的函数
-     * @return 叠加操作后元素类型全为int的流
+     * @return 叠加操作后元素类型全为int的流，元素不装箱，见{@link IntSteam}
      */
     @Override
-    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
-        return stream.mapToInt(mapper);
+    public IntSteam mapToInt(ToIntFunction<? super T> mapper) {
+        return context.wrap(stream.mapToInt(mapper));
     }
 
     /**
@@ -409,11 +562,11 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 这是一个无状态中间操作
      *
      * @param mapper 返回值为long类型的函数
-     * @return 叠加操作后元素类型全为long的流
+     * @return 叠加操作后元素类型全为long的流，元素不装箱，见{@link LongSteam}
      */
     @Override
-    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
-        return stream.mapToLong(mapper);
+    public LongSteam mapToLong(ToLongFunction<? super T> mapper) {
+        return context.wrap(stream.mapToLong(mapper));
     }
 
     /**
@@ -421,11 +574,11 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 这是一个无状态中间操作
      *
      * @param mapper 返回值为double类型的函数
-     * @return 叠加操作后元素类型全为double的流
+     * @return 叠加操作后元素类型全为double的流，元素不装箱，见{@link DoubleSteam}
      */
     @Override
-    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
-        return stream.mapToDouble(mapper);
+    public DoubleSteam mapToDouble(ToDoubleFunction<? super T> mapper) {
+        return context.wrap(stream.mapToDouble(mapper));
     }
 
     /**
@@ -442,7 +595,12 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     public <R> Steam<R> flat(Function<? super T, ? extends Iterable<? extends R>> mapper) {
         Objects.requireNonNull(mapper);
-        return flatMap(w -> Opp.required(w).map(mapper).map(Steam::of).orElseGet(Steam::empty));
+        return mapMulti((e, downstream) -> {
+            Iterable<? extends R> iterable = mapper.apply(Objects.requireNonNull(e));
+            if (iterable != null) {
+                iterable.forEach(downstream);
+            }
+        });
     }
 
     /**
@@ -450,11 +608,11 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 这是一个无状态中间操作
      *
      * @param mapper 操作，返回IntStream
-     * @return 返回叠加拆分操作后的IntStream
+     * @return 返回叠加拆分操作后的IntSteam
      */
     @Override
-    public IntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
-        return stream.flatMapToInt(mapper);
+    public IntSteam flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
+        return context.wrap(stream.flatMapToInt(mapper));
     }
 
     /**
@@ -462,11 +620,11 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 这是一个无状态中间操作
      *
      * @param mapper 操作，返回LongStream
-     * @return 返回叠加拆分操作后的LongStream
+     * @return 返回叠加拆分操作后的LongSteam
      */
     @Override
-    public LongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
-        return stream.flatMapToLong(mapper);
+    public LongSteam flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
+        return context.wrap(stream.flatMapToLong(mapper));
     }
 
     /**
@@ -474,16 +632,18 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 这是一个无状态中间操作
      *
      * @param mapper 操作，返回DoubleStream
-     * @return 返回叠加拆分操作后的DoubleStream
+     * @return 返回叠加拆分操作后的DoubleSteam
      */
     @Override
-    public DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
-        return stream.flatMapToDouble(mapper);
+    public DoubleSteam flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
+        return context.wrap(stream.flatMapToDouble(mapper));
     }
 
     /**
      * 扩散流操作，可能影响流元素个数，将原有流元素执行mapper操作，返回多个流所有元素组成的流，操作带一个方法，调用该方法可增加元素
      * 这是一个无状态中间操作
+     * 传入的建造器直接将元素推送给下游，不会为每个元素创建流或缓冲区，只能在操作内部调用{@link Builder#accept(Object)}或{@link Builder#add(Object)}，
+     * 调用{@link Builder#build()}会抛出{@link IllegalStateException}
      *
      * @param mapper 操作，返回流
      * @param <R>    拆分后流的元素类型
@@ -491,11 +651,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     public <R> Steam<R> mapMulti(BiConsumer<? super T, ? super Builder<R>> mapper) {
         Objects.requireNonNull(mapper);
-        return flatMap(e -> {
-            Builder<R> buffer = Steam.builder();
-            mapper.accept(e, buffer);
-            return buffer.build();
-        });
+        return context.wrap(StreamSupport.stream(new FlatSpliterator<>(stream.spliterator(), mapper), isParallel()).onClose(stream::close));
     }
 
     /**
@@ -506,7 +662,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> distinct() {
-        return new Steam<>(stream.distinct());
+        return context.wrap(stream.distinct());
     }
 
     /**
@@ -523,7 +679,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
             // 标记是否出现过null值，用于保留第一个出现的null
             // 由于ConcurrentHashMap的key不能为null，所以用此变量来标记
             AtomicBoolean hasNull = new AtomicBoolean(false);
-            return of(stream.filter(e -> {
+            return context.wrap(stream.filter(e -> {
                 F key = keyExtractor.apply(e);
                 if (key == null) {
                     // 已经出现过null值，跳过该值
@@ -536,13 +692,49 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
                     // 第一次出现的key返回true
                     return null == exists.putIfAbsent(key, Boolean.TRUE);
                 }
-            })).parallel();
+            }));
         } else {
             Set<F> exists = new HashSet<>();
-            return of(stream.filter(e -> exists.add(keyExtractor.apply(e))));
+            return context.wrap(stream.filter(e -> exists.add(keyExtractor.apply(e))));
         }
     }
 
+    /**
+     * 按long类型的去重依据去重，去重依据不装箱，使用开放寻址的{@link LongHashSet}，适用于按数值主键对大量数据去重
+     * 非并行流(顺序流)下对于重复元素，保留遇到顺序中最先出现的元素，并行流情况下不能保证具体保留哪一个
+     * 这是一个有状态中间操作
+     *
+     * @param keyExtractor 去重依据
+     * @return 一个具有去重特征的流
+     */
+    public Steam<T> distinctByLong(ToLongFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(keyExtractor);
+        if (isParallel()) {
+            StripedKeySet exists = StripedKeySet.ofLong();
+            return context.wrap(stream.filter(e -> exists.add(keyExtractor.applyAsLong(e))));
+        }
+        LongHashSet exists = new LongHashSet();
+        return context.wrap(stream.filter(e -> exists.add(keyExtractor.applyAsLong(e))));
+    }
+
+    /**
+     * 按int类型的去重依据去重，去重依据不装箱，使用开放寻址的{@link IntHashSet}
+     * 非并行流(顺序流)下对于重复元素，保留遇到顺序中最先出现的元素，并行流情况下不能保证具体保留哪一个
+     * 这是一个有状态中间操作
+     *
+     * @param keyExtractor 去重依据
+     * @return 一个具有去重特征的流
+     */
+    public Steam<T> distinctByInt(ToIntFunction<? super T> keyExtractor) {
+        Objects.requireNonNull(keyExtractor);
+        if (isParallel()) {
+            StripedKeySet exists = StripedKeySet.ofInt();
+            return context.wrap(stream.filter(e -> exists.add(keyExtractor.applyAsInt(e))));
+        }
+        IntHashSet exists = new IntHashSet();
+        return context.wrap(stream.filter(e -> exists.add(keyExtractor.applyAsInt(e))));
+    }
+
     /**
      * 返回一个元素按自然顺序排序的流
      * 如果此流的元素不是{@code Comparable} ，则在执行终端操作时可能会抛出 {@code java.lang.ClassCastException}
@@ -553,7 +745,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> sorted() {
-        return new Steam<>(stream.sorted());
+        return context.wrap(stream.sorted());
     }
 
     /**
@@ -567,7 +759,107 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> sorted(Comparator<? super T> comparator) {
-        return new Steam<>(stream.sorted(comparator));
+        return context.wrap(stream.sorted(comparator));
+    }
+
+    /**
+     * 返回按指定的{@link Comparator}最大的n个元素组成的流，从大到小排列，比较器认为相等的元素按遇到顺序排列
+     * 结果与{@code sorted(comparator.reversed()).limit(n)}一致，但只用大小为n的堆，无需对全部元素排序，并行流每个分段各自维护堆，最后合并
+     * 这是一个有状态中间操作，执行终端操作时才会计算
+     *
+     * @param n          元素个数，非负整数
+     * @param comparator 排序规则
+     * @return 最大的n个元素组成的流
+     * @see Collective#topK(int, Comparator)
+     */
+    public Steam<T> topK(int n, Comparator<? super T> comparator) {
+        return bounded(Collective.topK(n, comparator));
+    }
+
+    /**
+     * 返回按指定的{@link Comparator}最小的n个元素组成的流，从小到大排列，比较器认为相等的元素按遇到顺序排列
+     * 结果与{@code sorted(comparator).limit(n)}一致，但只用大小为n的堆，无需对全部元素排序
+     * 这是一个有状态中间操作，执行终端操作时才会计算
+     *
+     * @param n          元素个数，非负整数
+     * @param comparator 排序规则
+     * @return 最小的n个元素组成的流
+     * @see Collective#bottomK(int, Comparator)
+     */
+    public Steam<T> bottomK(int n, Comparator<? super T> comparator) {
+        return bounded(Collective.bottomK(n, comparator));
+    }
+
+    /**
+     * 按排序依据排序，每个元素只提取一次排序依据，排序过程中不再调用提取函数，排序是稳定的
+     * 而{@code sorted(Comparator.comparing(keyFn))}每次比较都会提取两次排序依据
+     * 这是一个有状态中间操作，执行终端操作时才会计算
+     *
+     * @param keyFn 排序依据
+     * @param <U>   排序依据类型
+     * @return 排序后的流
+     */
+    public <U extends Comparable<? super U>> Steam<T> sortedBy(Function<? super T, ? extends U> keyFn) {
+        return sortedBy(keyFn, Comparator.naturalOrder());
+    }
+
+    /**
+     * 按排序依据及其比较器排序，每个元素只提取一次排序依据，排序是稳定的
+     * 这是一个有状态中间操作，执行终端操作时才会计算
+     *
+     * @param keyFn      排序依据
+     * @param comparator 排序依据的比较器
+     * @param <U>        排序依据类型
+     * @return 排序后的流
+     */
+    public <U> Steam<T> sortedBy(Function<? super T, ? extends U> keyFn, Comparator<? super U> comparator) {
+        Objects.requireNonNull(keyFn);
+        Objects.requireNonNull(comparator);
+        final boolean parallel = isParallel();
+        return deferred(() -> KeySort.byKey(toArray(), keyFn, comparator, parallel));
+    }
+
+    /**
+     * 按long类型的排序依据从小到大排序，排序依据不装箱，每个元素只提取一次，排序是稳定的
+     * 顺序流使用基数排序，所有元素都相同的字节(如时间戳的高位)会被跳过；并行流使用{@link Arrays#parallelSort}
+     * 这是一个有状态中间操作，执行终端操作时才会计算
+     *
+     * @param keyFn 排序依据
+     * @return 排序后的流
+     */
+    public Steam<T> sortedByLong(ToLongFunction<? super T> keyFn) {
+        Objects.requireNonNull(keyFn);
+        final boolean parallel = isParallel();
+        return deferred(() -> KeySort.byLong(toArray(), keyFn, parallel));
+    }
+
+    /**
+     * 按int类型的排序依据从小到大排序，排序依据不装箱，每个元素只提取一次，排序是稳定的
+     * 这是一个有状态中间操作，执行终端操作时才会计算
+     *
+     * @param keyFn 排序依据
+     * @return 排序后的流
+     * @see #sortedByLong(ToLongFunction)
+     */
+    public Steam<T> sortedByInt(ToIntFunction<? super T> keyFn) {
+        Objects.requireNonNull(keyFn);
+        final boolean parallel = isParallel();
+        return deferred(() -> KeySort.byInt(toArray(), keyFn, parallel));
+    }
+
+    private Steam<T> bounded(Collector<T, ?, List<T>> collector) {
+        return deferred(() -> collect(collector));
+    }
+
+    /**
+     * 执行终端操作时才计算结果列表，并以该列表为源继续后续操作
+     *
+     * @param result 计算结果列表
+     * @return 以结果列表为源的流
+     */
+    private Steam<T> deferred(Supplier<List<T>> result) {
+        return context.wrap(StreamSupport.stream(() -> result.get().spliterator(),
+                Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED, isParallel()).onClose(stream::close));
     }
 
     /**
@@ -589,7 +881,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> peek(Consumer<? super T> action) {
-        return new Steam<>(stream.peek(action));
+        return context.wrap(stream.peek(action));
     }
 
     /**
@@ -601,6 +893,82 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
         return peek(System.out::println);
     }
 
+    /**
+     * 开启剖析，剖析结果交给{@link SteamProfile#setDefaultListener(Consumer)}设置的监听器，默认以FINE级别写入{@link java.util.logging.Logger}
+     *
+     * @param name 名称，用于区分不同的流水线
+     * @return 开启剖析的流
+     * @see #profile(String, Consumer)
+     */
+    public Steam<T> profile(String name) {
+        return profile(name, null);
+    }
+
+    /**
+     * 开启剖析，之后的每个中间操作都会记录产生的元素个数、自身耗时，以及是否并行、是否有确定大小、是否有序，
+     * 终端操作完成后汇总为{@link SteamProfile}交给监听器，用于定位流水线中较慢的操作
+     * 剖析会为每个元素额外计时，仅用于排查问题；未开启剖析的流没有任何额外开销
+     *
+     * @param name     名称，用于区分不同的流水线
+     * @param listener 监听器，为null时使用默认监听器
+     * @return 开启剖析的流
+     */
+    public Steam<T> profile(String name, Consumer<? super SteamProfile> listener) {
+        Objects.requireNonNull(name);
+        return context.withProfiler(new Profiler(name, listener)).wrap(stream, source);
+    }
+
+    /**
+     * 描述当前流：是否并行、spliterator的特征值与估计大小；开启剖析时还会列出之后记录的每个操作
+     * 不会消费元素，调用后仍可继续使用当前流
+     *
+     * @return 描述
+     */
+    public String explain() {
+        return context.explain(isParallel(), rebind());
+    }
+
+    /**
+     * 获取元素个数，未知时返回-1
+     * 没有源列表时需要获取spliterator，之后的终端操作基于该spliterator执行
+     *
+     * @return 元素个数
+     */
+    private long exactSize() {
+        if (source != null) {
+            return source.size();
+        }
+        return rebind().getExactSizeIfKnown();
+    }
+
+    /**
+     * 并行且显式调用过{@link #unordered()}、当前也无序时返回spliterator，之后的终端操作基于该spliterator执行，否则返回null
+     * 源本身无序(如HashSet)但未调用{@link #unordered()}时不会返回，避免改变收集的方式
+     * 获取spliterator时并行流中的有状态操作可能会立即执行，因此提交到指定的线程池中获取
+     *
+     * @return spliterator，流有序或串行时为null
+     */
+    private Spliterator<T> unorderedParallel() {
+        if (!isParallel() || !context.isUnordered()) {
+            return null;
+        }
+        final Spliterator<T> spliterator = context.submitIfNeeded(true, this::rebind);
+        return spliterator.hasCharacteristics(Spliterator.ORDERED) ? null : spliterator;
+    }
+
+    /**
+     * 获取spliterator，当前流改为基于该spliterator继续执行
+     *
+     * @return spliterator
+     */
+    private Spliterator<T> rebind() {
+        final boolean parallel = isParallel();
+        final Spliterator<T> spliterator = stream.spliterator();
+        this.stream = StreamSupport.stream(spliterator, parallel).onClose(stream::close);
+        this.parts = null;
+        return spliterator;
+    }
+
     /**
      * 返回截取后面一些元素的流
      * 这是一个短路状态中间操作
@@ -610,7 +978,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> limit(long maxSize) {
-        return new Steam<>(stream.limit(maxSize));
+        return context.wrap(stream.limit(maxSize));
     }
 
     /**
@@ -622,7 +990,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Steam<T> skip(long n) {
-        return new Steam<>(stream.skip(n));
+        return context.wrap(stream.skip(n));
     }
 
     /**
@@ -645,23 +1013,19 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public void forEach(Consumer<? super T> action) {
-        stream.forEach(action);
+        context.execute(isParallel(), () -> stream.forEach(action));
     }
 
     /**
-     * 对流里面的每一个元素执行一个操作，操作带下标，并行流时下标永远为-1
+     * 对流里面的每一个元素执行一个操作，操作带下标，下标不装箱
+     * 源可精确拆分(如list、数组)时，并行流也能拿到元素在源中的真实下标
      * 这是一个终端操作
      *
      * @param action 操作
      */
-    public void forEachIdx(BiConsumer<? super T, Integer> action) {
+    public void forEachIdx(SerIdxCons<? super T> action) {
         Objects.requireNonNull(action);
-        if (isParallel()) {
-            stream.forEach(e -> action.accept(e, NOT_FOUND_INDEX));
-        } else {
-            AtomicInteger index = new AtomicInteger(NOT_FOUND_INDEX);
-            stream.forEach(e -> action.accept(e, index.incrementAndGet()));
-        }
+        this.<T>idx((e, i, downstream) -> action.accept(e, i), IdxSpliterator.FILTER_CLEARED).forEach(e -> {});
     }
 
     /**
@@ -672,23 +1036,20 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public void forEachOrdered(Consumer<? super T> action) {
-        stream.forEachOrdered(action);
+        context.execute(isParallel(), () -> stream.forEachOrdered(action));
     }
 
     /**
-     * 对流里面的每一个元素按照顺序执行一个操作，操作带下标，并行流时下标永远为-1
+     * 对流里面的每一个元素按照顺序执行一个操作，操作带下标，下标不装箱
      * 这是一个终端操作
      *
      * @param action 操作
      */
-    public void forEachOrderedIdx(BiConsumer<? super T, Integer> action) {
+    public void forEachOrderedIdx(SerIdxCons<? super T> action) {
         Objects.requireNonNull(action);
-        if (isParallel()) {
-            stream.forEachOrdered(e -> action.accept(e, NOT_FOUND_INDEX));
-        } else {
-            AtomicInteger index = new AtomicInteger(NOT_FOUND_INDEX);
-            stream.forEachOrdered(e -> action.accept(e, index.incrementAndGet()));
-        }
+        // forEachOrdered保证按遇到顺序逐个执行且前后操作存在happens-before关系，普通计数器即可
+        int[] index = {0};
+        context.execute(isParallel(), () -> stream.forEachOrdered(e -> action.accept(e, index[0]++)));
     }
 
     /**
@@ -699,7 +1060,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Object[] toArray() {
-        return stream.toArray();
+        return context.evaluate(isParallel(), () -> stream.toArray());
     }
 
     /**
@@ -717,7 +1078,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
     @Override
     public <A> A[] toArray(IntFunction<A[]> generator) {
         //noinspection SuspiciousToArrayCall
-        return stream.toArray(generator);
+        return context.evaluate(isParallel(), () -> stream.toArray(generator));
     }
 
     /**
@@ -742,7 +1103,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public T reduce(T identity, BinaryOperator<T> accumulator) {
-        return stream.reduce(identity, accumulator);
+        return context.evaluate(isParallel(), () -> stream.reduce(identity, accumulator));
     }
 
     /**
@@ -777,7 +1138,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Optional<T> reduce(BinaryOperator<T> accumulator) {
-        return stream.reduce(accumulator);
+        return context.evaluate(isParallel(), () -> stream.reduce(accumulator));
     }
 
     /**
@@ -794,7 +1155,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
-        return stream.reduce(identity, accumulator, combiner);
+        return context.evaluate(isParallel(), () -> stream.reduce(identity, accumulator, combiner));
     }
 
     /**
@@ -812,7 +1173,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
-        return stream.collect(supplier, accumulator, combiner);
+        return context.evaluate(isParallel(), () -> stream.collect(supplier, accumulator, combiner));
     }
 
     /**
@@ -826,7 +1187,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public <R, A> R collect(Collector<? super T, A, R> collector) {
-        return stream.collect(collector);
+        return context.evaluate(isParallel(), () -> stream.collect(collector));
     }
 
     /**
@@ -837,7 +1198,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Optional<T> min(Comparator<? super T> comparator) {
-        return stream.min(comparator);
+        return context.evaluate(isParallel(), () -> stream.min(comparator));
     }
 
     /**
@@ -848,7 +1209,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Optional<T> max(Comparator<? super T> comparator) {
-        return stream.max(comparator);
+        return context.evaluate(isParallel(), () -> stream.max(comparator));
     }
 
     /**
@@ -858,7 +1219,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public long count() {
-        return stream.count();
+        return context.evaluateAsLong(isParallel(), () -> stream.count());
     }
 
     /**
@@ -869,7 +1230,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public boolean anyMatch(Predicate<? super T> predicate) {
-        return stream.anyMatch(predicate);
+        return context.evaluateAsBoolean(isParallel(), () -> stream.anyMatch(predicate));
     }
 
     /**
@@ -880,7 +1241,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public boolean allMatch(Predicate<? super T> predicate) {
-        return stream.allMatch(predicate);
+        return context.evaluateAsBoolean(isParallel(), () -> stream.allMatch(predicate));
     }
 
     /**
@@ -891,7 +1252,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public boolean noneMatch(Predicate<? super T> predicate) {
-        return stream.noneMatch(predicate);
+        return context.evaluateAsBoolean(isParallel(), () -> stream.noneMatch(predicate));
     }
 
     /**
@@ -901,7 +1262,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Optional<T> findFirst() {
-        return stream.findFirst();
+        return context.evaluate(isParallel(), () -> stream.findFirst());
     }
 
     /**
@@ -911,28 +1272,19 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 与给定断言匹配的第一个元素
      */
     public Optional<T> findFirst(Predicate<? super T> predicate) {
-        return stream.filter(predicate).findFirst();
+        return context.evaluate(isParallel(), () -> stream.filter(predicate).findFirst());
     }
 
     /**
-     * 获取与给定断言匹配的第一个元素的下标，并行流下标永远为-1
+     * 获取与给定断言匹配的第一个元素的下标
+     * 源可精确拆分(如list、数组)时，并行流也能拿到元素在源中的真实下标
      *
      * @param predicate 断言
      * @return 与给定断言匹配的第一个元素的下标，如果不存在则返回-1
      */
     public Integer findFirstIdx(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
-        if (isParallel()) {
-            return NOT_FOUND_INDEX;
-        } else {
-            AtomicInteger index = new AtomicInteger(NOT_FOUND_INDEX);
-            //noinspection ResultOfMethodCallIgnored
-            stream.filter(e -> {
-                index.incrementAndGet();
-                return predicate.test(e);
-            }).findFirst();
-            return index.get();
-        }
+        return matchedIdx(predicate).findFirst().orElse(NOT_FOUND_INDEX);
     }
 
     /**
@@ -941,6 +1293,9 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 最后一个元素
      */
     public Optional<T> findLast() {
+        if (source != null) {
+            return source.isEmpty() ? Optional.empty() : Optional.ofNullable(source.get(source.size() - 1));
+        }
         if (isParallel()) {
             return Optional.of(toList()).filter(l -> !l.isEmpty()).map(l -> l.get(l.size() - 1));
         } else {
@@ -958,6 +1313,16 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     public Optional<T> findLast(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
+        if (source != null) {
+            // 从尾部往前查找，命中即返回
+            for (ListIterator<T> iterator = source.listIterator(source.size()); iterator.hasPrevious(); ) {
+                T e = iterator.previous();
+                if (predicate.test(e)) {
+                    return Optional.ofNullable(e);
+                }
+            }
+            return Optional.empty();
+        }
         if (isParallel()) {
             return filter(predicate).findLast();
         } else {
@@ -972,35 +1337,58 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
     }
 
     /**
-     * 获取与给定断言匹配的最后一个元素的下标，并行流下标永远为-1
+     * 获取与给定断言匹配的最后一个元素的下标
+     * 源可精确拆分(如list、数组)时，并行流也能拿到元素在源中的真实下标
      *
      * @param predicate 断言
      * @return 与给定断言匹配的最后一个元素的下标，如果不存在则返回-1
      */
     public Integer findLastIdx(Predicate<? super T> predicate) {
         Objects.requireNonNull(predicate);
-        if (isParallel()) {
-            return NOT_FOUND_INDEX;
-        } else {
-            AtomicInteger idxRef = new AtomicInteger(NOT_FOUND_INDEX);
-            forEachIdx((e, i) -> {
-                if (predicate.test(e)) {
-                    idxRef.set(i);
-                }
-            });
-            return idxRef.get();
-        }
+        return matchedIdx(predicate).reduce((l, r) -> r).orElse(NOT_FOUND_INDEX);
+    }
+
+    /**
+     * 返回与给定断言匹配的元素的下标组成的流，只有匹配的元素才会装箱下标
+     *
+     * @param predicate 断言
+     * @return 下标组成的流
+     */
+    private Steam<Integer> matchedIdx(Predicate<? super T> predicate) {
+        return idx((e, i, downstream) -> {
+            if (predicate.test(e)) {
+                downstream.accept(i);
+            }
+        }, IdxSpliterator.FILTER_CLEARED);
+    }
+
+    /**
+     * 基于携带下标的spliterator叠加一个带下标的操作，并保留关闭处理器
+     *
+     * @param stage   带下标的操作
+     * @param cleared 需要去掉的特征值
+     * @param <R>     操作后的元素类型
+     * @return 叠加操作后的流
+     */
+    private <R> Steam<R> idx(IdxSpliterator.Stage<T, R> stage, int cleared) {
+        return context.wrap(StreamSupport.stream(new IdxSpliterator<>(stream.spliterator(), stage, cleared), isParallel()).onClose(stream::close));
     }
 
     /**
      * 反转顺序
+     * 源为支持随机访问的列表时，返回惰性的倒序视图，不拷贝元素
      *
      * @return 反转元素顺序
      */
     public Steam<T> reverse() {
-        List<T> list = toList();
-        Collections.reverse(list);
-        return of(list, isParallel());
+        List<T> list;
+        if (source != null) {
+            list = ListViews.reverse(source);
+        } else {
+            list = toList();
+            Collections.reverse(list);
+        }
+        return context.wrap(StreamSupport.stream(list.spliterator(), isParallel()).onClose(stream::close), list);
     }
 
     /**
@@ -1010,7 +1398,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @Override
     public Optional<T> findAny() {
-        return stream.findAny();
+        return context.evaluate(isParallel(), () -> stream.findAny());
     }
 
     /**
@@ -1044,6 +1432,56 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
         return this;
     }
 
+    /**
+     * 将流缓存为可重复消费的{@link SteamCache}，通过{@link SteamCache#steam()}可以多次获取流，
+     * 用于对同一个计算代价较高的结果同时进行分组、转map等多个操作，而不必重复计算或先转为list再手动创建流
+     * 缓存是惰性填充且线程安全的，多个消费者共享已计算的部分，只在需要时从当前流拉取后续元素
+     * 这是一个终端操作，调用后不能再直接使用当前流
+     *
+     * @return 缓存
+     */
+    public SteamCache<T> cache() {
+        return cache(Integer.MAX_VALUE);
+    }
+
+    /**
+     * 将流缓存为可重复消费的{@link SteamCache}，并限制缓存的元素个数
+     * 缓存的元素超过maxSize时，拉取元素的消费者会抛出{@link IllegalStateException}，已缓存的元素不受影响
+     *
+     * @param maxSize 最多缓存的元素个数
+     * @return 缓存
+     * @see #cache()
+     */
+    public SteamCache<T> cache(int maxSize) {
+        // 每个消费者的终端操作结束时不能执行收尾操作(如取消异步映射)，其他消费者还会继续拉取，改为在关闭缓存时经由stream::close执行
+        return new SteamCache<>(stream.spliterator(), maxSize, context.withoutCompletion(), isParallel(), stream::close);
+    }
+
+    /**
+     * 将流转换为并行，并在指定的线程池中执行
+     * 之后的终端操作(如{@link #toList()}、{@link #group(Function)}、{@link #toMap(Function, Function)}、{@link #forEach(Consumer)}、{@link #reduce(BinaryOperator)})
+     * 会提交到该线程池中执行，整个流水线都不会占用公共线程池，中间操作返回的流沿用该线程池
+     *
+     * @param pool 线程池
+     * @return 并行流
+     * @see #stats()
+     */
+    public Steam<T> parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        this.stream = stream.parallel();
+        this.context = context.withPool(pool);
+        return this;
+    }
+
+    /**
+     * 获取通过{@link #parallel(ForkJoinPool)}指定的线程池的统计信息，由该流及其后续中间操作产生的流共享
+     *
+     * @return 统计信息，未指定线程池时为空
+     */
+    public Optional<PoolStats> stats() {
+        return Optional.ofNullable(context.stats());
+    }
+
     /**
      * 更改流的并行状态
      *
@@ -1056,12 +1494,13 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
 
     /**
      * 返回一个无序流(无手动排序)
+     * 之后并行流的{@link #toSet()}、{@link #toMap}、{@link #group}会由所有线程并发写入同一个容器，没有合并阶段
      *
      * @return 无序流
      */
     @Override
     public Steam<T> unordered() {
-        return new Steam<>(stream.unordered());
+        return context.withUnordered().wrap(stream.unordered());
     }
 
     /**
@@ -1073,6 +1512,8 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
     @Override
     public Steam<T> onClose(Runnable closeHandler) {
         this.stream = stream.onClose(closeHandler);
+        // 关闭处理器登记在当前流上，之后拼接时需以当前流整体作为一个部分
+        this.parts = null;
         return this;
     }
 
@@ -1083,7 +1524,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 流
      */
     public Steam<T> push(T obj) {
-        return Steam.concat(this.stream, Stream.of(obj));
+        return concat(context, takeParts().push(Collections.singletonList(obj).spliterator(), NO_OP), isParallel());
     }
 
     /**
@@ -1094,7 +1535,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @SuppressWarnings("unchecked")
     public Steam<T> push(T... obj) {
-        return Steam.concat(this.stream, of(obj));
+        return concat(context, takeParts().push(arraySpliterator(obj), NO_OP), isParallel());
     }
 
     /**
@@ -1104,7 +1545,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @return 流
      */
     public Steam<T> unshift(T obj) {
-        return Steam.concat(Stream.of(obj), this.stream);
+        return concat(context, takeParts().unshift(Collections.singletonList(obj).spliterator(), NO_OP), isParallel());
     }
 
     /**
@@ -1115,7 +1556,33 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @SafeVarargs
     public final Steam<T> unshift(T... obj) {
-        return Steam.concat(of(obj), this.stream);
+        // 只读取可变参数数组中的元素，不直接传递数组本身
+        List<T> elements = new ArrayList<>(obj == null ? 0 : obj.length);
+        if (obj != null) {
+            for (T e : obj) {
+                elements.add(e);
+            }
+        }
+        return concat(context, takeParts().unshift(elements.spliterator(), NO_OP), isParallel());
+    }
+
+    /**
+     * 取走当前流待拼接的部分，当前流不是拼接得到的流时，以当前流作为唯一的部分
+     * 与其他中间操作一样，取走后当前流即失效，再次使用时抛出{@link IllegalStateException}，
+     * 避免多个流共享同一个部分的spliterator
+     */
+    private ConcatSpliterator.Parts<T> takeParts() {
+        final ConcatSpliterator.Parts<T> taken = parts;
+        final Spliterator<T> spliterator = stream.spliterator();
+        if (taken == null) {
+            return ConcatSpliterator.Parts.of(spliterator, stream::close);
+        }
+        parts = null;
+        return taken;
+    }
+
+    private static <T> Spliterator<T> arraySpliterator(T[] array) {
+        return array == null ? Spliterators.emptySpliterator() : Spliterators.spliterator(array, Spliterator.ORDERED | Spliterator.IMMUTABLE);
     }
 
     /**
@@ -1128,7 +1595,7 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
         if (Objects.isNull(idx)) {
             return Optional.empty();
         }
-        Optional<List<T>> listOpt = Optional.of(toList());
+        Optional<List<T>> listOpt = Optional.of(source != null ? source : toList());
         if (idx > -1) {
             return listOpt.filter(l -> idx < l.size()).map(l -> l.get(idx));
         }
@@ -1211,10 +1678,15 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
 
     /**
      * 转换为HashSet
+     * 并行且调用过{@link #unordered()}时，所有线程并发写入同一个预设容量的set，没有合并阶段，最后拷贝为HashSet
      *
      * @return hashSet
      */
     public Set<T> toSet() {
+        final Spliterator<T> unordered = unorderedParallel();
+        if (unordered != null) {
+            return collect(ConcurrentCollect.toSet(unordered.getExactSizeIfKnown()));
+        }
         return collect(Collective.toSet());
     }
 
@@ -1229,18 +1701,15 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * 如果key重复, 则保留最后一个关联的value;<br>
      */
     public <R> Map<T, R> toZip(Iterable<R> other) {
-        // value对象迭代器
-        final Iterator<R> iterator = Opp.of(other).map(Iterable::iterator).orElseGet(Collections::emptyIterator);
-        if (isParallel()) {
-            List<T> keyList = toList();
-            final Map<T, R> map = new HashMap<>(keyList.size());
-            for (T key : keyList) {
-                map.put(key, iterator.hasNext() ? iterator.next() : null);
-            }
-            return map;
-        } else {
-            return toMap(Function.identity(), e -> iterator.hasNext() ? iterator.next() : null);
-        }
+        final Spliterator<T> keys = stream.spliterator();
+        final long size = keys.getExactSizeIfKnown();
+        // 元素个数已知时预设容量，避免扩容
+        final Map<T, R> map = size < 0 ? new HashMap<>() : new HashMap<>((int) Math.min(Integer.MAX_VALUE, size * 4 / 3 + 1));
+        // 并行时合并在各分段并行进行，按遇到顺序写入map，key重复时保留最后一个
+        context.wrap(StreamSupport.stream(keys, isParallel()).onClose(stream::close))
+                .<R, Map.Entry<T, R>>zip(other, AbstractMap.SimpleImmutableEntry::new)
+                .forEachOrdered(e -> map.put(e.getKey(), e.getValue()));
+        return map;
     }
 
     /**
@@ -1315,7 +1784,18 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
     public <K, U> Map<K, U> toMap(Function<? super T, ? extends K> keyMapper,
                                   Function<? super T, ? extends U> valueMapper,
                                   BinaryOperator<U> mergeFunction) {
-        return toMap(keyMapper, valueMapper, mergeFunction, HashMap::new);
+        // 并行且调用过unordered()时，所有线程并发写入同一个预设容量的map，没有合并阶段
+        final Spliterator<T> unordered = unorderedParallel();
+        if (unordered != null) {
+            return collect(ConcurrentCollect.toMap(keyMapper, valueMapper, mergeFunction, unordered.getExactSizeIfKnown()));
+        }
+        // 串行且元素个数已知时预设容量，避免扩容；并行时每个分段各有一个map，不预设
+        final long size = isParallel() ? -1 : exactSize();
+        if (size < 0) {
+            return toMap(keyMapper, valueMapper, mergeFunction, HashMap::new);
+        }
+        final int capacity = (int) Math.min(Integer.MAX_VALUE, size * 4 / 3 + 1);
+        return toMap(keyMapper, valueMapper, mergeFunction, () -> new HashMap<>(capacity));
     }
 
     /**
@@ -1362,6 +1842,10 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     public <K, A, D> Map<K, D> group(Function<? super T, ? extends K> classifier,
                                      Collector<? super T, A, D> downstream) {
+        // 并行且调用过unordered()时，所有线程并发写入同一个map，没有合并阶段
+        if (unorderedParallel() != null) {
+            return collect(ConcurrentCollect.groupingBy(classifier, downstream));
+        }
         return group(classifier, HashMap::new, downstream);
     }
 
@@ -1383,10 +1867,86 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
         return collect(Collective.groupingBy(classifier, mapFactory, downstream));
     }
 
+    /**
+     * 通过long类型的分组依据进行分组，分组依据不装箱，结果为开放寻址的{@link LongObjHashMap}
+     *
+     * @param classifier 分组依据
+     * @return 分组结果
+     * @see Collective#groupingByLong(ToLongFunction)
+     */
+    public LongObjHashMap<List<T>> groupByLong(ToLongFunction<? super T> classifier) {
+        return collect(Collective.groupingByLong(classifier));
+    }
+
+    /**
+     * 通过long类型的分组依据进行分组，分组依据不装箱
+     *
+     * @param classifier 分组依据
+     * @param downstream 下游操作
+     * @param <D>        下游操作对应返回类型，也是Map中value的类型
+     * @param <A>        下游操作在进行中间操作时对应类型
+     * @return 分组结果
+     */
+    public <A, D> LongObjHashMap<D> groupByLong(ToLongFunction<? super T> classifier, Collector<? super T, A, D> downstream) {
+        return collect(Collective.groupingByLong(classifier, downstream));
+    }
+
+    /**
+     * 通过int类型的分组依据进行分组，分组依据不装箱，结果为开放寻址的{@link IntObjHashMap}
+     *
+     * @param classifier 分组依据
+     * @return 分组结果
+     * @see Collective#groupingByInt(ToIntFunction)
+     */
+    public IntObjHashMap<List<T>> groupByInt(ToIntFunction<? super T> classifier) {
+        return collect(Collective.groupingByInt(classifier));
+    }
+
+    /**
+     * 通过int类型的分组依据进行分组，分组依据不装箱
+     *
+     * @param classifier 分组依据
+     * @param downstream 下游操作
+     * @param <D>        下游操作对应返回类型，也是Map中value的类型
+     * @param <A>        下游操作在进行中间操作时对应类型
+     * @return 分组结果
+     */
+    public <A, D> IntObjHashMap<D> groupByInt(ToIntFunction<? super T> classifier, Collector<? super T, A, D> downstream) {
+        return collect(Collective.groupingByInt(classifier, downstream));
+    }
+
+    /**
+     * 通过取值范围较小的int类型分组依据进行分组，分组过程中直接以数组下标定位，无需哈希
+     *
+     * @param classifier 分组依据
+     * @param min        分组依据的最小值(包含)
+     * @param max        分组依据的最大值(包含)
+     * @return 分组结果
+     * @throws IllegalArgumentException 分组依据超出范围时抛出
+     * @see Collective#groupingByInt(ToIntFunction, int, int, Collector)
+     */
+    public IntObjHashMap<List<T>> groupByInt(ToIntFunction<? super T> classifier, int min, int max) {
+        return collect(Collective.groupingByInt(classifier, min, max, Collective.toList()));
+    }
+
+    /**
+     * 通过枚举类型的分组依据进行分组，结果为以ordinal为下标的{@link EnumMap}
+     *
+     * @param classifier 分组依据
+     * @param keyType    枚举类型
+     * @param <K>        枚举类型
+     * @return 分组结果
+     * @see Collective#groupingByEnum(Function, Class, Collector)
+     */
+    public <K extends Enum<K>> EnumMap<K, List<T>> groupByEnum(Function<? super T, K> classifier, Class<K> keyType) {
+        return collect(Collective.groupingByEnum(classifier, keyType, Collective.toList()));
+    }
+
     /**
      * 将 现有元素 与 给定迭代器中对应位置的元素 使用 zipper 转换为新的元素，并返回新元素组成的流<br>
      * 新流的数量等于旧流元素的数量<br>
      * 使用 zipper 转换时, 如果对应位置上已经没有other元素，则other元素为null<br>
+     * 给定对象支持随机访问(如list、数组)时，并行流会与当前流一起拆分；否则成对顺序拉取<br>
      *
      * @param other  给定的迭代器
      * @param zipper 两个元素的合并器
@@ -1394,23 +1954,27 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      * @param <R>    合并后的结果对象类型
      * @return 合并后的结果对象的流
      */
+    @SuppressWarnings("unchecked")
     public <U, R> Steam<R> zip(Iterable<U> other,
                                BiFunction<? super T, ? super U, ? extends R> zipper) {
         Objects.requireNonNull(zipper);
-        // 给定对象迭代器
-        final Iterator<U> iterator = Opp.of(other).map(Iterable::iterator).orElseGet(Collections::emptyIterator);
-        Stream<T> resStream = this.stream;
-        if (isParallel()) {
-            resStream = toList().stream();
+        final Spliterator<T> left = stream.spliterator();
+        final Spliterator<R> zipped;
+        if (other instanceof Steam && ((Steam<U>) other).source != null) {
+            zipped = ZipSpliterator.zipRandomAccess(left, ((Steam<U>) other).source, zipper);
+        } else if (other instanceof List && other instanceof RandomAccess) {
+            // 可随机访问时按下标取值，与当前流一起精确拆分
+            zipped = ZipSpliterator.zipRandomAccess(left, (List<U>) other, zipper);
+        } else {
+            final Spliterator<U> right = Opp.of(other).map(Iterable::spliterator).orElseGet(Spliterators::emptySpliterator);
+            zipped = new ZipSpliterator<>(left, right, zipper);
         }
-        final Steam<R> newStream = of(resStream.map(e -> zipper.apply(e, iterator.hasNext() ? iterator.next() : null)));
-        newStream.parallel(isParallel());
-        return newStream;
+        return context.wrap(StreamSupport.stream(zipped, isParallel()).onClose(stream::close));
     }
 
     /**
-     * 过滤同类型集合中某一操作相同值的数据
-     * {@link Steam#filter(Function, Object)}
+     * 过滤同类型集合中某一操作相同值的数据，忽略空元素
+     * {@link Steam#filter(Function, Object)}，基于哈希实现，见{@link #semiJoin(Iterable, Function)}
      *
      * @param others 另一可迭代对象
      * @param mapper 操作
@@ -1419,12 +1983,288 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     public <R> Steam<T> filterIter(Function<? super T, ? extends R> mapper,
                                    Iterable<T> others) {
-        List<? extends R> otherList = Steam.of(others).map(mapper).toList();
-        return filter(a -> Objects.nonNull(a) && otherList.contains(mapper.apply(a)));
+        return nonNull().semiJoin(others, mapper);
+    }
+
+    /**
+     * 半连接，保留键在另一可迭代对象中存在的元素，类似sql的{@code where key in (...)}
+     * 这是一个无状态中间操作
+     *
+     * @param others    另一可迭代对象
+     * @param keyMapper 键
+     * @param <K>       键类型
+     * @return 键在另一可迭代对象中存在的元素组成的流
+     */
+    public <K> Steam<T> semiJoin(Iterable<? extends T> others, Function<? super T, ? extends K> keyMapper) {
+        return semiJoin(others, keyMapper, keyMapper);
+    }
+
+    /**
+     * 半连接，保留键在另一可迭代对象中存在的元素，类似sql的{@code where key in (...)}
+     * 对键构建哈希表，较小的一侧作为构建侧：当前流为支持随机访问的列表且元素更少时，用当前流构建，否则用另一可迭代对象构建
+     * 哈希表构建完成后只读，并行流直接并发探测
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param <U>            另一可迭代对象的元素类型
+     * @param <K>            键类型
+     * @return 键在另一可迭代对象中存在的元素组成的流
+     */
+    public <U, K> Steam<T> semiJoin(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                    Function<? super U, ? extends K> otherKeyMapper) {
+        return hashJoinFilter(others, keyMapper, otherKeyMapper, true);
+    }
+
+    /**
+     * 反连接，保留键在另一可迭代对象中不存在的元素，类似sql的{@code where key not in (...)}
+     * 这是一个无状态中间操作
+     *
+     * @param others    另一可迭代对象
+     * @param keyMapper 键
+     * @param <K>       键类型
+     * @return 键在另一可迭代对象中不存在的元素组成的流
+     */
+    public <K> Steam<T> antiJoin(Iterable<? extends T> others, Function<? super T, ? extends K> keyMapper) {
+        return antiJoin(others, keyMapper, keyMapper);
+    }
+
+    /**
+     * 反连接，保留键在另一可迭代对象中不存在的元素，类似sql的{@code where key not in (...)}
+     * 构建侧的选择与{@link #semiJoin(Iterable, Function, Function)}一致
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param <U>            另一可迭代对象的元素类型
+     * @param <K>            键类型
+     * @return 键在另一可迭代对象中不存在的元素组成的流
+     */
+    public <U, K> Steam<T> antiJoin(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                    Function<? super U, ? extends K> otherKeyMapper) {
+        return hashJoinFilter(others, keyMapper, otherKeyMapper, false);
+    }
+
+    /**
+     * 以long类型的键进行半连接，键不装箱
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param <U>            另一可迭代对象的元素类型
+     * @return 键在另一可迭代对象中存在的元素组成的流
+     */
+    public <U> Steam<T> semiJoinByLong(Iterable<U> others, ToLongFunction<? super T> keyMapper,
+                                       ToLongFunction<? super U> otherKeyMapper) {
+        return hashJoinFilterByLong(others, keyMapper, otherKeyMapper, true);
+    }
+
+    /**
+     * 以long类型的键进行反连接，键不装箱
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param <U>            另一可迭代对象的元素类型
+     * @return 键在另一可迭代对象中不存在的元素组成的流
+     */
+    public <U> Steam<T> antiJoinByLong(Iterable<U> others, ToLongFunction<? super T> keyMapper,
+                                       ToLongFunction<? super U> otherKeyMapper) {
+        return hashJoinFilterByLong(others, keyMapper, otherKeyMapper, false);
+    }
+
+    /**
+     * 以int类型的键进行半连接，键不装箱
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param <U>            另一可迭代对象的元素类型
+     * @return 键在另一可迭代对象中存在的元素组成的流
+     */
+    public <U> Steam<T> semiJoinByInt(Iterable<U> others, ToIntFunction<? super T> keyMapper,
+                                      ToIntFunction<? super U> otherKeyMapper) {
+        return hashJoinFilterByInt(others, keyMapper, otherKeyMapper, true);
+    }
+
+    /**
+     * 以int类型的键进行反连接，键不装箱
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param <U>            另一可迭代对象的元素类型
+     * @return 键在另一可迭代对象中不存在的元素组成的流
+     */
+    public <U> Steam<T> antiJoinByInt(Iterable<U> others, ToIntFunction<? super T> keyMapper,
+                                      ToIntFunction<? super U> otherKeyMapper) {
+        return hashJoinFilterByInt(others, keyMapper, otherKeyMapper, false);
+    }
+
+    /**
+     * 哈希内连接，将当前流中的元素与另一可迭代对象中键相同的每一个元素组合，类似sql的{@code inner join}
+     * 支持一对多，结果按当前流的顺序，同一元素的多个匹配按另一可迭代对象的顺序
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param combiner       组合
+     * @param <U>            另一可迭代对象的元素类型
+     * @param <K>            键类型
+     * @param <R>            组合后的元素类型
+     * @return 组合后的元素组成的流
+     * @see #leftJoin(Iterable, Function, Function, BiFunction)
+     * @see #fullJoin(Iterable, Function, Function, BiFunction)
+     */
+    public <U, K, R> Steam<R> join(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                   Function<? super U, ? extends K> otherKeyMapper,
+                                   BiFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(others, keyMapper, otherKeyMapper, combiner, Joins.Type.INNER);
+    }
+
+    /**
+     * 哈希左连接，在{@link #join(Iterable, Function, Function, BiFunction)}的基础上，当前流中未匹配的元素与null组合，类似sql的{@code left join}
+     * 这是一个无状态中间操作
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param combiner       组合，未匹配时第二个参数为null
+     * @param <U>            另一可迭代对象的元素类型
+     * @param <K>            键类型
+     * @param <R>            组合后的元素类型
+     * @return 组合后的元素组成的流
+     */
+    public <U, K, R> Steam<R> leftJoin(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                       Function<? super U, ? extends K> otherKeyMapper,
+                                       BiFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(others, keyMapper, otherKeyMapper, combiner, Joins.Type.LEFT);
+    }
+
+    /**
+     * 哈希全连接，在{@link #leftJoin(Iterable, Function, Function, BiFunction)}的基础上，
+     * 另一可迭代对象中未匹配的元素按其顺序追加在最后，与null组合，类似sql的{@code full join}
+     * 串行流时惰性执行，之后再转为并行流时也会先完成探测再追加未匹配的元素；
+     * 并行流需要在全部探测完成后才能确定未匹配的元素，因此会立即执行探测
+     *
+     * @param others         另一可迭代对象
+     * @param keyMapper      当前流元素的键
+     * @param otherKeyMapper 另一可迭代对象元素的键
+     * @param combiner       组合，未匹配时对应一侧的参数为null
+     * @param <U>            另一可迭代对象的元素类型
+     * @param <K>            键类型
+     * @param <R>            组合后的元素类型
+     * @return 组合后的元素组成的流
+     */
+    public <U, K, R> Steam<R> fullJoin(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                       Function<? super U, ? extends K> otherKeyMapper,
+                                       BiFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(others, keyMapper, otherKeyMapper, combiner, Joins.Type.FULL);
+    }
+
+    /**
+     * 哈希连接的实现
+     * 另一可迭代对象构建哈希表，当前流探测；当前流为支持随机访问的列表且元素更少时，先用当前流的键过滤，只把能匹配上的元素放入哈希表
+     * 哈希表按已知的元素个数预设容量，构建完成后只读，并行流直接并发探测
+     */
+    @SuppressWarnings("unchecked")
+    private <U, K, R> Steam<R> hashJoin(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                        Function<? super U, ? extends K> otherKeyMapper,
+                                        BiFunction<? super T, ? super U, ? extends R> combiner, Joins.Type type) {
+        Objects.requireNonNull(others);
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(otherKeyMapper);
+        Objects.requireNonNull(combiner);
+        final boolean parallel = isParallel();
+        final Collection<U> right = others instanceof Collection ? (Collection<U>) others : Steam.of(others).toList();
+        final Set<Object> sourceKeys = buildFromSource(right)
+                ? context.prepare(parallel, () -> Joins.keySet(source, keyMapper, parallel)) : null;
+        final Map<Object, Object> table = context.prepare(parallel, () -> Joins.table(right, otherKeyMapper, sourceKeys,
+                sourceKeys == null ? right.size() : sourceKeys.size(), parallel));
+        // 全连接时记录当前流中出现过的键，用于找出另一侧未匹配的元素；已用当前流的键过滤时无需再记录
+        final Set<Object> matchedKeys = type != Joins.Type.FULL ? null
+                : sourceKeys != null ? sourceKeys
+                : parallel ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+        final boolean recordMatched = matchedKeys != null && matchedKeys != sourceKeys;
+        final Steam<R> probed = idx((e, i, downstream) -> {
+            final Object key = Joins.mask(keyMapper.apply(e));
+            final Object bucket = table.get(key);
+            if (bucket == null) {
+                if (type != Joins.Type.INNER) {
+                    downstream.accept(combiner.apply(e, null));
+                }
+                return;
+            }
+            if (recordMatched) {
+                matchedKeys.add(key);
+            }
+            Joins.emit(e, bucket, combiner, downstream);
+        }, IdxSpliterator.MAP_CLEARED | IdxSpliterator.FILTER_CLEARED);
+        if (type != Joins.Type.FULL) {
+            return probed;
+        }
+        final Supplier<Stream<R>> unmatched = () -> right.stream()
+                .filter(u -> !matchedKeys.contains(Joins.mask(otherKeyMapper.apply(u))))
+                .map(u -> combiner.apply(null, u));
+        if (parallel) {
+            final List<R> head = probed.toList();
+            return context.wrap(Stream.concat(head.stream(), unmatched.get())).parallel();
+        }
+        // 未匹配的元素依赖探测的结果，即使之后转为并行流，也要在探测全部完成后才生成，因此不能用Stream.concat
+        return context.wrap(StreamSupport.stream(() -> Joins.followedBy(probed.spliterator(), unmatched),
+                Spliterator.ORDERED, false).onClose(probed::close));
+    }
+
+    /**
+     * 当前流为支持随机访问的列表且元素比另一可迭代对象少时，适合以当前流作为构建侧
+     */
+    private boolean buildFromSource(Iterable<?> others) {
+        return source != null && source.size() < Joins.sizeOf(others);
+    }
+
+    private <U, K> Steam<T> hashJoinFilter(Iterable<U> others, Function<? super T, ? extends K> keyMapper,
+                                           Function<? super U, ? extends K> otherKeyMapper, boolean matched) {
+        Objects.requireNonNull(others);
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(otherKeyMapper);
+        final Set<Object> keys = buildFromSource(others)
+                ? context.prepare(isParallel(), () -> Joins.matchedKeys(source, keyMapper, others, otherKeyMapper, isParallel()))
+                : context.prepare(isParallel(), () -> Joins.keySet(others, otherKeyMapper, isParallel()));
+        return filter(e -> keys.contains(Joins.mask(keyMapper.apply(e))) == matched);
+    }
+
+    private <U> Steam<T> hashJoinFilterByLong(Iterable<U> others, ToLongFunction<? super T> keyMapper,
+                                              ToLongFunction<? super U> otherKeyMapper, boolean matched) {
+        Objects.requireNonNull(others);
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(otherKeyMapper);
+        final LongHashSet keys = buildFromSource(others)
+                ? context.prepare(isParallel(), () -> Joins.matchedLongKeys(source, keyMapper, others, otherKeyMapper, isParallel()))
+                : context.prepare(isParallel(), () -> Joins.longKeySet(others, otherKeyMapper, isParallel()));
+        return filter(e -> keys.contains(keyMapper.applyAsLong(e)) == matched);
+    }
+
+    private <U> Steam<T> hashJoinFilterByInt(Iterable<U> others, ToIntFunction<? super T> keyMapper,
+                                             ToIntFunction<? super U> otherKeyMapper, boolean matched) {
+        Objects.requireNonNull(others);
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(otherKeyMapper);
+        final IntHashSet keys = buildFromSource(others)
+                ? context.prepare(isParallel(), () -> Joins.matchedIntKeys(source, keyMapper, others, otherKeyMapper, isParallel()))
+                : context.prepare(isParallel(), () -> Joins.intKeySet(others, otherKeyMapper, isParallel()));
+        return filter(e -> keys.contains(keyMapper.applyAsInt(e)) == matched);
     }
 
     /**
      * 类似js的<a href="https://developer.mozilla.org/zh-CN/docs/Web/JavaScript/Reference/Global_Objects/Array/splice">splice</a>函数
+     * 返回的是惰性视图，不会拷贝或移动元素；源为支持随机访问的列表时，也不会先收集为list
      *
      * @param start       起始下标
      * @param deleteCount 删除个数，正整数
@@ -1433,73 +2273,99 @@ public class Steam<T> implements Stream<T>, Iterable<T> {
      */
     @SuppressWarnings("unchecked")
     public Steam<T> splice(int start, int deleteCount, T... items) {
-        List<T> list = toList();
+        List<T> list = source != null ? source : toList();
         final int size = list.size();
         // 从后往前查找
         if (start < 0) {
-            start += size;
+            start = Math.max(start + size, 0);
         } else if (start >= size) {
             // 直接在尾部追加，不删除
             start = size;
             deleteCount = 0;
         }
         // 起始位置 加上 删除的数量 超过 数据长度，需要重新计算需要删除的数量
-        if (start + deleteCount > size) {
-            deleteCount = size - start;
-        }
-
-        // 新列表的长度
-        final int newSize = size - deleteCount + items.length;
-        List<T> resList = list;
-        // 新列表的长度 大于 旧列表，创建新列表
-        if (newSize > size) {
-            resList = new ArrayList<>(newSize);
-            resList.addAll(list);
-        }
-        // 需要删除的部分
-        if (deleteCount > 0) {
-            resList.subList(start, start + deleteCount).clear();
-        }
-        // 新增的部分
-        if (items.length > 0) {
-            resList.addAll(start, Arrays.asList(items));
-        }
-        return Steam.of(resList);
+        deleteCount = Math.max(Math.min(deleteCount, size - start), 0);
+        final T[] insert = items == null ? (T[]) new Object[0] : items;
+        List<T> view = ListViews.splice(list, start, deleteCount, insert);
+        return context.wrap(StreamSupport.stream(view.spliterator(), isParallel()).onClose(stream::close), view);
     }
 
     /**
-     * 按指定长度切分为双层流
+     * 按指定长度切分为双层流，切分是惰性的，不会先收集整个流，可用于无限流
+     * 源可精确拆分时，并行流会按批次边界拆分，除最后一批外每一批都是满的
      * <p>
-     * 形如：[1,2,3,4,5] -> [[1,2], [3,4], [5,6]]
+     * 形如：[1,2,3,4,5] -> [[1,2], [3,4], [5]]
      * </p>
      *
      * @param batchSize 指定长度, 正整数
      * @return 切好的流
      */
     public Steam<Steam<T>> split(final int batchSize) {
-        List<T> list = toList();
-        final int size = list.size();
-        // 指定长度 大于等于 列表长度
-        if (size <= batchSize) {
-            // 返回第一层只有单个元素的双层流，形如：[[1,2,3,4,5]]
-            return Steam.<Steam<T>>of(of(list, isParallel()));
-        }
-        return Steam.iterate(0, i -> i < size, i -> i + batchSize)
-                .map(skip -> of(list.subList(skip, Math.min(size, skip + batchSize)), isParallel()))
-                .parallel(isParallel());
+        final boolean parallel = isParallel();
+        return splitList(batchSize).map(list -> context.wrap(StreamSupport.stream(list.spliterator(), parallel), list));
     }
 
     /**
-     * 按指定长度切分为元素为list的流
+     * 按指定长度切分为元素为list的流，切分是惰性的，不会先收集整个流，可用于无限流
+     * 每一批都是新的ArrayList，可以修改，与源互不影响；源为支持随机访问的列表时按下标直接定位每一批，交出时才拷贝
      * <p>
-     * 形如：[1,2,3,4,5] -> [[1,2], [3,4], [5,6]]
+     * 形如：[1,2,3,4,5] -> [[1,2], [3,4], [5]]
      * </p>
      *
      * @param batchSize 指定长度, 正整数
      * @return 切好的流
      */
     public Steam<List<T>> splitList(final int batchSize) {
-        return split(batchSize).map(Steam::toList);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (source != null) {
+            final List<T> list = source;
+            final int size = list.size();
+            Stream<List<T>> batches = IntStream.range(0, (int) ((size + (long) batchSize - 1) / batchSize))
+                    .mapToObj(i -> new ArrayList<>(list.subList(i * batchSize, (int) Math.min(size, (long) i * batchSize + batchSize))));
+            return context.wrap(batches).parallel(isParallel()).onClose(stream::close);
+        }
+        return context.wrap(StreamSupport.stream(new BatchSpliterator<>(stream.spliterator(), batchSize), isParallel()).onClose(stream::close));
+    }
+
+    /**
+     * 窗口操作，每隔step个元素开始一个长度为size的窗口，只保留完整的窗口，惰性拉取，可用于无限流
+     * step小于size时为滑动窗口(如移动平均)，等于size时为滚动窗口，大于size时窗口之间的元素会被跳过
+     * 源为支持随机访问的列表时，每个窗口都是源列表的子列表视图，不拷贝元素；并行流拆分时边界处的窗口不会丢失或重复
+     * <p>
+     * 形如：window(3, 1) [1,2,3,4,5] -> [[1,2,3], [2,3,4], [3,4,5]]
+     * </p>
+     *
+     * @param size 窗口长度，正整数
+     * @param step 步长，正整数
+     * @return 窗口组成的流
+     */
+    public Steam<List<T>> window(final int size, final int step) {
+        return window(size, step, false);
+    }
+
+    /**
+     * 窗口操作，同{@link #window(int, int)}
+     * reuse为true时，每次交出的都是同一个环形缓冲区的只读视图，不为每个窗口分配list，
+     * 视图的内容在交出下一个窗口时就会改变，只能在下游操作中立即消费(如求和、求平均)，不能保留或收集
+     *
+     * @param size  窗口长度，正整数
+     * @param step  步长，正整数
+     * @param reuse 是否复用窗口视图
+     * @return 窗口组成的流
+     */
+    public Steam<List<T>> window(final int size, final int step, final boolean reuse) {
+        if (size <= 0 || step <= 0) {
+            throw new IllegalArgumentException("size and step must be positive: " + size + ", " + step);
+        }
+        if (source != null) {
+            final List<T> list = source;
+            final int count = list.size() < size ? 0 : (list.size() - size) / step + 1;
+            Stream<List<T>> windows = IntStream.range(0, count).mapToObj(i -> list.subList(i * step, i * step + size));
+            return context.wrap(windows).parallel(isParallel()).onClose(stream::close);
+        }
+        return context.wrap(StreamSupport.stream(new WindowSpliterator<>(stream.spliterator(), size, step, reuse), isParallel()).onClose(stream::close));
     }
 
     public interface Builder<T> extends Consumer<T> {
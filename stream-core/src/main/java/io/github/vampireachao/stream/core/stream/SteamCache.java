@@ -0,0 +1,247 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+/**
+ * 可重复消费的流缓存，由{@link Steam#cache()}创建
+ * 缓存是惰性填充的：只有消费到尚未计算的元素时，才会从源流拉取，已计算的部分由所有消费者共享，源流的每个元素只计算一次
+ * 多个消费者(包括并行流)可以同时消费，读取已计算的元素无需加锁，只有从源流拉取时才加锁
+ * 元素按块存放，扩容时不拷贝元素
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ */
+public class SteamCache<T> implements Iterable<T>, AutoCloseable {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int BATCH_UNIT = 1 << 10;
+
+    private final Object lock = new Object();
+    private final Spliterator<T> source;
+    private final int maxSize;
+    private final SteamContext context;
+    private final boolean parallel;
+    private final Runnable closeHandler;
+    private Object[][] chunks = new Object[8][];
+    /**
+     * 已计算的元素个数，元素写入后才会增加，读取到该值后即可无锁读取之前的元素
+     */
+    private volatile int count;
+    private volatile boolean complete;
+
+    SteamCache(Spliterator<T> source, int maxSize, SteamContext context, boolean parallel, Runnable closeHandler) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        }
+        this.source = source;
+        this.maxSize = maxSize;
+        this.context = context;
+        this.parallel = parallel;
+        this.closeHandler = closeHandler;
+    }
+
+    /**
+     * 获取一个新的流，每次调用都可以从头消费，并行状态与创建缓存的流一致
+     *
+     * @return 流
+     */
+    public Steam<T> steam() {
+        return context.wrap(StreamSupport.stream(spliterator(), parallel));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return available(index);
+            }
+
+            @Override
+            public T next() {
+                if (!available(index)) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new CacheSpliterator(0, complete ? count : -1);
+    }
+
+    /**
+     * 已计算的元素个数
+     *
+     * @return 已计算的元素个数
+     */
+    public int cachedSize() {
+        return count;
+    }
+
+    /**
+     * 源流是否已全部计算
+     *
+     * @return 是否已全部计算
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * 关闭源流，之后不能再从源流拉取元素，已计算的元素仍可消费
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            complete = true;
+        }
+        closeHandler.run();
+    }
+
+    /**
+     * 下标对应的元素是否存在，尚未计算时从源流拉取
+     */
+    private boolean available(int index) {
+        if (index < count) {
+            return true;
+        }
+        if (complete) {
+            return false;
+        }
+        fill(index + 1);
+        return index < count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int index) {
+        Object[][] cs = chunks;
+        return (T) cs[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * 从源流拉取元素，直到已计算的元素个数达到target或源流耗尽
+     */
+    private void fill(long target) {
+        synchronized (lock) {
+            while (count < target && !complete) {
+                if (!source.tryAdvance(this::append)) {
+                    complete = true;
+                }
+            }
+        }
+    }
+
+    private void append(T t) {
+        int index = count;
+        if (index >= maxSize) {
+            throw new IllegalStateException("cache size exceeds the limit of " + maxSize);
+        }
+        int chunk = index >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            Object[][] grown = new Object[chunk << 1][];
+            System.arraycopy(chunks, 0, grown, 0, chunk);
+            chunks = grown;
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new Object[CHUNK_SIZE];
+        }
+        chunks[chunk][index & CHUNK_MASK] = t;
+        // 写入元素后再发布个数
+        count = index + 1;
+    }
+
+    /**
+     * 缓存的spliterator，已全部计算时按下标二分拆分；
+     * 否则拆分出已计算的部分，已计算的元素不足时先拉取一批
+     */
+    private final class CacheSpliterator implements Spliterator<T> {
+        private int index;
+        /**
+         * 结束下标(不包含)，-1表示直到源流耗尽
+         */
+        private int fence;
+        private int batch;
+
+        private CacheSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (fence >= 0 ? index >= fence : !available(index)) {
+                return false;
+            }
+            action.accept(get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            while (fence >= 0 ? index < fence : available(index)) {
+                action.accept(get(index++));
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (fence < 0) {
+                if (count - index < 2 && !complete) {
+                    batch = Math.min(batch + BATCH_UNIT, Integer.MAX_VALUE - index);
+                    fill((long) index + batch);
+                }
+                if (complete) {
+                    fence = count;
+                } else {
+                    // 拆分出已计算的部分，剩余部分继续按需拉取
+                    int computed = count;
+                    if (computed - index < 2) {
+                        return null;
+                    }
+                    CacheSpliterator prefix = new CacheSpliterator(index, computed);
+                    index = computed;
+                    return prefix;
+                }
+            }
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            CacheSpliterator prefix = new CacheSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (fence >= 0) {
+                return fence - index;
+            }
+            return complete ? count - index : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return fence >= 0 ? ORDERED | SIZED | SUBSIZED : ORDERED;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SteamCache{cachedSize=" + count + ", complete=" + complete + '}';
+    }
+}
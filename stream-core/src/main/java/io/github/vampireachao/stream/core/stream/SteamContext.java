@@ -0,0 +1,278 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * 流的执行上下文，由中间操作向后传递，终端操作通过它执行
+ * 指定了{@link ForkJoinPool}时，并行流的终端操作会提交到该线程池中执行，
+ * 由于并行流的任务会拆分到当前工作线程所在的线程池，整个流水线都会在该线程池中执行，不会占用公共线程池
+ * 开启剖析时，中间操作产生的流会交给{@link Profiler}记录，终端操作完成后汇总剖析结果
+ * JFR正在录制时，终端操作会记录为{@link TerminalEvent}
+ * 异步映射等需要在终端操作结束后释放资源的中间操作，会通过{@link #withCompletion(Runnable)}为后续的流登记收尾操作
+ *
+ * @author VampireAchao
+ */
+final class SteamContext {
+
+    /**
+     * 默认上下文，使用公共线程池
+     */
+    static final SteamContext DEFAULT = new SteamContext(null);
+
+    private final ForkJoinPool pool;
+    private final PoolStats stats;
+    private final Profiler profiler;
+    /**
+     * 终端操作结束后执行的收尾操作，可能为null
+     */
+    private final Runnable completion;
+    /**
+     * 是否调用过{@link Steam#unordered()}，放弃顺序的并行流收集为map、set时才会使用并发收集
+     */
+    private final boolean unordered;
+
+    SteamContext(ForkJoinPool pool) {
+        this(pool, pool == null ? null : new PoolStats(pool), null, null, false);
+    }
+
+    private SteamContext(ForkJoinPool pool, PoolStats stats, Profiler profiler, Runnable completion, boolean unordered) {
+        this.pool = pool;
+        this.stats = stats;
+        this.profiler = profiler;
+        this.completion = completion;
+        this.unordered = unordered;
+    }
+
+    /**
+     * 使用指定线程池的上下文，保留剖析设置
+     *
+     * @param pool 线程池
+     * @return 新的上下文
+     */
+    SteamContext withPool(ForkJoinPool pool) {
+        return new SteamContext(pool, new PoolStats(pool), profiler, completion, unordered);
+    }
+
+    /**
+     * 开启剖析的上下文，保留线程池设置
+     *
+     * @param profiler 剖析记录器
+     * @return 新的上下文
+     */
+    SteamContext withProfiler(Profiler profiler) {
+        return new SteamContext(pool, stats, profiler, completion, unordered);
+    }
+
+    /**
+     * 去掉收尾操作的上下文，用于会被多次消费的流(如{@link SteamCache})，此时收尾操作只能在关闭时执行
+     *
+     * @return 新的上下文
+     */
+    SteamContext withoutCompletion() {
+        return completion == null ? this : new SteamContext(pool, stats, profiler, null, unordered);
+    }
+
+    /**
+     * 显式放弃顺序的上下文
+     *
+     * @return 新的上下文
+     */
+    SteamContext withUnordered() {
+        return unordered ? this : new SteamContext(pool, stats, profiler, completion, true);
+    }
+
+    boolean isUnordered() {
+        return unordered;
+    }
+
+    /**
+     * 登记收尾操作的上下文，终端操作结束(包括短路操作提前结束、抛出异常)后执行，已有的收尾操作先执行
+     *
+     * @param action 收尾操作
+     * @return 新的上下文
+     */
+    SteamContext withCompletion(Runnable action) {
+        final Runnable previous = completion;
+        return new SteamContext(pool, stats, profiler, previous == null ? action : () -> {
+            try {
+                previous.run();
+            } finally {
+                action.run();
+            }
+        }, unordered);
+    }
+
+    /**
+     * 描述流水线及当前流的spliterator特征值
+     *
+     * @param parallel    流是否并行
+     * @param spliterator 当前流的spliterator
+     * @return 描述
+     */
+    String explain(boolean parallel, Spliterator<?> spliterator) {
+        StringBuilder builder = new StringBuilder("Steam{parallel=").append(parallel)
+                .append(", characteristics=").append(Profiler.characteristics(spliterator.characteristics()))
+                .append(", estimatedSize=").append(spliterator.estimateSize());
+        if (pool != null) {
+            builder.append(", pool=").append(pool);
+        }
+        if (profiler == null) {
+            return builder.append('}').toString();
+        }
+        return builder.append(", profile=").append(profiler.getName()).append('}')
+                .append(System.lineSeparator()).append(profiler.explain()).toString();
+    }
+
+    PoolStats stats() {
+        return stats;
+    }
+
+    <R> Steam<R> wrap(Stream<R> stream) {
+        return wrap(stream, null);
+    }
+
+    <R> Steam<R> wrap(Stream<R> stream, List<R> source) {
+        Steam<R> steam = new Steam<>(profiler == null ? stream : profiler.stage(stream), source);
+        steam.context = this;
+        return steam;
+    }
+
+    IntSteam wrap(IntStream stream) {
+        if (profiler != null) {
+            profiler.stage(stream.isParallel());
+        }
+        IntSteam steam = new IntSteam(stream);
+        steam.context = this;
+        return steam;
+    }
+
+    LongSteam wrap(LongStream stream) {
+        if (profiler != null) {
+            profiler.stage(stream.isParallel());
+        }
+        LongSteam steam = new LongSteam(stream);
+        steam.context = this;
+        return steam;
+    }
+
+    DoubleSteam wrap(DoubleStream stream) {
+        if (profiler != null) {
+            profiler.stage(stream.isParallel());
+        }
+        DoubleSteam steam = new DoubleSteam(stream);
+        steam.context = this;
+        return steam;
+    }
+
+    /**
+     * 执行终端操作
+     *
+     * @param parallel 流是否并行
+     * @param terminal 终端操作
+     * @param <R>      结果类型
+     * @return 结果
+     */
+    <R> R evaluate(boolean parallel, Supplier<R> terminal) {
+        if (completion == null) {
+            return prepare(parallel, terminal);
+        }
+        try {
+            return prepare(parallel, terminal);
+        } finally {
+            completion.run();
+        }
+    }
+
+    /**
+     * 执行中间操作所需的计算(如连接时构建哈希表)，与终端操作一样记录剖析与JFR事件，但不会执行收尾操作
+     *
+     * @param parallel    流是否并行
+     * @param computation 计算
+     * @param <R>         结果类型
+     * @return 结果
+     */
+    <R> R prepare(boolean parallel, Supplier<R> computation) {
+        if (SteamEvents.isTerminalEnabled()) {
+            return SteamEvents.terminal(parallel, () -> profile(parallel, computation));
+        }
+        return profile(parallel, computation);
+    }
+
+    private <R> R profile(boolean parallel, Supplier<R> terminal) {
+        if (profiler != null) {
+            return profiler.terminal(parallel, () -> submitIfNeeded(parallel, terminal));
+        }
+        return submitIfNeeded(parallel, terminal);
+    }
+
+    /**
+     * 需要时提交到指定线程池中执行，不记录剖析与JFR事件
+     *
+     * @param parallel 流是否并行
+     * @param terminal 操作
+     * @param <R>      结果类型
+     * @return 结果
+     */
+    <R> R submitIfNeeded(boolean parallel, Supplier<R> terminal) {
+        if (!submit(parallel)) {
+            return terminal.get();
+        }
+        long steals = pool.getStealCount();
+        long start = System.nanoTime();
+        try {
+            return pool.submit((Callable<R>) terminal::get).join();
+        } finally {
+            stats.record(pool.getStealCount() - steals, System.nanoTime() - start);
+        }
+    }
+
+    void execute(boolean parallel, Runnable terminal) {
+        evaluate(parallel, () -> {
+            terminal.run();
+            return null;
+        });
+    }
+
+    int evaluateAsInt(boolean parallel, IntSupplier terminal) {
+        return intercept(parallel) ? evaluate(parallel, terminal::getAsInt) : terminal.getAsInt();
+    }
+
+    long evaluateAsLong(boolean parallel, LongSupplier terminal) {
+        return intercept(parallel) ? evaluate(parallel, terminal::getAsLong) : terminal.getAsLong();
+    }
+
+    double evaluateAsDouble(boolean parallel, DoubleSupplier terminal) {
+        return intercept(parallel) ? evaluate(parallel, terminal::getAsDouble) : terminal.getAsDouble();
+    }
+
+    boolean evaluateAsBoolean(boolean parallel, BooleanSupplier terminal) {
+        return intercept(parallel) ? evaluate(parallel, terminal::getAsBoolean) : terminal.getAsBoolean();
+    }
+
+    /**
+     * 基本类型结果的终端操作是否需要经过{@link #evaluate(boolean, Supplier)}，不需要时避免装箱
+     */
+    private boolean intercept(boolean parallel) {
+        return submit(parallel) || profiler != null || completion != null || SteamEvents.isTerminalEnabled();
+    }
+
+    /**
+     * 是否需要提交到指定线程池：指定了线程池、流是并行的，并且当前线程不在该线程池中
+     */
+    private boolean submit(boolean parallel) {
+        return pool != null && parallel && ForkJoinTask.getPool() != pool;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.vampireachao.stream.core.stream;
+
+import jdk.jfr.FlightRecorder;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 终端操作JFR事件的桥接，运行环境支持JFR(JDK 8u262及以上、JDK 11及以上)时才会加载{@link TerminalEvent}，
+ * 否则所有方法都不做任何事；JFR未初始化时不会加载事件类，未开始录制时只有一次判断的开销
+ *
+ * @author VampireAchao
+ */
+final class SteamEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+    /**
+     * 终端操作的嵌套深度，终端操作内部再执行终端操作时只记录最外层
+     */
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private SteamEvents() {
+        /* Do not new me! */
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder", false, SteamEvents.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * 终端操作事件是否正在录制
+     *
+     * @return 是否正在录制
+     */
+    static boolean isTerminalEnabled() {
+        // 加载事件类会注册事件类型并初始化JFR，因此先确认已有录制器，未使用JFR时只读取一个静态字段
+        return AVAILABLE && FlightRecorder.isInitialized() && Jfr.PROBE.isEnabled();
+    }
+
+    /**
+     * 执行终端操作，并记录为JFR事件
+     *
+     * @param parallel 流是否并行
+     * @param terminal 终端操作
+     * @param <R>      结果类型
+     * @return 结果
+     */
+    static <R> R terminal(boolean parallel, Supplier<R> terminal) {
+        int[] depth = DEPTH.get();
+        if (depth[0]++ > 0) {
+            try {
+                return terminal.get();
+            } finally {
+                depth[0]--;
+            }
+        }
+        try {
+            return Jfr.terminal(parallel, terminal);
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    private static long elementCount(String operation, Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result != null && result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        if ("count".equals(operation) && result instanceof Long) {
+            return (Long) result;
+        }
+        return -1;
+    }
+
+    /**
+     * 所有用到JFR的代码都在这里，只在运行环境支持JFR时加载
+     */
+    private static final class Jfr {
+        /**
+         * 只用于判断是否正在录制，从不提交
+         */
+        private static final TerminalEvent PROBE = new TerminalEvent();
+
+        private static <R> R terminal(boolean parallel, Supplier<R> terminal) {
+            TerminalEvent event = new TerminalEvent();
+            event.begin();
+            R result = null;
+            try {
+                result = terminal.get();
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    // 遍历调用栈的开销较大，只在确实提交事件时才获取操作名，此时仍在终端操作的调用栈中
+                    String operation = Profiler.operation();
+                    event.operation = operation;
+                    event.elementCount = elementCount(operation, result);
+                    event.parallel = parallel;
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 通过{@link Steam#profile(String)}开启剖析的流，在终端操作完成后产生的剖析结果
+ * 按顺序记录流水线中每个中间操作产生的元素个数、耗时，以及是否并行、是否有确定大小、是否有序
+ * 耗时是该操作自身的耗时：已扣除上游操作与下游操作的耗时，并行时为各线程耗时之和
+ *
+ * @author VampireAchao
+ * @see Steam#profile(String, Consumer)
+ */
+public class SteamProfile {
+
+    private static final Logger LOGGER = Logger.getLogger(SteamProfile.class.getName());
+
+    private static volatile Consumer<? super SteamProfile> defaultListener = profile -> LOGGER.log(Level.FINE, profile::toString);
+
+    private final String name;
+    private final String terminal;
+    private final boolean parallel;
+    private final long elapsedNanos;
+    private final List<Stage> stages;
+
+    SteamProfile(String name, String terminal, boolean parallel, long elapsedNanos, List<Stage> stages) {
+        this.name = name;
+        this.terminal = terminal;
+        this.parallel = parallel;
+        this.elapsedNanos = elapsedNanos;
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    /**
+     * 设置{@link Steam#profile(String)}使用的默认监听器，默认以{@link Level#FINE}级别写入名为本类全限定名的{@link Logger}，
+     * 需要打印到控制台时可设置为{@code System.out::println}
+     *
+     * @param listener 监听器
+     */
+    public static void setDefaultListener(Consumer<? super SteamProfile> listener) {
+        defaultListener = Objects.requireNonNull(listener);
+    }
+
+    static Consumer<? super SteamProfile> getDefaultListener() {
+        return defaultListener;
+    }
+
+    /**
+     * 开启剖析时指定的名称
+     *
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 终端操作的名称
+     *
+     * @return 终端操作
+     */
+    public String getTerminal() {
+        return terminal;
+    }
+
+    /**
+     * 终端操作执行时流是否并行
+     *
+     * @return 是否并行
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * 终端操作的总耗时
+     *
+     * @param unit 时间单位
+     * @return 总耗时
+     */
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 按流水线顺序排列的各个操作，第一个为开启剖析时的源
+     *
+     * @return 操作
+     */
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SteamProfile{name=").append(name)
+                .append(", terminal=").append(terminal)
+                .append(", parallel=").append(parallel)
+                .append(", elapsedMicros=").append(getElapsed(TimeUnit.MICROSECONDS))
+                .append('}');
+        for (Stage stage : stages) {
+            builder.append(System.lineSeparator()).append("  ").append(stage);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 流水线中的一个操作
+     */
+    public static class Stage {
+
+        private final String name;
+        private final long elementsIn;
+        private final long elementsOut;
+        private final long elapsedNanos;
+        private final int characteristics;
+        private final boolean parallel;
+
+        Stage(String name, long elementsIn, long elementsOut, long elapsedNanos, int characteristics, boolean parallel) {
+            this.name = name;
+            this.elementsIn = elementsIn;
+            this.elementsOut = elementsOut;
+            this.elapsedNanos = elapsedNanos;
+            this.characteristics = characteristics;
+            this.parallel = parallel;
+        }
+
+        /**
+         * 操作名称，即创建该操作的方法名
+         *
+         * @return 操作名称
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 进入该操作的元素个数，即上一个操作产生的元素个数，未统计时为-1
+         *
+         * @return 进入的元素个数
+         */
+        public long getElementsIn() {
+            return elementsIn;
+        }
+
+        /**
+         * 该操作产生的元素个数，未统计时为-1(例如转为{@link IntSteam}等基本类型流的操作)
+         *
+         * @return 产生的元素个数
+         */
+        public long getElementsOut() {
+            return elementsOut;
+        }
+
+        /**
+         * 该操作自身的耗时
+         *
+         * @param unit 时间单位
+         * @return 耗时
+         */
+        public long getElapsed(TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * 该操作spliterator的特征值，未统计时为0
+         *
+         * @return 特征值
+         * @see Spliterator#characteristics()
+         */
+        public int getCharacteristics() {
+            return characteristics;
+        }
+
+        /**
+         * 是否并行
+         *
+         * @return 是否并行
+         */
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        /**
+         * 是否有确定大小
+         *
+         * @return 是否有确定大小
+         */
+        public boolean isSized() {
+            return (characteristics & Spliterator.SIZED) != 0;
+        }
+
+        /**
+         * 是否有序
+         *
+         * @return 是否有序
+         */
+        public boolean isOrdered() {
+            return (characteristics & Spliterator.ORDERED) != 0;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{in=" + elementsIn +
+                    ", out=" + elementsOut +
+                    ", micros=" + getElapsed(TimeUnit.MICROSECONDS) +
+                    ", parallel=" + parallel +
+                    ", characteristics=" + Profiler.characteristics(characteristics) +
+                    '}';
+        }
+    }
+}
@@ -3,7 +3,6 @@ package io.github.vampireachao.stream.core.stream;
 import io.github.vampireachao.stream.core.lambda.function.SerBiCons;
 
 import java.util.Collection;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -19,10 +18,22 @@ public class StreamHelper {
         /* Do not new me! */
     }
 
+    /**
+     * 创建一个对每个元素及其下标执行peek操作的流
+     * 下标由携带下标的spliterator提供，集合可精确拆分(如list)时，并行流也能拿到元素的真实下标
+     *
+     * @param list       集合
+     * @param isParallel 是否并行
+     * @param peeks      peek操作
+     * @param <E>        元素类型
+     * @return 流
+     */
     @SafeVarargs
     public static <E> Stream<E> peekStream(Collection<E> list, boolean isParallel, SerBiCons<E, Integer>... peeks) {
-        AtomicInteger index = new AtomicInteger(-1);
         SerBiCons<E, Integer> peekChain = SerBiCons.multi(peeks);
-        return StreamSupport.stream(list.spliterator(), isParallel).peek(v -> peekChain.accept(v, isParallel ? index.get() : index.incrementAndGet()));
+        return StreamSupport.stream(new IdxSpliterator<E, E>(list.spliterator(), (e, i, downstream) -> {
+            peekChain.accept(e, i);
+            downstream.accept(e);
+        }, 0), isParallel);
     }
 }
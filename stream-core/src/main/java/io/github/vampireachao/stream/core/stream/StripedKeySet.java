@@ -0,0 +1,71 @@
+package io.github.vampireachao.stream.core.stream;
+
+import io.github.vampireachao.stream.core.collection.IntHashSet;
+import io.github.vampireachao.stream.core.collection.LongHashSet;
+
+/**
+ * 分段加锁的数值集合，用于并行流按数值去重
+ * 键按哈希值分散到多个不装箱的开放寻址集合中，每个集合各自加锁，线程之间只在同一分段上竞争
+ *
+ * @author VampireAchao
+ */
+final class StripedKeySet {
+
+    private final Object[] stripes;
+    private final int mask;
+
+    private StripedKeySet(Object[] stripes) {
+        this.stripes = stripes;
+        this.mask = stripes.length - 1;
+    }
+
+    /**
+     * 创建long集合，分段个数为并行度的4倍向上取2的幂次
+     *
+     * @return 集合
+     */
+    static StripedKeySet ofLong() {
+        Object[] stripes = new Object[stripeCount()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new LongHashSet();
+        }
+        return new StripedKeySet(stripes);
+    }
+
+    /**
+     * 创建int集合
+     *
+     * @return 集合
+     */
+    static StripedKeySet ofInt() {
+        Object[] stripes = new Object[stripeCount()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new IntHashSet();
+        }
+        return new StripedKeySet(stripes);
+    }
+
+    private static int stripeCount() {
+        int parallelism = Runtime.getRuntime().availableProcessors() << 2;
+        return Integer.highestOneBit(Math.max(parallelism - 1, 1)) << 1;
+    }
+
+    boolean add(long key) {
+        LongHashSet set = (LongHashSet) stripes[stripe(Long.hashCode(key))];
+        synchronized (set) {
+            return set.add(key);
+        }
+    }
+
+    boolean add(int key) {
+        IntHashSet set = (IntHashSet) stripes[stripe(key)];
+        synchronized (set) {
+            return set.add(key);
+        }
+    }
+
+    private int stripe(int hash) {
+        // 取乘法哈希的较高位作为分段，连续的键也能均匀分散
+        return (hash * 0x9E3779B9 >>> 16) & mask;
+    }
+}
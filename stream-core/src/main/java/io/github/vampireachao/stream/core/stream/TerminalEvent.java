@@ -0,0 +1,32 @@
+package io.github.vampireachao.stream.core.stream;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * 流终端操作的JFR事件，只通过{@link SteamEvents}使用，运行环境没有JFR时不会加载该类
+ * 默认只记录耗时不少于1ms的终端操作，避免大量细小的终端操作充斥录制，可在录制设置中调整阈值
+ *
+ * @author VampireAchao
+ */
+@Name("io.github.vampireachao.stream.Terminal")
+@Label("Steam Terminal Operation")
+@Category("Stream Query")
+@Description("A terminal operation of a Steam pipeline")
+@Threshold("1 ms")
+final class TerminalEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Element Count")
+    @Description("Size of the result when it is a collection, map or array, or the result of count; -1 otherwise")
+    long elementCount;
+
+    @Label("Parallel")
+    boolean parallel;
+}
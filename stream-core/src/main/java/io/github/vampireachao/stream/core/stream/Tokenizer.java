@@ -0,0 +1,292 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.nio.CharBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按正则拆分字符序列的spliterator，拆分结果与{@link String#split(String)}一致，但不拷贝原字符序列：
+ * 惰性查找分隔符，交出的是原字符序列的只读视图({@link CharBuffer})，需要字符串时再自行调用toString
+ * 分隔符为单个字符或不含正则元字符的字面量时直接扫描，无需正则；其余情况使用缓存的{@link Pattern}
+ *
+ * @author VampireAchao
+ */
+final class Tokenizer implements Spliterator<CharSequence> {
+
+    private static final String REGEX_META = ".$|()[{^?*+\\";
+    private static final int MAX_CACHED_PATTERNS = 256;
+    private static final Map<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+    private static final CharSequence EMPTY = CharBuffer.wrap("");
+
+    private final CharSequence input;
+    private final int length;
+    /**
+     * 单个字符分隔符，不使用时为-1
+     */
+    private final int delimiter;
+    /**
+     * 字面量分隔符，不使用时为null
+     */
+    private final String literal;
+    /**
+     * 正则分隔符，不使用时为null
+     */
+    private final Matcher matcher;
+    /**
+     * 下一个片段的起点，大于length表示已拆分完毕
+     */
+    private int position;
+    private int matchEnd;
+    /**
+     * 暂未交出的空片段个数，只有后面还有非空片段时才交出，与{@link String#split(String)}去掉末尾空片段的行为一致
+     */
+    private int pendingEmpty;
+    private CharSequence held;
+
+    private Tokenizer(CharSequence input, int delimiter, String literal, Matcher matcher) {
+        this.input = input;
+        this.length = input.length();
+        this.delimiter = delimiter;
+        this.literal = literal;
+        this.matcher = matcher;
+    }
+
+    /**
+     * 创建拆分器
+     *
+     * @param input 字符序列
+     * @param regex 正则
+     * @return 拆分器
+     */
+    static Tokenizer of(CharSequence input, String regex) {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(regex);
+        int ch = singleChar(regex);
+        if (ch >= 0) {
+            return new Tokenizer(input, ch, null, null);
+        }
+        if (isLiteral(regex)) {
+            return new Tokenizer(input, -1, regex, null);
+        }
+        return new Tokenizer(input, -1, null, pattern(regex).matcher(input));
+    }
+
+    /**
+     * 与{@link String#split(String)}的快速路径相同：单个非元字符，或反斜杠转义的单个非字母数字字符
+     *
+     * @return 分隔符，不满足时返回-1
+     */
+    private static int singleChar(String regex) {
+        char ch;
+        if (regex.length() == 1 && REGEX_META.indexOf(ch = regex.charAt(0)) == -1
+                || regex.length() == 2 && regex.charAt(0) == '\\'
+                && ((ch = regex.charAt(1)) - '0' | '9' - ch) < 0
+                && (ch - 'a' | 'z' - ch) < 0
+                && (ch - 'A' | 'Z' - ch) < 0) {
+            return Character.isSurrogate(ch) ? -1 : ch;
+        }
+        return -1;
+    }
+
+    private static boolean isLiteral(String regex) {
+        if (regex.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_META.indexOf(regex.charAt(i)) >= 0 || Character.isSurrogate(regex.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取编译好的正则，缓存过多时清空，避免动态拼接的正则撑满内存
+     *
+     * @param regex 正则
+     * @return 编译好的正则
+     */
+    static Pattern pattern(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern == null) {
+            if (PATTERNS.size() >= MAX_CACHED_PATTERNS) {
+                PATTERNS.clear();
+            }
+            pattern = PATTERNS.computeIfAbsent(regex, Pattern::compile);
+        }
+        return pattern;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super CharSequence> action) {
+        while (true) {
+            if (held != null) {
+                if (pendingEmpty > 0) {
+                    pendingEmpty--;
+                    action.accept(EMPTY);
+                    return true;
+                }
+                action.accept(held);
+                held = null;
+                return true;
+            }
+            if (position > length) {
+                return false;
+            }
+            CharSequence token = nextToken();
+            if (token.length() == 0) {
+                pendingEmpty++;
+            } else {
+                held = token;
+            }
+        }
+    }
+
+    /**
+     * 查找下一个片段，调用前需保证尚未拆分完毕
+     */
+    private CharSequence nextToken() {
+        int start = position;
+        int end = find(start);
+        if (end < 0) {
+            position = length + 1;
+            return CharBuffer.wrap(input, start, length);
+        }
+        position = matchEnd;
+        return CharBuffer.wrap(input, start, end);
+    }
+
+    /**
+     * 从from开始查找分隔符
+     *
+     * @return 分隔符的起点，并设置{@link #matchEnd}，找不到时返回-1
+     */
+    private int find(int from) {
+        if (delimiter >= 0) {
+            for (int i = from; i < length; i++) {
+                if (input.charAt(i) == delimiter) {
+                    matchEnd = i + 1;
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (literal != null) {
+            int n = literal.length();
+            char first = literal.charAt(0);
+            for (int i = from, max = length - n; i <= max; i++) {
+                if (input.charAt(i) == first && regionMatches(i + 1, n)) {
+                    matchEnd = i + n;
+                    return i;
+                }
+            }
+            return -1;
+        }
+        while (matcher.find()) {
+            // 与String#split一致：开头的零宽匹配不产生空片段
+            if (matcher.end() == 0) {
+                continue;
+            }
+            matchEnd = matcher.end();
+            return matcher.start();
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(int offset, int n) {
+        for (int j = 1; j < n; j++) {
+            if (input.charAt(offset + j - 1) != literal.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将十进制数字序列解析为long，忽略首尾空白，不创建字符串
+     *
+     * @param s 字符序列
+     * @return long值
+     * @throws NumberFormatException 不是合法的long时抛出
+     */
+    static long parseLong(CharSequence s) {
+        int start = 0;
+        int end = s.length();
+        while (start < end && Character.isWhitespace(s.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            throw numberFormat(s);
+        }
+        boolean negative = false;
+        // 以负数累加，可以表示Long.MIN_VALUE
+        long limit = -Long.MAX_VALUE;
+        char first = s.charAt(start);
+        if (first == '-' || first == '+') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            if (++start == end) {
+                throw numberFormat(s);
+            }
+        }
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyMin) {
+                throw numberFormat(s);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormat(s);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * 是否为空白字符序列
+     *
+     * @param s 字符序列
+     * @return 是否为空白
+     */
+    static boolean isBlank(CharSequence s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static NumberFormatException numberFormat(CharSequence s) {
+        return new NumberFormatException("For input string: \"" + s + "\"");
+    }
+
+    @Override
+    public Spliterator<CharSequence> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        // 片段个数不超过剩余字符个数加一
+        return position > length ? pendingEmpty + (held == null ? 0 : 1) : length - position + 1L + pendingEmpty + (held == null ? 0 : 1);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
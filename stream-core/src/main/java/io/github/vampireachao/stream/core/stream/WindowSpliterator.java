@@ -0,0 +1,247 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * 窗口spliterator，每隔step个元素开始一个长度为size的窗口，只交出完整的窗口
+ * step小于size时为滑动窗口，等于size时为滚动窗口，大于size时窗口之间的元素会被跳过
+ * 元素存放在长度为size的环形缓冲区中，窗口滑动时只移动起点，不搬移元素；
+ * 复用模式下每次交出的都是同一个环形缓冲区的只读视图，视图只在下一次交出前有效，可避免为每个窗口分配list
+ * <p>
+ * 拆分时前缀段负责起点落在前缀段内的窗口，并从后缀段头部借入这些窗口跨过边界的元素，借入的元素同时作为后缀段的头部，
+ * 后缀段再跳过下一个窗口起点之前的元素，因此边界处的窗口既不会丢失也不会重复；
+ * 源大小未知时，先拷贝一批元素到数组中作为前缀段，再按同样的方式处理边界
+ *
+ * @param <T> 元素类型
+ * @author VampireAchao
+ */
+final class WindowSpliterator<T> implements Spliterator<List<T>> {
+
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    private final int size;
+    private final int step;
+    private final boolean reuse;
+    private final Spliterator<T> source;
+    /**
+     * 位于源之前的元素，来自拆分时前缀段借入的元素
+     */
+    private List<T> head;
+    private int headIndex;
+    /**
+     * 位于源之后的元素，来自拆分时从后缀段借入的元素
+     */
+    private List<T> tail;
+    private int tailIndex;
+    /**
+     * 下一个窗口起点之前需要跳过的元素个数
+     */
+    private long skip;
+    private final Object[] ring;
+    private int start;
+    private int count;
+    private List<T> view;
+    private int batch;
+    private T holder;
+
+    WindowSpliterator(Spliterator<T> source, int size, int step, boolean reuse) {
+        this(source, size, step, reuse, null, null, 0);
+    }
+
+    private WindowSpliterator(Spliterator<T> source, int size, int step, boolean reuse,
+                              List<T> head, List<T> tail, long skip) {
+        this.source = source;
+        this.size = size;
+        this.step = step;
+        this.reuse = reuse;
+        this.head = head;
+        this.tail = tail;
+        this.skip = skip;
+        this.ring = new Object[size];
+    }
+
+    /**
+     * 依次从头部、源、尾部取出下一个元素
+     *
+     * @return 是否还有元素
+     */
+    private boolean next() {
+        if (head != null) {
+            if (headIndex < head.size()) {
+                holder = head.get(headIndex++);
+                return true;
+            }
+            head = null;
+        }
+        if (source.tryAdvance(this::hold)) {
+            return true;
+        }
+        if (tail != null && tailIndex < tail.size()) {
+            holder = tail.get(tailIndex++);
+            return true;
+        }
+        return false;
+    }
+
+    private void hold(T t) {
+        holder = t;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+        Objects.requireNonNull(action);
+        while (skip > 0) {
+            if (!next()) {
+                return false;
+            }
+            holder = null;
+            skip--;
+        }
+        while (count < size) {
+            if (!next()) {
+                return false;
+            }
+            ring[(start + count++) % size] = holder;
+            holder = null;
+        }
+        action.accept(reuse ? view() : copy());
+        if (step < size) {
+            // 滑动：丢弃窗口头部的step个元素，其余元素留给下一个窗口
+            for (int i = 0; i < step; i++) {
+                ring[(start + i) % size] = null;
+            }
+            start = (start + step) % size;
+            count -= step;
+        } else {
+            Arrays.fill(ring, null);
+            start = 0;
+            count = 0;
+            skip = step - size;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> copy() {
+        List<T> window = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            window.add((T) ring[(start + i) % size]);
+        }
+        return window;
+    }
+
+    private List<T> view() {
+        if (view == null) {
+            view = new RingView();
+        }
+        return view;
+    }
+
+    /**
+     * 环形缓冲区当前窗口的只读视图
+     */
+    private final class RingView extends AbstractList<T> implements RandomAccess {
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (T) ring[(start + index) % size];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (count != 0) {
+            // 已开始遍历，缓冲区中的元素无法分给前缀段
+            return null;
+        }
+        int headSize = head == null ? 0 : head.size() - headIndex;
+        Spliterator<T> prefix = source.hasCharacteristics(SUBSIZED) ? source.trySplit() : splitBatch();
+        if (prefix == null) {
+            return null;
+        }
+        long before = headSize + prefix.getExactSizeIfKnown();
+        List<T> prefixHead = headSize == 0 ? null : head.subList(headIndex, head.size());
+        if (before <= skip) {
+            // 前缀段内没有窗口起点，只需跳过
+            skip -= before;
+            head = null;
+            return new WindowSpliterator<>(prefix, size, step, reuse, prefixHead, null, before);
+        }
+        // 前缀段内最后一个窗口起点，以及该窗口跨过边界需要借入的元素个数
+        long last = skip + (before - 1 - skip) / step * step;
+        long borrow = Math.max(0, last + size - before);
+        head = null;
+        List<T> borrowed = new ArrayList<>((int) Math.min(borrow, BATCH_UNIT));
+        while (borrowed.size() < borrow && next()) {
+            borrowed.add(holder);
+            holder = null;
+        }
+        WindowSpliterator<T> split = new WindowSpliterator<>(prefix, size, step, reuse, prefixHead, borrowed, skip);
+        head = borrowed;
+        headIndex = 0;
+        skip = last + step - before;
+        return split;
+    }
+
+    /**
+     * 源大小未知时，拷贝一批元素到数组中作为前缀段
+     */
+    private Spliterator<T> splitBatch() {
+        long est = source.estimateSize();
+        if (est <= size) {
+            return null;
+        }
+        int n = (int) Math.min(Math.min((long) batch + BATCH_UNIT, MAX_BATCH), est);
+        Object[] array = new Object[n];
+        int filled = 0;
+        while (filled < n && source.tryAdvance(this::hold)) {
+            array[filled++] = holder;
+            holder = null;
+        }
+        if (filled == 0) {
+            return null;
+        }
+        batch = filled;
+        // 拷贝出的元素在头部元素之后，头部元素交给前缀段
+        @SuppressWarnings("unchecked")
+        Spliterator<T> prefix = (Spliterator<T>) Spliterators.spliterator(array, 0, filled, ORDERED);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long remaining = source.estimateSize();
+        if (remaining == Long.MAX_VALUE) {
+            return remaining;
+        }
+        remaining += count;
+        remaining += head == null ? 0 : head.size() - headIndex;
+        remaining += tail == null ? 0 : tail.size() - tailIndex;
+        remaining -= skip;
+        return remaining < size ? 0 : (remaining - size) / step + 1;
+    }
+
+    @Override
+    public int characteristics() {
+        // 非SUBSIZED的源在遍历后不一定能给出准确的剩余个数
+        int sized = source.hasCharacteristics(SUBSIZED) ? SIZED | SUBSIZED : 0;
+        return source.characteristics() & ORDERED | sized | NONNULL;
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.vampireachao.stream.core.stream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * 将两个spliterator按位置合并的spliterator，元素个数与左侧一致，右侧不足时以null补齐
+ * 右侧支持随机访问时，请使用{@link #zipRandomAccess(Spliterator, List, BiFunction)}，按下标取值，可与左侧一起精确拆分；
+ * 否则两侧只能成对顺序拉取，拆分时会先成对拉取一批元素到数组中，数组段之间仍可并行
+ *
+ * @param <T> 左侧元素类型
+ * @param <U> 右侧元素类型
+ * @param <R> 合并后的元素类型
+ * @author VampireAchao
+ */
+final class ZipSpliterator<T, U, R> implements Spliterator<R> {
+
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    private final Spliterator<T> left;
+    private final Spliterator<U> right;
+    private final BiFunction<? super T, ? super U, ? extends R> zipper;
+    private boolean rightExhausted;
+    private int batch;
+    private T leftHolder;
+    private U rightHolder;
+
+    ZipSpliterator(Spliterator<T> left, Spliterator<U> right, BiFunction<? super T, ? super U, ? extends R> zipper) {
+        this.left = left;
+        this.right = right;
+        this.zipper = zipper;
+    }
+
+    /**
+     * 右侧支持随机访问时，按左侧元素的下标从右侧取值，拆分完全由左侧决定
+     *
+     * @param left   左侧
+     * @param right  支持随机访问的右侧
+     * @param zipper 合并器
+     * @param <T>    左侧元素类型
+     * @param <U>    右侧元素类型
+     * @param <R>    合并后的元素类型
+     * @return spliterator
+     */
+    static <T, U, R> Spliterator<R> zipRandomAccess(Spliterator<T> left, List<U> right,
+                                                    BiFunction<? super T, ? super U, ? extends R> zipper) {
+        final int size = right.size();
+        return new IdxSpliterator<T, R>(left, (t, i, downstream) ->
+                downstream.accept(zipper.apply(t, i < size ? right.get(i) : null)), IdxSpliterator.MAP_CLEARED);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        if (!left.tryAdvance(this::holdLeft)) {
+            return false;
+        }
+        action.accept(zipper.apply(leftHolder, nextRight()));
+        leftHolder = null;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        left.forEachRemaining(t -> action.accept(zipper.apply(t, nextRight())));
+    }
+
+    private void holdLeft(T t) {
+        leftHolder = t;
+    }
+
+    private void holdRight(U u) {
+        rightHolder = u;
+    }
+
+    private U nextRight() {
+        if (rightExhausted || !right.tryAdvance(this::holdRight)) {
+            rightExhausted = true;
+            return null;
+        }
+        U u = rightHolder;
+        rightHolder = null;
+        return u;
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        long est = left.estimateSize();
+        if (est <= 1) {
+            return null;
+        }
+        int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+        if (est < n) {
+            n = (int) est;
+        }
+        Object[] lefts = new Object[n];
+        Object[] rights = new Object[n];
+        int count = 0;
+        while (count < n && left.tryAdvance(this::holdLeft)) {
+            lefts[count] = leftHolder;
+            rights[count] = nextRight();
+            count++;
+        }
+        leftHolder = null;
+        if (count == 0) {
+            return null;
+        }
+        batch = count;
+        @SuppressWarnings("unchecked")
+        Spliterator<T> prefix = (Spliterator<T>) Spliterators.spliterator(lefts, 0, count, left.characteristics() & ORDERED);
+        @SuppressWarnings("unchecked")
+        List<U> rightList = (List<U>) Arrays.asList(rights).subList(0, count);
+        return zipRandomAccess(prefix, rightList, zipper);
+    }
+
+    @Override
+    public long estimateSize() {
+        return left.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return left.characteristics() & ~(DISTINCT | SORTED | NONNULL);
+    }
+
+    @Override
+    public Comparator<? super R> getComparator() {
+        throw new IllegalStateException();
+    }
+}
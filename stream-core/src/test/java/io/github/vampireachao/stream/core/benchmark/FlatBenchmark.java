@@ -0,0 +1,69 @@
+package io.github.vampireachao.stream.core.benchmark;
+
+import io.github.vampireachao.stream.core.stream.Steam;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * mapMulti、flat与flatMap的对比，关注gc.alloc.rate.norm(每次调用分配的字节数)，
+ * mapMulti与flat每个元素不应再有分配，只剩与元素个数无关的固定开销
+ * 运行{@link #main(String[])}即可
+ *
+ * @author VampireAchao
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private List<List<Integer>> data;
+
+    @Setup
+    public void setup() {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(Arrays.asList(i, i + 1, i + 2));
+        }
+    }
+
+    @Benchmark
+    public void mapMulti(Blackhole blackhole) {
+        Steam.of(data).<Integer>mapMulti((list, downstream) -> {
+            for (Integer e : list) {
+                downstream.accept(e);
+            }
+        }).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void flat(Blackhole blackhole) {
+        Steam.of(data).flat(list -> list).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void flatMap(Blackhole blackhole) {
+        data.stream().flatMap(List::stream).forEach(blackhole::consume);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FlatBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.vampireachao.stream.core.benchmark;
+
+import io.github.vampireachao.stream.core.collector.Collective;
+import io.github.vampireachao.stream.core.stream.Steam;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collective.toMap、groupingBy与Collectors的对比，关注gc.alloc.rate.norm(每次调用分配的字节数)，
+ * 累加时每个元素不应再有包装对象的分配，toMap在元素个数已知时预设容量，不再有扩容的分配
+ * 运行{@link #main(String[])}即可
+ *
+ * @author VampireAchao
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapCollectBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private List<Integer> data;
+
+    @Setup
+    public void setup() {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(i);
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> steamToMap() {
+        return Steam.of(data).toMap(Function.identity());
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> collectiveToMap() {
+        return data.stream().collect(Collective.toMap(Function.identity(), Function.identity(), (l, r) -> r));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> collectorsToMap() {
+        return data.stream().collect(Collectors.toMap(Function.identity(), Function.identity(), (l, r) -> r));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> collectiveGroupingBy() {
+        return data.stream().collect(Collective.groupingBy(i -> i & 1023, Collective.counting()));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> collectorsGroupingBy() {
+        return data.stream().collect(Collectors.groupingBy(i -> i & 1023, Collectors.counting()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapCollectBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.vampireachao.stream.core.collection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * HyperLogLog测试
+ *
+ * @author VampireAchao
+ */
+class HyperLogLogTest {
+
+    @Test
+    void testEstimate() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        Assertions.assertEquals(0, sketch.estimate());
+        for (int i = 0; i < 1_000_000; i++) {
+            sketch.add(i);
+            sketch.add((long) i);
+        }
+        Assertions.assertEquals(1_000_000, sketch.estimate(), 1_000_000 * 0.03);
+
+        HyperLogLog small = new HyperLogLog(14);
+        for (int i = 0; i < 100; i++) {
+            small.add("key" + (i % 10));
+        }
+        small.add(null);
+        Assertions.assertEquals(11, small.estimate());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+
+    @Test
+    void testMerge() throws IOException, ClassNotFoundException {
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        for (int i = 0; i < 60_000; i++) {
+            left.add("user" + i);
+            right.add("user" + (i + 30_000));
+        }
+        HyperLogLog restored = HyperLogLog.fromByteArray(right.toByteArray());
+        Assertions.assertEquals(right.estimate(), restored.estimate());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(left);
+        }
+        HyperLogLog deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (HyperLogLog) in.readObject();
+        }
+        Assertions.assertEquals(90_000, deserialized.merge(restored).estimate(), 90_000 * 0.06);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(13)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromByteArray(new byte[]{12, 0}));
+    }
+}
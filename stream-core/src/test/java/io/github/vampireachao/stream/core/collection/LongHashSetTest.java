@@ -0,0 +1,43 @@
+package io.github.vampireachao.stream.core.collection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * LongHashSet测试
+ *
+ * @author VampireAchao
+ */
+class LongHashSetTest {
+
+    @Test
+    void testAddAndContains() {
+        LongHashSet set = new LongHashSet(2);
+        for (long i = -500; i < 500; i++) {
+            Assertions.assertTrue(set.add(i * 31));
+        }
+        Assertions.assertFalse(set.add(0L));
+        Assertions.assertFalse(set.add(31L));
+        Assertions.assertEquals(1000, set.size());
+        Assertions.assertTrue(set.contains(-500L * 31));
+        Assertions.assertFalse(set.contains(1L));
+        long[] array = set.toArray();
+        Arrays.sort(array);
+        Assertions.assertEquals(-500L * 31, array[0]);
+        Assertions.assertEquals(499L * 31, array[999]);
+    }
+
+    @Test
+    void testAddAll() {
+        LongHashSet left = new LongHashSet();
+        left.add(0L);
+        left.add(1L);
+        LongHashSet right = new LongHashSet();
+        right.add(1L);
+        right.add(Long.MIN_VALUE);
+        left.addAll(right);
+        Assertions.assertEquals("[-9223372036854775808, 0, 1]", left.toString());
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.vampireachao.stream.core.collection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LongObjHashMap测试
+ *
+ * @author VampireAchao
+ */
+class LongObjHashMapTest {
+
+    @Test
+    void testPutAndGet() {
+        LongObjHashMap<String> map = new LongObjHashMap<>(2);
+        for (long i = -500; i < 500; i++) {
+            Assertions.assertNull(map.put(i * 31, String.valueOf(i)));
+        }
+        Assertions.assertEquals("0", map.put(0L, "zero"));
+        Assertions.assertEquals(1000, map.size());
+        Assertions.assertEquals("zero", map.get(0L));
+        Assertions.assertEquals("-500", map.get(-500L * 31));
+        Assertions.assertNull(map.get(1L));
+        Assertions.assertFalse(map.containsKey(1L));
+        map.put(1L, null);
+        Assertions.assertTrue(map.containsKey(1L));
+        Assertions.assertEquals(1001, map.toMap().size());
+    }
+
+    @Test
+    void testComputeIfAbsentAndMerge() {
+        LongObjHashMap<List<Integer>> left = new LongObjHashMap<>();
+        left.computeIfAbsent(0L, k -> new ArrayList<>()).add(1);
+        left.computeIfAbsent(0L, k -> new ArrayList<>()).add(2);
+        left.computeIfAbsent(Long.MIN_VALUE, k -> new ArrayList<>()).add(3);
+        LongObjHashMap<List<Integer>> right = new LongObjHashMap<>();
+        right.computeIfAbsent(0L, k -> new ArrayList<>()).add(4);
+        right.computeIfAbsent(7L, k -> new ArrayList<>()).add(5);
+        left.merge(right, (l, r) -> {
+            l.addAll(r);
+            return l;
+        });
+        Assertions.assertEquals("{-9223372036854775808=[3], 0=[1, 2, 4], 7=[5]}", left.toString());
+        Assertions.assertEquals("{-9223372036854775808=1, 0=3, 7=1}", left.mapValues(List::size).toString());
+    }
+}
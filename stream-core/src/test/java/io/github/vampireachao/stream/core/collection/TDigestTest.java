@@ -0,0 +1,70 @@
+package io.github.vampireachao.stream.core.collection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+/**
+ * TDigest测试
+ *
+ * @author VampireAchao
+ */
+class TDigestTest {
+
+    @Test
+    void testQuantile() {
+        TDigest digest = new TDigest();
+        Assertions.assertTrue(Double.isNaN(digest.quantile(0.5)));
+        Random random = new Random(42);
+        int n = 1_000_000;
+        for (int i = 0; i < n; i++) {
+            digest.add(random.nextInt(n));
+        }
+        Assertions.assertEquals(n, digest.size());
+        Assertions.assertEquals(0.5 * n, digest.quantile(0.5), 0.01 * n);
+        Assertions.assertEquals(0.99 * n, digest.quantile(0.99), 0.001 * n);
+        Assertions.assertEquals(0.999 * n, digest.quantile(0.999), 0.0005 * n);
+        Assertions.assertEquals(digest.getMin(), digest.quantile(0));
+        Assertions.assertEquals(digest.getMax(), digest.quantile(1));
+        Assertions.assertTrue(digest.toString().contains("centroids="));
+
+        TDigest small = new TDigest();
+        for (int i = 1; i <= 5; i++) {
+            small.add(i);
+        }
+        Assertions.assertArrayEquals(new double[]{1, 3, 5}, small.quantiles(0, 0.5, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> small.quantile(1.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> small.add(Double.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TDigest(1));
+    }
+
+    @Test
+    void testMerge() throws IOException, ClassNotFoundException {
+        TDigest left = new TDigest();
+        TDigest right = new TDigest(200);
+        for (int i = 0; i < 50_000; i++) {
+            left.add(i);
+            right.add(i + 50_000);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(right);
+        }
+        TDigest deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = (TDigest) in.readObject();
+        }
+        deserialized.add(100_000);
+        TDigest merged = left.merge(deserialized);
+        Assertions.assertEquals(100_001, merged.size());
+        Assertions.assertEquals(50_000, merged.quantile(0.5), 1000);
+        Assertions.assertEquals(95_000, merged.quantile(0.95), 200);
+        Assertions.assertEquals(100_000, merged.getMax());
+    }
+}
@@ -1,10 +1,20 @@
 package io.github.vampireachao.stream.core.collector;
 
+import io.github.vampireachao.stream.core.collection.LongList;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static io.github.vampireachao.stream.core.collector.Collective.*;
@@ -20,11 +30,26 @@ class CollectiveTest {
     @Test
     void testToMap() {
         Assertions.assertNull(Stream.of(null, null, null).collect(toMap(Object::hashCode, Object::hashCode)).get(null));
+        // null键、null值覆盖已有的值，合并结果为null时保留新值
+        Map<String, Integer> map = Stream.of("a", "bb", "cc", "", null)
+                .collect(toMap(s -> s == null || s.isEmpty() ? null : String.valueOf(s.length()), String::length, (l, r) -> l + r));
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals(1, map.get("1"));
+        Assertions.assertEquals(4, map.get("2"));
+        Assertions.assertTrue(map.containsKey(null));
+        Assertions.assertNull(map.get(null));
+        Assertions.assertEquals(2, Stream.of(1, 2).collect(toMap(i -> 0, i -> i, (l, r) -> null)).get(0));
+        Map<Integer, Integer> parallel = Stream.iterate(0, i -> i + 1).limit(10000).parallel()
+                .collect(toMap(i -> i % 10, i -> 1, Integer::sum));
+        Assertions.assertEquals(1000, parallel.get(7));
     }
 
     @Test
     void testGroupingBy() {
         Assertions.assertArrayEquals(new Object[]{}, Stream.of(null, null, null).collect(groupingBy(Object::hashCode)).get(null).toArray());
+        Map<Integer, List<String>> group = Stream.of("a", null, "bb", "c").collect(groupingBy(s -> "bb".equals(s) ? null : s.length()));
+        Assertions.assertEquals(Arrays.asList("a", "c"), group.get(1));
+        Assertions.assertEquals(Arrays.asList("bb"), group.get(null));
     }
 
     @Test
@@ -34,4 +59,86 @@ class CollectiveTest {
         Assertions.assertEquals(Arrays.asList(0, 0, 1, 1, 2, 2), actual);
     }
 
+    @Test
+    void testTopK() {
+        Map<Boolean, List<Integer>> expected = new HashMap<>();
+        expected.put(true, Arrays.asList(8, 6));
+        expected.put(false, Arrays.asList(9, 7));
+        Assertions.assertEquals(expected, Stream.of(3, 8, 1, 9, 6, 7, 2)
+                .collect(groupingBy(i -> i % 2 == 0, topK(2, Comparator.naturalOrder()))));
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), Stream.of(3, 8, 1, 9, 6, 7, 2).collect(bottomK(3, Comparator.naturalOrder())));
+        Assertions.assertEquals(Arrays.asList(1, 2), Stream.of(2, 1).collect(bottomK(5, Comparator.naturalOrder())));
+        Assertions.assertEquals(Arrays.asList(), Stream.of(2, 1).collect(topK(0, Comparator.naturalOrder())));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> topK(-1, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void testToPrimitiveArray() {
+        long[] expected = LongStream.range(0, 100_000).toArray();
+        Assertions.assertArrayEquals(expected, LongStream.range(0, 100_000).boxed().collect(toLongArray(Long::longValue)));
+        Assertions.assertArrayEquals(expected, LongStream.range(0, 100_000).boxed().parallel().collect(toLongArray(Long::longValue)));
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, Stream.of("1", "2", "3").collect(toIntArray(Integer::parseInt)));
+        Assertions.assertArrayEquals(new double[]{}, Stream.<Double>empty().collect(toDoubleArray(Double::doubleValue)), 0);
+        Assertions.assertArrayEquals(new double[]{0.5, 1.5}, Stream.of(0.5, 1.5).parallel().collect(toDoubleArray(Double::doubleValue)), 0);
+
+        LongList list = LongStream.range(0, 10_000).boxed().parallel().collect(toLongList(Long::longValue));
+        Assertions.assertEquals(10_000, list.size());
+        Assertions.assertArrayEquals(LongStream.range(0, 10_000).toArray(), list.toArray());
+        Assertions.assertArrayEquals(new int[]{3, 1}, Stream.of(3, 1).collect(toIntList(Integer::intValue)).toArray());
+
+        Map<Boolean, long[]> grouped = LongStream.range(0, 10).boxed().parallel()
+                .collect(groupingByToLongArray(i -> i % 2 == 0, Long::longValue));
+        Assertions.assertArrayEquals(new long[]{0, 2, 4, 6, 8}, grouped.get(true));
+        Assertions.assertArrayEquals(new long[]{1, 3, 5, 7, 9}, grouped.get(false));
+        Assertions.assertArrayEquals(new int[]{3}, Stream.of("abc").collect(groupingByToIntArray(s -> s, String::length)).get("abc"));
+    }
+
+    @Test
+    void testApproxDistinctCount() {
+        long estimate = IntStream.range(0, 200_000).boxed().parallel().collect(approxDistinctCount(i -> i % 50_000, 14));
+        Assertions.assertEquals(50_000, estimate, 50_000 * 0.03);
+        Map<Boolean, Long> grouped = IntStream.range(0, 1000).boxed()
+                .collect(groupingBy(i -> i % 2 == 0, approxDistinctCount(i -> i % 100, 14)));
+        Assertions.assertEquals(50, grouped.get(true), 1);
+        Assertions.assertEquals(50, grouped.get(false), 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> approxDistinctCount(i -> i, 19));
+    }
+
+    @Test
+    void testQuantiles() {
+        double[] quantiles = IntStream.range(0, 100_000).boxed().parallel().collect(quantiles(i -> i, 0.5, 0.95, 0.99));
+        Assertions.assertEquals(50_000, quantiles[0], 500);
+        Assertions.assertEquals(95_000, quantiles[1], 200);
+        Assertions.assertEquals(99_000, quantiles[2], 100);
+        Map<Boolean, double[]> grouped = IntStream.range(0, 10_000).boxed()
+                .collect(groupingBy(i -> i % 2 == 0, quantiles(i -> i, 0, 1)));
+        Assertions.assertArrayEquals(new double[]{0, 9998}, grouped.get(true));
+        Assertions.assertArrayEquals(new double[]{1, 9999}, grouped.get(false));
+        Assertions.assertTrue(Double.isNaN(Stream.<Integer>empty().collect(quantiles(i -> i, 0.5))[0]));
+        Assertions.assertEquals(3, Stream.of(1, 2, 3).collect(tDigest(i -> i, 50)).size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> quantiles(i -> 0, 2));
+    }
+
+    @Test
+    void testTeeing() {
+        double average = Stream.of(1, 2, 3, 4).collect(teeing(summingDouble(i -> i), counting(), (sum, n) -> sum / n));
+        Assertions.assertEquals(2.5, average);
+        List<Integer> range = IntStream.range(0, 10_000).boxed().collect(toList());
+        Assertions.assertEquals(range.stream().mapToLong(i -> i).sum() + 10_000,
+                range.parallelStream().collect(teeing(summingLong(i -> i), counting(), Long::sum)));
+        Assertions.assertEquals(EnumSet.of(Collector.Characteristics.UNORDERED),
+                teeing(toSet(), toSet(), (l, r) -> l).characteristics());
+        Assertions.assertTrue(teeing(toSet(), toList(), (l, r) -> l).characteristics().isEmpty());
+
+        List<Object> results = range.parallelStream().collect(multi(counting(), summingLong(i -> i),
+                maxBy(Comparator.<Integer>naturalOrder()), groupingBy(i -> i % 3, counting())));
+        Assertions.assertEquals(10_000L, results.get(0));
+        Assertions.assertEquals(range.stream().mapToLong(i -> i).sum(), results.get(1));
+        Assertions.assertEquals(Optional.of(9_999), results.get(2));
+        Assertions.assertEquals(range.stream().collect(groupingBy(i -> i % 3, counting())), results.get(3));
+        Assertions.assertEquals(Collections.emptyList(), Stream.of(1).collect(multi()));
+        Assertions.assertEquals(EnumSet.of(Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED),
+                multi(countingConcurrent(), summingLongConcurrent(i -> 1)).characteristics());
+    }
+
 }
@@ -0,0 +1,47 @@
+package io.github.vampireachao.stream.core.stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DoubleSteam测试
+ *
+ * @author VampireAchao
+ */
+class DoubleSteamTest {
+
+    @Test
+    void testDistinct() {
+        double[] distinct = DoubleSteam.of(1.5D, Double.NaN, 1.5D, 0.0D, -0.0D, Double.NaN).distinct().toArray();
+        Assertions.assertArrayEquals(new double[]{1.5D, Double.NaN, 0.0D, -0.0D}, distinct);
+        Assertions.assertArrayEquals(DoubleSteam.of(1.5D, Double.NaN, 1.5D, 0.0D, -0.0D, Double.NaN).boxed().distinct().mapToDouble(Double::doubleValue).toArray(),
+                DoubleSteam.of(1.5D, Double.NaN, 1.5D, 0.0D, -0.0D, Double.NaN).parallel().distinct().toArray());
+    }
+
+    @Test
+    void testMapToDouble() {
+        List<String> amounts = Arrays.asList("1.5", "2.5");
+        Assertions.assertEquals(4D, Steam.of(amounts).mapToDouble(Double::parseDouble).sum());
+        Assertions.assertEquals("1.5|2.5", Steam.of(amounts).mapToDouble(Double::parseDouble).join("|"));
+        Assertions.assertArrayEquals(new double[]{2.5D}, DoubleSteam.of(1.5D, 2.5D).split(1).toList().get(1));
+    }
+
+    @Test
+    void testIdx() {
+        Assertions.assertEquals(Arrays.asList(5.0, 7.0), DoubleSteam.of(5.0, 6.0, 7.0).filterIdx((e, i) -> i != 1).toList());
+        Assertions.assertEquals(Arrays.asList(0.0, 6.0, 14.0), DoubleSteam.of(5.0, 6.0, 7.0).mapIdx((e, i) -> e * i).toList());
+        List<Integer> indexes = new ArrayList<>();
+        DoubleSteam.of(5.0, 6.0, 7.0).forEachIdx((e, i) -> indexes.add(i));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), indexes);
+        Assertions.assertEquals(2, DoubleSteam.of(5.0, 6.0, 7.0).findFirstIdx(e -> e == 7.0));
+        Assertions.assertEquals(-1, DoubleSteam.of(5.0, 6.0, 7.0).findFirstIdx(e -> e == 8.0));
+        // 并行流下标仍为遇到顺序下标
+        Assertions.assertEquals(0, DoubleSteam.iterate(0.0, e -> e + 1).limit(10000).parallel()
+                .mapIdx((e, i) -> e - i).filter(e -> e != 0).count());
+        Assertions.assertEquals(9999, DoubleSteam.iterate(0.0, e -> e + 1).limit(10000).parallel().findFirstIdx(e -> e == 9999.0));
+    }
+}
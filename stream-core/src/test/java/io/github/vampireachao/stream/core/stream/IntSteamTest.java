@@ -0,0 +1,109 @@
+package io.github.vampireachao.stream.core.stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * IntSteam测试
+ *
+ * @author VampireAchao
+ */
+class IntSteamTest {
+
+    @Test
+    void testOf() {
+        Assertions.assertEquals(3, IntSteam.of(1, 2, 3).count());
+        Assertions.assertEquals(0, IntSteam.of().count());
+        Assertions.assertEquals(5, IntSteam.range(0, 5).count());
+        Assertions.assertEquals(6, IntSteam.rangeClosed(0, 5).count());
+    }
+
+    @Test
+    void testMapToInt() {
+        List<String> list = Arrays.asList("1", "22", "333");
+        IntSteam lengths = Steam.of(list).mapToInt(String::length);
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, lengths.toArray());
+    }
+
+    @Test
+    void testDistinct() {
+        Assertions.assertArrayEquals(new int[]{3, 0, 1, 2}, IntSteam.of(3, 0, 1, 3, 2, 0, 1).distinct().toArray());
+        int[] parallel = IntSteam.range(0, 10000).map(i -> i % 100).parallel().distinct().toArray();
+        Assertions.assertArrayEquals(IntSteam.range(0, 100).toArray(), parallel);
+
+        // 并行去重是惰性的：执行终端操作前不拉取上游，无限流也能创建，关闭时执行上游的关闭操作
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        IntSteam distinct = IntSteam.of(1, 2, 1, 2).parallel().peek(i -> pulled.incrementAndGet())
+                .onClose(closed::incrementAndGet).distinct();
+        Assertions.assertEquals(0, pulled.get());
+        Assertions.assertArrayEquals(new int[]{1, 2}, distinct.toArray());
+        Assertions.assertEquals(4, pulled.get());
+        distinct.close();
+        Assertions.assertEquals(1, closed.get());
+        Assertions.assertNotNull(IntSteam.iterate(0, i -> i + 1).parallel().distinct());
+        Assertions.assertArrayEquals(new long[]{3, 1}, LongSteam.of(3, 1, 3).parallel().distinct().toArray());
+    }
+
+    @Test
+    void testGroup() {
+        Map<Boolean, int[]> group = IntSteam.rangeClosed(1, 6).group(i -> i % 2 == 0);
+        Assertions.assertArrayEquals(new int[]{2, 4, 6}, group.get(true));
+        Assertions.assertArrayEquals(new int[]{1, 3, 5}, group.get(false));
+        Map<Integer, int[]> parallel = IntSteam.range(0, 1000).parallel().group(i -> i % 3);
+        Assertions.assertEquals(334, parallel.get(0).length);
+        Assertions.assertArrayEquals(IntSteam.range(0, 1000).filter(i -> i % 3 == 1).toArray(), parallel.get(1));
+    }
+
+    @Test
+    void testSplit() {
+        List<int[]> batches = IntSteam.rangeClosed(1, 5).split(2).toList();
+        Assertions.assertEquals(3, batches.size());
+        Assertions.assertArrayEquals(new int[]{1, 2}, batches.get(0));
+        Assertions.assertArrayEquals(new int[]{3, 4}, batches.get(1));
+        Assertions.assertArrayEquals(new int[]{5}, batches.get(2));
+        // 无限流也可以切分
+        Assertions.assertArrayEquals(new int[]{3, 4, 5}, IntSteam.iterate(0, i -> i + 1).split(3).skip(1).findFirst().orElse(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IntSteam.of(1).split(0));
+    }
+
+    @Test
+    void testAtAndFindLast() {
+        Assertions.assertEquals(OptionalInt.of(3), IntSteam.of(1, 2, 3).at(-1));
+        Assertions.assertEquals(OptionalInt.of(1), IntSteam.of(1, 2, 3).at(0));
+        Assertions.assertFalse(IntSteam.of(1, 2, 3).at(3).isPresent());
+        Assertions.assertEquals(OptionalInt.of(999), IntSteam.range(0, 1000).parallel().findLast());
+        Assertions.assertEquals(OptionalInt.of(998), IntSteam.range(0, 1000).findLast(i -> i % 2 == 0));
+    }
+
+    @Test
+    void testJoinAndPush() {
+        Assertions.assertEquals("0,1,2,3", IntSteam.of(1, 2).unshift(0).push(3).join(","));
+        Assertions.assertEquals(Arrays.asList(1, 2), IntSteam.of(1, 2).toList());
+        Assertions.assertEquals("[1, 2]", IntSteam.of(1, 2).toIntList().toString());
+        Assertions.assertEquals(Arrays.asList("1", "2"), IntSteam.of(1, 2).mapToObj(String::valueOf).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testIdx() {
+        Assertions.assertEquals(Arrays.asList(5, 7), IntSteam.of(5, 6, 7).filterIdx((e, i) -> i != 1).toList());
+        Assertions.assertEquals(Arrays.asList(0, 6, 14), IntSteam.of(5, 6, 7).mapIdx((e, i) -> e * i).toList());
+        List<Integer> indexes = new ArrayList<>();
+        IntSteam.of(5, 6, 7).forEachIdx((e, i) -> indexes.add(i));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), indexes);
+        Assertions.assertEquals(2, IntSteam.of(5, 6, 7).findFirstIdx(e -> e == 7));
+        Assertions.assertEquals(-1, IntSteam.of(5, 6, 7).findFirstIdx(e -> e == 8));
+        // 并行流下标仍为遇到顺序下标
+        Assertions.assertEquals(0, IntSteam.iterate(0, e -> e + 1).limit(10000).parallel()
+                .mapIdx((e, i) -> e - i).filter(e -> e != 0).count());
+        Assertions.assertEquals(9999, IntSteam.iterate(0, e -> e + 1).limit(10000).parallel().findFirstIdx(e -> e == 9999));
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.vampireachao.stream.core.stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LongSteam测试
+ *
+ * @author VampireAchao
+ */
+class LongSteamTest {
+
+    @Test
+    void testMapToLong() {
+        List<String> ids = Arrays.asList("10", "20", "10", "30");
+        long[] distinctIds = Steam.of(ids).mapToLong(Long::parseLong).distinct().toArray();
+        Assertions.assertArrayEquals(new long[]{10L, 20L, 30L}, distinctIds);
+    }
+
+    @Test
+    void testSplitString() {
+        Assertions.assertArrayEquals(new long[]{1L, -2L, Long.MAX_VALUE, Long.MIN_VALUE},
+                LongSteam.split("1, -2,,9223372036854775807,-9223372036854775808,", ",").toArray());
+        Assertions.assertEquals(0, LongSteam.split("", ",").count());
+        Assertions.assertThrows(NumberFormatException.class, () -> LongSteam.split("1,a", ",").toArray());
+        Assertions.assertThrows(NumberFormatException.class, () -> LongSteam.split("9223372036854775808", ",").toArray());
+    }
+
+    @Test
+    void testSplitAndGroup() {
+        List<long[]> batches = LongSteam.rangeClosed(1, 1000).split(300).toList();
+        Assertions.assertEquals(4, batches.size());
+        Assertions.assertEquals(100, batches.get(3).length);
+        Assertions.assertEquals(1000L, batches.get(3)[99]);
+        Map<Long, long[]> group = LongSteam.of(1L, 2L, 3L, 4L).group(i -> i % 2);
+        Assertions.assertArrayEquals(new long[]{1L, 3L}, group.get(1L));
+        Assertions.assertArrayEquals(new long[]{2L, 4L}, group.get(0L));
+    }
+
+    @Test
+    void testConvert() {
+        Assertions.assertEquals(6L, LongSteam.of(1L, 2L, 3L).sum());
+        Assertions.assertArrayEquals(new int[]{1, 2}, LongSteam.of(1L, 2L).mapToInt(l -> (int) l).toArray());
+        Assertions.assertEquals(Arrays.asList(1L, 2L), LongSteam.of(1L, 2L).boxed().toList());
+        Assertions.assertEquals(1.5D, LongSteam.of(1L, 2L).asDoubleStream().average().orElse(0D));
+    }
+
+    @Test
+    void testIdx() {
+        Assertions.assertEquals(Arrays.asList(5L, 7L), LongSteam.of(5L, 6L, 7L).filterIdx((e, i) -> i != 1).toList());
+        Assertions.assertEquals(Arrays.asList(0L, 6L, 14L), LongSteam.of(5L, 6L, 7L).mapIdx((e, i) -> e * i).toList());
+        List<Integer> indexes = new ArrayList<>();
+        LongSteam.of(5L, 6L, 7L).forEachIdx((e, i) -> indexes.add(i));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), indexes);
+        Assertions.assertEquals(2, LongSteam.of(5L, 6L, 7L).findFirstIdx(e -> e == 7L));
+        Assertions.assertEquals(-1, LongSteam.of(5L, 6L, 7L).findFirstIdx(e -> e == 8L));
+        // 并行流下标仍为遇到顺序下标
+        Assertions.assertEquals(0, LongSteam.iterate(0L, e -> e + 1).limit(10000).parallel()
+                .mapIdx((e, i) -> e - i).filter(e -> e != 0).count());
+        Assertions.assertEquals(9999, LongSteam.iterate(0L, e -> e + 1).limit(10000).parallel().findFirstIdx(e -> e == 9999L));
+    }
+}
@@ -1,12 +1,31 @@
 package io.github.vampireachao.stream.core.stream;
 
+import io.github.vampireachao.stream.core.collector.Collective;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.Tolerate;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.singletonList;
@@ -21,6 +40,14 @@ class SteamTest {
     void testBuilder() {
         List<Integer> list = Steam.<Integer>builder().add(1).add(2).add(3).build().toList();
         Assertions.assertEquals(Arrays.asList(1, 2, 3), list);
+        for (String regex : Arrays.asList(",", "\\|", "::", "\\s*,\\s*", "")) {
+            for (String str : Arrays.asList("a,b,,c,,", ",a", "a|b||", "a::b::::c::", "x , y,z", "abc", "a,,")) {
+                Assertions.assertEquals(Arrays.asList(str.split(regex)), Steam.split(str, regex).toList(), str + " / " + regex);
+            }
+        }
+        Assertions.assertTrue(Steam.split(" ", ",").toList().isEmpty());
+        StringBuilder builder = new StringBuilder("ab;cd");
+        Assertions.assertEquals(Arrays.asList("ab", "cd"), Steam.splitSeq(builder, ";").map(CharSequence::toString).toList());
     }
 
     @Test
@@ -64,6 +91,49 @@ class SteamTest {
         Assertions.assertEquals(new HashSet<>(Arrays.asList("1", "2", "3")), toSet);
     }
 
+    @Test
+    void testUnorderedParallelCollect() {
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        // 放弃顺序后并发写入同一个ConcurrentHashMap，结果仍为HashMap，与串行一致
+        Map<Integer, Integer> map = Steam.of(range).parallel().unordered().toMap(i -> i % 100, i -> 1, Integer::sum);
+        Assertions.assertInstanceOf(HashMap.class, map);
+        Assertions.assertNull(map.get(null));
+        Assertions.assertFalse(map.containsKey(null));
+        Assertions.assertEquals(Steam.of(range).toMap(i -> i % 100, i -> 1, Integer::sum), map);
+        map.put(null, null);
+        Assertions.assertTrue(map.containsKey(null));
+        Set<Integer> set = Steam.of(range).parallel().unordered().map(i -> i % 10).toSet();
+        Assertions.assertInstanceOf(HashSet.class, set);
+        Assertions.assertFalse(set.contains(null));
+        Assertions.assertEquals(Steam.iterate(0, i -> i < 10, i -> i + 1).toSet(), set);
+        Map<Integer, Long> counts = Steam.of(range).parallel().unordered().group(i -> i % 7, Collective.countingConcurrent());
+        Assertions.assertEquals(Steam.of(range).group(i -> i % 7, Collective.counting()), counts);
+        Map<Integer, Long> sums = Steam.of(range).parallel().unordered().group(i -> i % 7, Collective.summingLongConcurrent(i -> i));
+        Assertions.assertEquals(Steam.of(range).group(i -> i % 7, Collective.summingLong(i -> i)), sums);
+        Map<Integer, List<Integer>> group = Steam.of(range).parallel().unordered().group(i -> i % 3);
+        Assertions.assertEquals(Steam.of(range).filter(i -> i % 3 == 1).toSet(), new HashSet<>(group.get(1)));
+        // 源本身无序但没有调用unordered()时，仍按原来的方式收集
+        Set<Integer> hashSet = new HashSet<>(range);
+        Map<Integer, Integer> fromHashSet = Steam.of(hashSet).parallel().toMap(i -> i % 100, i -> 1, Integer::sum);
+        Assertions.assertInstanceOf(HashMap.class, fromHashSet);
+        Assertions.assertFalse(fromHashSet.containsKey(null));
+        Assertions.assertEquals(map.get(1), fromHashSet.get(1));
+        Set<Integer> setFromHashSet = Steam.of(hashSet).parallel().toSet();
+        Assertions.assertInstanceOf(HashSet.class, setFromHashSet);
+        Assertions.assertFalse(setFromHashSet.contains(null));
+        Assertions.assertInstanceOf(HashMap.class, Steam.of(hashSet).parallel().group(i -> i % 3));
+        // 有序的并行流仍保持顺序
+        Assertions.assertEquals(Steam.of(range).group(i -> i % 3), Steam.of(range).parallel().group(i -> i % 3));
+        // 与非并发的收集一样支持null键、null值
+        List<Integer> nulls = Arrays.asList(1, null, 2, 3);
+        Map<Integer, Integer> nullMap = Steam.of(nulls).parallel().unordered().toMap(i -> i == null || i == 3 ? null : i, i -> i == null || i == 2 ? null : i);
+        Assertions.assertEquals(Steam.of(nulls).toMap(i -> i == null || i == 3 ? null : i, i -> i == null || i == 2 ? null : i).keySet(), nullMap.keySet());
+        Assertions.assertNull(nullMap.get(2));
+        Assertions.assertEquals(new HashSet<>(nulls), Steam.of(nulls).parallel().unordered().toSet());
+        Assertions.assertEquals(singletonList(1), Steam.of(nulls).parallel().unordered().group(i -> i).get(1));
+        Assertions.assertTrue(Steam.of(nulls).parallel().unordered().group(i -> i).get(null).isEmpty());
+    }
+
     @Test
     void testToZip() {
         List<Integer> orders = Arrays.asList(1, 2, 3);
@@ -74,6 +144,12 @@ class SteamTest {
             put(2, "hutool");
             put(3, "sweet");
         }}, toZip);
+        Map<Integer, String> padded = Steam.of(1, 2, 3, 3).parallel().toZip(Arrays.asList("dromara", "hutool"));
+        Assertions.assertEquals(new HashMap<Integer, String>() {{
+            put(1, "dromara");
+            put(2, "hutool");
+            put(3, null);
+        }}, padded);
     }
 
     @Test
@@ -94,6 +170,10 @@ class SteamTest {
             put("2", 2);
             put("3", 3);
         }}, identityMap);
+        // 元素个数已知时预设容量，不影响结果
+        Assertions.assertEquals(identityMap, Steam.of(list).map(i -> i).toMap(String::valueOf));
+        Assertions.assertEquals(identityMap, Steam.of(list).filter(i -> true).toMap(String::valueOf));
+        Assertions.assertEquals(identityMap, Steam.of(list).parallel().toMap(String::valueOf));
     }
 
     @Test
@@ -122,6 +202,83 @@ class SteamTest {
         Assertions.assertEquals(Collections.singletonList(Student.builder().name("臧臧").age(23).build()), students);
     }
 
+    @Test
+    void testSemiJoin() {
+        List<Integer> list = Arrays.asList(1, 2, 3, 4, null);
+        Assertions.assertEquals(Arrays.asList(2, 4, null), Steam.of(list).semiJoin(Arrays.asList(4, 2, null, 6), Function.identity()).toList());
+        Assertions.assertEquals(Arrays.asList(2, 4), Steam.of(list).nonNull().semiJoin(Arrays.asList("2", "4"), String::valueOf, Function.identity()).toList());
+        // 当前流较小时以当前流构建
+        Assertions.assertEquals(Arrays.asList(2, 3), Steam.of(2, 3).semiJoinByLong(Arrays.asList(1L, 2L, 3L, 5L), Integer::longValue, Long::longValue).toList());
+        Assertions.assertEquals(Arrays.asList(1, 3), Steam.of(1, 2, 3).semiJoinByInt(Arrays.asList(0, 1, 3, 4), Integer::intValue, Integer::intValue).toList());
+
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        List<Integer> evens = Steam.of(range).filter(i -> i % 2 == 0).toList();
+        Assertions.assertEquals(evens, Steam.of(range).parallel().semiJoin(evens, Function.identity()).toList());
+        Assertions.assertEquals(evens, Steam.of(range).parallel().semiJoinByLong(evens, Integer::longValue, Integer::longValue).toList());
+        Assertions.assertEquals(evens, Steam.of(evens).parallel().semiJoinByInt(range, Integer::intValue, Integer::intValue).toList());
+    }
+
+    @Test
+    void testHashJoin() {
+        List<Student> students = Arrays.asList(
+                Student.builder().name("臧臧").age(23).build(),
+                Student.builder().name("阿超").age(21).build(),
+                Student.builder().name("小明").age(20).build()
+        );
+        List<String> hobbies = Arrays.asList("臧臧:看书", "阿超:编程", "臧臧:跑步", "小红:画画");
+        Function<String, String> hobbyOwner = h -> h.split(":")[0];
+        Assertions.assertEquals(Arrays.asList("臧臧:看书", "臧臧:跑步", "阿超:编程"),
+                Steam.of(students).join(hobbies, Student::getName, hobbyOwner, (s, h) -> h).toList());
+        // 一对多时逐个交出
+        Assertions.assertEquals(Arrays.asList("臧臧:看书", "臧臧:跑步"),
+                Steam.of(students).join(hobbies, Student::getName, hobbyOwner, (s, h) -> h).limit(2).toList());
+        Iterator<String> iterator = Steam.of(students).join(hobbies, Student::getName, hobbyOwner, (s, h) -> h).iterator();
+        Assertions.assertEquals("臧臧:看书", iterator.next());
+        Assertions.assertEquals("臧臧:跑步", iterator.next());
+        Assertions.assertEquals(Arrays.asList("臧臧:看书", "臧臧:跑步", "阿超:编程", "小明:null"),
+                Steam.of(students).leftJoin(hobbies, Student::getName, hobbyOwner, (s, h) -> s.getName() + ":" + (h == null ? null : h.split(":")[1])).toList());
+        Assertions.assertEquals(Arrays.asList("臧臧:看书", "臧臧:跑步", "阿超:编程", "小明:null", "null:小红:画画"),
+                Steam.of(students).fullJoin(hobbies, Student::getName, hobbyOwner, (s, h) -> s == null ? "null:" + h : h == null ? s.getName() + ":null" : h).toList());
+        // 当前流较小时以当前流的键过滤构建侧
+        Assertions.assertEquals(Arrays.asList("1a", "1c", "3x"),
+                Steam.of(1, 3).join(Arrays.asList("1a", "2b", "1c", "3x", "4y"), String::valueOf, h -> h.substring(0, 1), (i, h) -> h).toList());
+        Assertions.assertEquals(Arrays.asList("1a", "1c", "3x", "2b", "4y"),
+                Steam.of(1, 3).fullJoin(Arrays.asList("1a", "2b", "1c", "3x", "4y"), String::valueOf, h -> h.substring(0, 1), (i, h) -> h).toList());
+        Assertions.assertTrue(Steam.of(1, 2).join(Collections.<Integer>emptyList(), Function.identity(), Function.identity(), Integer::sum).toList().isEmpty());
+
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        List<Integer> evens = Steam.of(range).filter(i -> i % 2 == 0).toList();
+        List<Integer> doubled = Steam.of(evens).map(i -> i * 2).toList();
+        Assertions.assertEquals(doubled, Steam.of(range).parallel().join(evens, Function.identity(), Function.identity(), Integer::sum).toList());
+        Assertions.assertEquals(doubled, Steam.of(evens).parallel().join(range, Function.identity(), Function.identity(), Integer::sum).toList());
+        Assertions.assertEquals(range.size(), Steam.of(range).parallel().leftJoin(evens, Function.identity(), Function.identity(), (l, r) -> r).count());
+        List<Integer> full = Steam.of(evens).parallel().fullJoin(range, Function.identity(), Function.identity(), (l, r) -> l == null ? -r : r).toList();
+        Assertions.assertEquals(range.size(), full.size());
+        Assertions.assertEquals(evens, full.subList(0, evens.size()));
+        Assertions.assertEquals(-1, full.get(evens.size()));
+        List<Integer> fullFromRange = Steam.of(range.subList(0, 10)).map(Function.identity()).parallel()
+                .fullJoin(Arrays.asList(4, 40, 5), Function.identity(), Function.identity(), (l, r) -> l == null ? -r : l).toList();
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, -40), fullFromRange);
+        // 串行的全连接之后再转为并行流，未匹配的元素仍在探测完成后才确定
+        List<Integer> fullThenParallel = Steam.of(evens).fullJoin(range, Function.identity(), Function.identity(), (l, r) -> l == null ? -r : r)
+                .parallel().toList();
+        Assertions.assertEquals(full, fullThenParallel);
+    }
+
+    @Test
+    void testAntiJoin() {
+        List<Integer> list = Arrays.asList(1, 2, 3, 4, null);
+        Assertions.assertEquals(Arrays.asList(1, 3), Steam.of(list).antiJoin(Arrays.asList(4, 2, null, 6), Function.identity()).toList());
+        Assertions.assertEquals(Arrays.asList(1, 3), Steam.of(1, 2, 3).antiJoinByLong(Arrays.asList(0L, 2L, 4L, 6L), Integer::longValue, Long::longValue).toList());
+        Assertions.assertEquals(Arrays.asList(1, 3), Steam.of(1, 2, 3).antiJoinByInt(Collections.singletonList(2), Integer::intValue, Integer::intValue).toList());
+
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        List<Integer> odds = Steam.of(range).filter(i -> i % 2 == 1).toList();
+        List<Integer> evens = Steam.of(range).filter(i -> i % 2 == 0).toList();
+        Assertions.assertEquals(evens, Steam.of(range).parallel().antiJoin(odds, Function.identity()).toList());
+        Assertions.assertEquals(Collections.emptyList(), Steam.of(odds).parallel().antiJoin(range, Function.identity()).toList());
+    }
+
     @Data
     @Builder
     public static class Student {
@@ -140,8 +297,12 @@ class SteamTest {
         List<String> list = Arrays.asList("dromara", "hutool", "sweet");
         List<String> mapIndex = Steam.of(list).mapIdx((e, i) -> i + 1 + "." + e).toList();
         Assertions.assertEquals(Arrays.asList("1.dromara", "2.hutool", "3.sweet"), mapIndex);
-        // 并行流时为-1
-        Assertions.assertEquals(Arrays.asList(-1, -1, -1), Steam.of(1, 2, 3).parallel().mapIdx((e, i) -> i).toList());
+        // 并行流时同样为真实下标
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), Steam.of(1, 2, 3).parallel().mapIdx((e, i) -> i).toList());
+        List<Integer> range = Steam.iterate(0, i -> i < 10000, i -> i + 1).toList();
+        Assertions.assertEquals(range, Steam.of(range).parallel().mapIdx((e, i) -> i).toList());
+        // 无法精确拆分的源，并行时同样为真实下标
+        Assertions.assertEquals(range, Steam.of(range).filter(e -> true).parallel().mapIdx((e, i) -> i).toList());
     }
 
     @Test
@@ -154,6 +315,17 @@ class SteamTest {
             buffer.accept(e);
         }).toList();
         Assertions.assertEquals(Arrays.asList(1, 2, 2, 3), mapMulti);
+        Assertions.assertEquals(Arrays.asList(2, 2), Steam.of(list).<Integer>mapMulti((e, buffer) -> {
+            if (e % 2 == 0) {
+                buffer.add(e).add(e);
+            }
+        }).limit(3).toList());
+        List<Integer> parallel = Steam.iterate(0, i -> i < 10000, i -> i + 1).parallel()
+                .<Integer>mapMulti((e, buffer) -> buffer.add(e).add(-e)).toList();
+        Assertions.assertEquals(20000, parallel.size());
+        Assertions.assertEquals(Arrays.asList(9999, -9999), parallel.subList(19998, 20000));
+        Assertions.assertThrows(IllegalStateException.class, () -> Steam.of(list).<Integer>mapMulti((e, buffer) -> buffer.build()).toList());
+        Assertions.assertEquals(Arrays.asList(1, 2), Steam.of(Arrays.asList(1, 2), Arrays.asList(3)).flat(l -> l.size() > 1 ? l : null).toList());
     }
 
     @Test
@@ -163,14 +335,52 @@ class SteamTest {
         Assertions.assertEquals(Arrays.asList(1, 2, 3), distinctBy);
     }
 
+    @Test
+    void testDistinctByLong() {
+        List<Student> students = Arrays.asList(
+                Student.builder().name("臧臧").age(23).build(),
+                Student.builder().name("阿超").age(21).build(),
+                Student.builder().name("小明").age(23).build()
+        );
+        Assertions.assertEquals(Arrays.asList("臧臧", "阿超"), Steam.of(students).distinctByLong(Student::getAge).map(Student::getName).toList());
+        Assertions.assertEquals(Arrays.asList("臧臧", "阿超"), Steam.of(students).distinctByInt(Student::getAge).map(Student::getName).toList());
+
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        Assertions.assertEquals(1000, Steam.of(range).parallel().distinctByLong(i -> i % 1000).count());
+        Assertions.assertEquals(new HashSet<>(Steam.iterate(0, i -> i < 1000, i -> i + 1).toList()),
+                Steam.of(range).parallel().distinctByInt(i -> i % 1000).map(i -> i % 1000).toSet());
+    }
+
+    @Test
+    void testGroupByLong() {
+        List<Integer> list = Arrays.asList(1, 2, 3, 4, 5);
+        Assertions.assertEquals("{0=[2, 4], 1=[1, 3, 5]}", Steam.of(list).groupByLong(i -> i % 2).toString());
+        Assertions.assertEquals("{0=2, 1=3}", Steam.of(list).groupByInt(i -> i % 2, Collective.counting()).toString());
+        Assertions.assertEquals("{-1=[1], 1=[3, 5]}", Steam.of(list).filter(i -> i % 2 == 1).groupByInt(i -> i == 1 ? -1 : 1, -1, 1).toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Steam.of(list).groupByInt(i -> i, 0, 3));
+        // 范围过大时改用哈希，仍然校验范围
+        Assertions.assertEquals("{1=[1], 5=[5]}", Steam.of(1, 5).groupByInt(i -> i, Integer.MIN_VALUE, Integer.MAX_VALUE - 1).toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Steam.of(list).parallel().groupByInt(i -> i, 2, Integer.MAX_VALUE));
+
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        Map<Integer, List<Integer>> expected = Steam.of(range).group(i -> i % 7);
+        Assertions.assertEquals(expected, Steam.of(range).parallel().groupByInt(i -> i % 7).toMap());
+        Assertions.assertEquals(expected, Steam.of(range).parallel().groupByInt(i -> i % 7, 0, 6).toMap());
+        Assertions.assertEquals(expected.get(3), Steam.of(range).parallel().groupByLong(i -> i % 7).get(3L));
+
+        EnumMap<TimeUnit, List<Integer>> byUnit = Steam.of(list).groupByEnum(i -> i > 2 ? TimeUnit.SECONDS : TimeUnit.MILLISECONDS, TimeUnit.class);
+        Assertions.assertEquals(Arrays.asList(TimeUnit.MILLISECONDS, TimeUnit.SECONDS), new ArrayList<>(byUnit.keySet()));
+        Assertions.assertEquals(Arrays.asList(3, 4, 5), byUnit.get(TimeUnit.SECONDS));
+    }
+
     @Test
     void testForeachIdx() {
         List<String> list = Arrays.asList("dromara", "hutool", "sweet");
         Steam.Builder<String> builder = Steam.builder();
         Steam.of(list).forEachIdx((e, i) -> builder.accept(i + 1 + "." + e));
         Assertions.assertEquals(Arrays.asList("1.dromara", "2.hutool", "3.sweet"), builder.build().toList());
-        // 并行流时为-1
-        Steam.of(1, 2, 3).parallel().forEachIdx((e, i) -> Assertions.assertEquals(-1, i));
+        // 并行流时同样为真实下标
+        Steam.of(1, 2, 3).parallel().forEachIdx((e, i) -> Assertions.assertEquals(e - 1, i));
     }
 
     @Test
@@ -186,8 +396,8 @@ class SteamTest {
         List<String> list = Arrays.asList("dromara", "hutool", "sweet");
         List<String> mapIndex = Steam.of(list).flatIdx((e, i) -> Steam.of(i + 1 + "." + e)).toList();
         Assertions.assertEquals(Arrays.asList("1.dromara", "2.hutool", "3.sweet"), mapIndex);
-        // 并行流时为-1
-        Assertions.assertEquals(Arrays.asList(-1, -1, -1), Steam.of(1, 2, 3).parallel().mapIdx((e, i) -> i).toList());
+        // 并行流时同样为真实下标
+        Assertions.assertEquals(Arrays.asList(0, 0, 1, 1, 2, 2), Steam.of(1, 2, 3).parallel().flatIdx((e, i) -> Steam.of(i, i)).toList());
     }
 
     @Test
@@ -209,8 +419,8 @@ class SteamTest {
         List<String> list = Arrays.asList("dromara", "hutool", "sweet");
         List<String> filterIndex = Steam.of(list).filterIdx((e, i) -> i < 2).toList();
         Assertions.assertEquals(Arrays.asList("dromara", "hutool"), filterIndex);
-        // 并行流时为-1
-        Assertions.assertEquals(3L, Steam.of(1, 2, 3).parallel().filterIdx((e, i) -> i == -1).count());
+        // 并行流时同样为真实下标
+        Assertions.assertEquals(Arrays.asList(1, 3), Steam.of(1, 2, 3).parallel().filterIdx((e, i) -> i % 2 == 0).toList());
     }
 
     @Test
@@ -220,12 +430,246 @@ class SteamTest {
         Assertions.assertEquals(Arrays.asList(1, 2, 3), nonNull);
     }
 
+    @Test
+    void testTopK() {
+        List<Student> students = Arrays.asList(
+                Student.builder().name("臧臧").age(23).build(),
+                Student.builder().name("阿超").age(21).build(),
+                Student.builder().name("小明").age(23).build(),
+                Student.builder().name("小红").age(20).build()
+        );
+        Comparator<Student> byAge = Comparator.comparing(Student::getAge);
+        // 相等的元素按遇到顺序排列
+        Assertions.assertEquals(Arrays.asList("臧臧", "小明", "阿超"), Steam.of(students).topK(3, byAge).map(Student::getName).toList());
+        Assertions.assertEquals(Arrays.asList("小红", "阿超"), Steam.of(students).bottomK(2, byAge).map(Student::getName).toList());
+
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).map(i -> i * 7919 % 20000 / 3).toList();
+        Assertions.assertEquals(Steam.of(range).sorted(Comparator.reverseOrder()).limit(20).toList(),
+                Steam.of(range).parallel().topK(20, Comparator.naturalOrder()).toList());
+        Comparator<Integer> byTens = Comparator.comparing(i -> i / 10);
+        Assertions.assertEquals(Steam.of(range).sorted(byTens).limit(50).toList(),
+                Steam.of(range).parallel().bottomK(50, byTens).toList());
+    }
+
+    @Test
+    void testCache() {
+        AtomicInteger computed = new AtomicInteger();
+        SteamCache<Integer> cache = Steam.iterate(0, i -> i < 5000, i -> i + 1).peek(i -> computed.incrementAndGet()).cache();
+        // 惰性填充，只计算需要的部分
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), cache.steam().limit(3).toList());
+        Assertions.assertEquals(3, computed.get());
+        Assertions.assertFalse(cache.isComplete());
+        Map<Integer, List<Integer>> group = cache.steam().group(i -> i % 3);
+        Assertions.assertEquals(5000, cache.cachedSize());
+        Assertions.assertEquals(1667, group.get(0).size());
+        Assertions.assertEquals(5000, cache.steam().toMap(Function.identity()).size());
+        Assertions.assertEquals(5000, computed.get());
+        Assertions.assertTrue(cache.isComplete());
+
+        // 多个并行消费者同时消费尚未计算的缓存
+        List<Integer> range = Steam.iterate(0, i -> i < 20000, i -> i + 1).toList();
+        SteamCache<Integer> shared = Steam.iterate(0, i -> i < 20000, i -> i + 1).cache();
+        List<Integer> results = Steam.of(1, 2, 3, 4).parallel()
+                .map(i -> shared.steam().parallel().mapToInt(Integer::intValue).sum()).toList();
+        Assertions.assertEquals(Collections.nCopies(4, Steam.of(range).mapToInt(Integer::intValue).sum()), results);
+        Assertions.assertEquals(range, shared.steam().parallel().toList());
+        int count = 0;
+        for (Integer ignored : shared) {
+            count++;
+        }
+        Assertions.assertEquals(20000, count);
+
+        SteamCache<Integer> limited = Steam.of(range).cache(10);
+        Assertions.assertEquals(10, limited.steam().limit(10).count());
+        Assertions.assertThrows(IllegalStateException.class, () -> limited.steam().toList());
+
+        // 异步映射的缓存，短路的消费者结束后不会取消映射，其他消费者仍可继续拉取
+        SteamCache<Integer> async = Steam.of(1, 2, 3, 4, 5).mapAsync(i -> i * 10, 2).cache();
+        Assertions.assertEquals(Optional.of(10), async.steam().findFirst());
+        Assertions.assertEquals(Arrays.asList(10, 20, 30, 40, 50), async.steam().toList());
+        async.close();
+    }
+
     @Test
     void testParallel() {
         Assertions.assertTrue(Steam.of(1, 2, 3).parallel(true).isParallel());
         Assertions.assertFalse(Steam.of(1, 2, 3).parallel(false).isParallel());
     }
 
+    @Test
+    void testProfile() {
+        List<SteamProfile> profiles = new ArrayList<>();
+        List<Integer> list = Steam.of(1, 2, 3, 4, 5, 6).profile("even", profiles::add)
+                .filter(i -> i % 2 == 0).map(i -> i * 10).toList();
+        Assertions.assertEquals(Arrays.asList(20, 40, 60), list);
+        Assertions.assertEquals(1, profiles.size());
+        SteamProfile profile = profiles.get(0);
+        Assertions.assertEquals("even", profile.getName());
+        Assertions.assertEquals("toList", profile.getTerminal());
+        Assertions.assertFalse(profile.isParallel());
+        Assertions.assertEquals(Arrays.asList("source", "filter", "map"), Steam.of(profile.getStages()).map(SteamProfile.Stage::getName).toList());
+        SteamProfile.Stage filter = profile.getStages().get(1);
+        Assertions.assertEquals(6, filter.getElementsIn());
+        Assertions.assertEquals(3, filter.getElementsOut());
+        Assertions.assertTrue(profile.getStages().get(0).isSized());
+        Assertions.assertFalse(filter.isSized());
+        Assertions.assertTrue(filter.isOrdered());
+
+        profiles.clear();
+        Assertions.assertEquals(1000, Steam.iterate(0, i -> i + 1).limit(1000).parallel().profile("parallel", profiles::add).sorted().count());
+        Assertions.assertEquals("count", profiles.get(0).getTerminal());
+        Assertions.assertTrue(profiles.get(0).getStages().get(1).isParallel());
+
+        Steam<Integer> steam = Steam.of(1, 2, 3).map(i -> i + 1);
+        String explain = steam.explain();
+        Assertions.assertTrue(explain.contains("parallel=false"), explain);
+        Assertions.assertTrue(explain.contains("SIZED"), explain);
+        Assertions.assertEquals(Arrays.asList(2, 3, 4), steam.toList());
+        Steam<Integer> profiled = Steam.of(1, 2, 3).profile("explain", profiles::add).filter(i -> i > 1);
+        Assertions.assertTrue(profiled.explain().contains("filter"));
+
+        // 默认监听器不打印到控制台，而是以FINE级别写入日志
+        Logger logger = Logger.getLogger(SteamProfile.class.getName());
+        List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Level level = logger.getLevel();
+        logger.addHandler(handler);
+        logger.setLevel(Level.FINE);
+        try {
+            Assertions.assertEquals(3, Steam.of(1, 2, 3).profile("default").count());
+        } finally {
+            logger.removeHandler(handler);
+            logger.setLevel(level);
+        }
+        Assertions.assertEquals(1, records.size());
+        Assertions.assertEquals(Level.FINE, records.get(0).getLevel());
+        Assertions.assertTrue(records.get(0).getMessage().startsWith("SteamProfile{name=default"), records.get(0).getMessage());
+    }
+
+    @Test
+    void testTerminalEvent() throws Exception {
+        Path file = Files.createTempFile("steam", ".jfr");
+        try (Recording recording = new Recording()) {
+            // 默认阈值为1ms，测试中的终端操作很快，需要去掉阈值
+            recording.enable("io.github.vampireachao.stream.Terminal").withoutThreshold();
+            recording.start();
+            Assertions.assertEquals(3, Steam.of(1, 2, 3).map(i -> i + 1).toList().size());
+            Assertions.assertEquals(2, Steam.of(1, 2, 3).filter(i -> i > 1).count());
+            recording.stop();
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Map<String, Long> counts = Steam.of(events).toMap(e -> e.getString("operation"), e -> e.getLong("elementCount"));
+            Assertions.assertEquals(3L, counts.get("toList"));
+            Assertions.assertEquals(2L, counts.get("count"));
+            Assertions.assertFalse(events.get(0).getBoolean("parallel"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testParallelPool() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<Integer> list = Steam.iterate(0, i -> i < 1000, i -> i + 1).toList();
+            Steam<Integer> steam = Steam.of(list).parallel(pool);
+            Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+            // 中间操作返回的流沿用指定的线程池
+            List<Integer> result = steam.map(e -> {
+                pools.add(ForkJoinTask.getPool());
+                return e;
+            }).toList();
+            Assertions.assertEquals(list, result);
+            Assertions.assertEquals(Collections.singleton(pool), pools);
+            Assertions.assertEquals(499500L, Steam.of(list).parallel(pool).mapToLong(Integer::longValue).sum());
+            pools.clear();
+            Assertions.assertEquals(10, Steam.of(list).parallel(pool).distinct(e -> e % 10).peek(e -> pools.add(ForkJoinTask.getPool())).count());
+            Assertions.assertEquals(Collections.singleton(pool), pools);
+
+            Steam<Integer> counted = Steam.of(list).parallel(pool);
+            Assertions.assertEquals(1000, counted.filter(e -> true).count());
+            Assertions.assertTrue(counted.stats().isPresent());
+            Assertions.assertEquals(1, counted.stats().get().getTasks());
+            Assertions.assertEquals(2, counted.stats().get().getParallelism());
+            Assertions.assertFalse(Steam.of(list).parallel().stats().isPresent());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMapAsync() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Integer> list = Steam.iterate(0, i -> i < 100, i -> i + 1).toList();
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            List<Integer> result = Steam.of(list).mapAsync(i -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep((100 - i) % 3);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return i * 2;
+            }, 3, executor).toList();
+            Assertions.assertEquals(Steam.of(list).map(i -> i * 2).toList(), result);
+            Assertions.assertTrue(maxRunning.get() <= 3);
+
+            Assertions.assertEquals(new HashSet<>(list), Steam.of(list).mapAsyncUnordered(Function.identity(), 8, executor).toSet());
+            Assertions.assertEquals(Arrays.asList(1, 2, 3), Steam.of(1, 2, 3).mapAsync(Function.identity(), 2).toList());
+            Assertions.assertEquals(Arrays.asList(1, 2), Steam.iterate(1, i -> i + 1).mapAsync(Function.identity(), 4).limit(2).toList());
+            Assertions.assertThrows(IllegalStateException.class, () -> Steam.of(1, 2, 3).mapAsync(i -> {
+                if (i == 2) {
+                    throw new IllegalStateException();
+                }
+                return i;
+            }, 2, executor).toList());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Steam.of(1).mapAsync(Function.identity(), 0));
+
+            // 短路的终端操作结束后，其余正在执行的映射会被取消
+            AtomicInteger blocked = new AtomicInteger();
+            Function<Integer, Integer> slow = i -> {
+                if (i == 0) {
+                    return i;
+                }
+                blocked.incrementAndGet();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    blocked.decrementAndGet();
+                }
+                return i;
+            };
+            Assertions.assertEquals(Optional.of(0), Steam.iterate(0, i -> i + 1).mapAsync(slow, 4, executor).findFirst());
+            Assertions.assertTrue(Steam.iterate(0, i -> i + 1).mapAsync(slow, 4, executor).anyMatch(i -> i == 0));
+            Assertions.assertEquals(singletonList(0), Steam.iterate(0, i -> i + 1).mapAsync(slow, 4, executor).limit(1).toList());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (blocked.get() > 0 && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+            Assertions.assertEquals(0, blocked.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void testPush() {
         List<Integer> list = Arrays.asList(1, 2);
@@ -240,6 +684,46 @@ class SteamTest {
         Assertions.assertEquals(Arrays.asList(1, 2, 3), unshift);
     }
 
+    @Test
+    void testConcat() {
+        Steam<Integer> pushed = Steam.of(0);
+        for (int i = 1; i < 100000; i++) {
+            pushed = pushed.push(i).unshift(-i);
+        }
+        List<Integer> list = pushed.toList();
+        Assertions.assertEquals(199999, list.size());
+        Assertions.assertEquals(-99999, list.get(0));
+        Assertions.assertEquals(99999, list.get(list.size() - 1));
+        Assertions.assertTrue(Steam.of(1, 2).push(3).unshift(0).spliterator().hasCharacteristics(Spliterator.SIZED));
+        // 拼接后原来的流失效，不能再使用或分叉
+        Steam<Integer> reused = Steam.of(1, 2).push(3);
+        Steam<Integer> pushedAgain = reused.push(4);
+        Assertions.assertThrows(IllegalStateException.class, reused::toList);
+        Assertions.assertEquals(Arrays.asList(1, 2, 3, 4), pushedAgain.toList());
+        Steam<Integer> branched = Steam.of(1, 2).unshift(0);
+        Assertions.assertEquals(Arrays.asList(0, 1, 2, 4), branched.push(4).toList());
+        Assertions.assertThrows(IllegalStateException.class, () -> branched.push(5));
+        Steam<Integer> concatenated = Steam.of(1).push(2);
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), Steam.concat(concatenated, Stream.of(3)).toList());
+        Assertions.assertThrows(IllegalStateException.class, () -> concatenated.unshift(0));
+
+        List<String> closed = new ArrayList<>();
+        Steam<Integer> a = Steam.of(1, 2).onClose(() -> closed.add("a"));
+        Stream<Integer> b = Stream.of(3).onClose(() -> closed.add("b"));
+        Steam<Integer> c = Steam.of(4, 5).push(6);
+        try (Steam<Integer> concat = Steam.concat(a, b, c)) {
+            Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), concat.toList());
+        }
+        Assertions.assertEquals(Arrays.asList("a", "b"), closed);
+
+        List<Integer> parallel = Steam.concat(Steam.iterate(0, i -> i + 1).limit(1000).parallel(),
+                Stream.of(1000), Steam.of(IntStream.range(1001, 5000).boxed().toArray(Integer[]::new))).map(i -> i * 2).toList();
+        Assertions.assertEquals(Steam.iterate(0, i -> i + 1).limit(5000).map(i -> i * 2).toList(), parallel);
+
+        Steam<Integer> base = Steam.of(1).push(2);
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), base.push(3).toList());
+    }
+
     @Test
     void testAt() {
         List<Integer> list = Arrays.asList(1, 2, 3);
@@ -248,6 +732,10 @@ class SteamTest {
         Assertions.assertEquals(1, Steam.of(list).at(-3).orElse(null));
         Assertions.assertEquals(3, Steam.of(list).at(-1).orElse(null));
         Assertions.assertFalse(Steam.of(list).at(-4).isPresent());
+        // 叠加中间操作后不再走随机访问
+        Assertions.assertEquals(3, Steam.of(list).map(e -> e).at(-1).orElse(null));
+        Assertions.assertEquals(2, Steam.of(1, 2, 3).at(1).orElse(null));
+        Assertions.assertEquals(3, Steam.of(list).reverse().at(0).orElse(null));
     }
 
     @Test
@@ -260,12 +748,18 @@ class SteamTest {
         Assertions.assertEquals(Arrays.asList(1, 2, 3), Steam.of(list).splice(2, 0).toList());
         Assertions.assertEquals(Arrays.asList(1, 2), Steam.of(list).splice(-1, 1).toList());
         Assertions.assertEquals(Arrays.asList(1, 2, 3), Steam.of(list).splice(-2, 2, 2, 3).toList());
+        Assertions.assertEquals(Arrays.asList(0, 3), Steam.of(list).splice(-5, 2, 0).toList());
+        Assertions.assertEquals(Arrays.asList(1, 4, 5, 3), Steam.of(list).map(e -> e).splice(1, 1, 4, 5).toList());
+        List<Integer> range = Steam.iterate(0, i -> i < 10000, i -> i + 1).toList();
+        List<Integer> expected = new ArrayList<>(range);
+        expected.subList(100, 200).clear();
+        Assertions.assertEquals(expected, Steam.of(range).parallel().splice(100, 100).toList());
     }
 
     @Test
     void testFindFirst() {
         List<Integer> list = Arrays.asList(1, 2, 3);
-        Integer find = Steam.of(list).findFirst(Objects::nonNull);
+        Integer find = Steam.of(list).findFirst(Objects::nonNull).orElse(null);
         Assertions.assertEquals(1, find);
     }
 
@@ -274,15 +768,20 @@ class SteamTest {
         List<Integer> list = Arrays.asList(null, 2, 3);
         Integer idx = Steam.of(list).findFirstIdx(Objects::nonNull);
         Assertions.assertEquals(1, idx);
-        Assertions.assertEquals(-1, Steam.of(list).parallel().findFirstIdx(Objects::nonNull));
+        Assertions.assertEquals(1, Steam.of(list).parallel().findFirstIdx(Objects::nonNull));
+        Assertions.assertEquals(-1, Steam.of(list).findFirstIdx(e -> Objects.equals(e, 4)));
     }
 
     @Test
     void testFindLast() {
         List<Integer> list = Arrays.asList(1, null, 3);
-        Integer find = Steam.of(list).findLast(Objects::nonNull);
+        Integer find = Steam.of(list).findLast(Objects::nonNull).orElse(null);
         Assertions.assertEquals(3, find);
         Assertions.assertEquals(3, Steam.of(list).findLast().orElse(null));
+        Assertions.assertEquals(1, Steam.of(list).findLast(e -> Objects.equals(e, 1)).orElse(null));
+        Assertions.assertFalse(Steam.of(Arrays.asList(1, 2, null)).findLast().isPresent());
+        Assertions.assertFalse(Steam.of(new ArrayList<Integer>()).findLast().isPresent());
+        Assertions.assertEquals(3, Steam.of(list).parallel().filter(Objects::nonNull).findLast().orElse(null));
     }
 
     @Test
@@ -290,7 +789,37 @@ class SteamTest {
         List<Integer> list = Arrays.asList(1, null, 3);
         Integer idx = Steam.of(list).findLastIdx(Objects::nonNull);
         Assertions.assertEquals(2, idx);
-        Assertions.assertEquals(-1, Steam.of(list).parallel().findLastIdx(Objects::nonNull));
+        Assertions.assertEquals(2, Steam.of(list).parallel().findLastIdx(Objects::nonNull));
+        Assertions.assertEquals(-1, Steam.of(list).findLastIdx(e -> Objects.equals(e, 4)));
+    }
+
+    @Test
+    void testSortedBy() {
+        List<Student> students = Arrays.asList(
+                Student.builder().name("臧臧").age(23).build(),
+                Student.builder().name("阿超").age(21).build(),
+                Student.builder().name("小明").age(23).build(),
+                Student.builder().name("小红").age(-1).build()
+        );
+        List<String> expected = Arrays.asList("小红", "阿超", "臧臧", "小明");
+        Assertions.assertEquals(expected, Steam.of(students).sortedBy(Student::getAge).map(Student::getName).toList());
+        Assertions.assertEquals(expected, Steam.of(students).sortedByLong(Student::getAge).map(Student::getName).toList());
+        Assertions.assertEquals(expected, Steam.of(students).sortedByInt(Student::getAge).map(Student::getName).toList());
+        Assertions.assertEquals(Arrays.asList("臧臧", "小明", "阿超", "小红"),
+                Steam.of(students).sortedBy(Student::getAge, Comparator.reverseOrder()).map(Student::getName).toList());
+
+        Random random = new Random(42);
+        List<Long> longs = Steam.iterate(0, i -> i < 20000, i -> i + 1).map(i -> random.nextLong() >> random.nextInt(64)).toList();
+        List<Long> sortedLongs = Steam.of(longs).sorted().toList();
+        Assertions.assertEquals(sortedLongs, Steam.of(longs).sortedByLong(Long::longValue).toList());
+        Assertions.assertEquals(sortedLongs, Steam.of(longs).parallel().sortedByLong(Long::longValue).toList());
+        // 按排序依据排序是稳定的
+        Comparator<Long> byLowBits = Comparator.comparing(l -> (int) (l & 0xFF) - 128);
+        List<Long> stable = Steam.of(longs).sorted(byLowBits).toList();
+        Assertions.assertEquals(stable, Steam.of(longs).sortedByInt(l -> (int) (l & 0xFF) - 128).toList());
+        Assertions.assertEquals(stable, Steam.of(longs).parallel().sortedByInt(l -> (int) (l & 0xFF) - 128).toList());
+        Assertions.assertEquals(stable, Steam.of(longs).parallel().sortedBy(l -> (int) (l & 0xFF) - 128).toList());
+        Assertions.assertEquals(0, Steam.<Long>empty().sortedByLong(Long::longValue).count());
     }
 
     @Test
@@ -298,6 +827,12 @@ class SteamTest {
         List<Integer> list = Arrays.asList(1, 3, 2);
         List<Integer> reverse = Steam.of(list).reverse().toList();
         Assertions.assertEquals(Arrays.asList(2, 3, 1), reverse);
+        Assertions.assertEquals(list, Steam.of(list).reverse().reverse().toList());
+        Assertions.assertEquals(Arrays.asList(2, 3, 1), Steam.of(list).map(e -> e).reverse().toList());
+        List<Integer> range = Steam.iterate(0, i -> i < 10000, i -> i + 1).toList();
+        List<Integer> expected = new ArrayList<>(range);
+        Collections.reverse(expected);
+        Assertions.assertEquals(expected, Steam.of(range).parallel().reverse().toList());
     }
 
     @Test
@@ -306,6 +841,15 @@ class SteamTest {
         List<String> list = Arrays.asList("dromara", "hutool", "sweet");
         List<String> zip = Steam.of(orders).zip(list, (e1, e2) -> e1 + "." + e2).toList();
         Assertions.assertEquals(Arrays.asList("1.dromara", "2.hutool", "3.sweet"), zip);
+        // 给定对象不足时为null
+        Assertions.assertEquals(Arrays.asList("1.dromara", "2.null"), Steam.of(1, 2).zip(new LinkedList<>(singletonList("dromara")), (e1, e2) -> e1 + "." + e2).toList());
+        List<Integer> range = Steam.iterate(0, i -> i < 10000, i -> i + 1).toList();
+        List<Integer> doubled = Steam.of(range).map(i -> i * 2).toList();
+        // 可随机访问时与当前流一起拆分
+        Assertions.assertEquals(doubled, Steam.of(range).parallel().zip(range, Integer::sum).toList());
+        // 不可随机访问时成对拉取
+        Assertions.assertEquals(doubled, Steam.of(range).filter(e -> true).parallel().zip(new LinkedList<>(range), Integer::sum).toList());
+        Assertions.assertEquals(doubled, Steam.of(range).parallel().zip(Steam.of(range), Integer::sum).toList());
     }
 
     @Test
@@ -326,5 +870,61 @@ class SteamTest {
                 Arrays.asList(3, 4),
                 singletonList(5)
         ), lists);
+        // 每一批都是可修改的新列表，不影响源与其他批次
+        List<Integer> source = new ArrayList<>(list);
+        List<List<Integer>> batches = Steam.of(source).splitList(2).toList();
+        batches.get(0).add(6);
+        Assertions.assertEquals(list, source);
+        Assertions.assertEquals(Arrays.asList(3, 4), batches.get(1));
+        source.add(7);
+        Assertions.assertEquals(Arrays.asList(1, 2, 6), batches.get(0));
+        Steam.of(1, 2, 3).splitList(2).forEach(batch -> batch.add(0));
+    }
+
+    @Test
+    void testWindow() {
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(2, 3, 4), Arrays.asList(3, 4, 5)),
+                Steam.of(1, 2, 3, 4, 5).window(3, 1).toList());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(4, 5)),
+                Steam.of(1, 2, 3, 4, 5).map(Function.identity()).window(2, 3).toList());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)),
+                Steam.iterate(1, i -> i + 1).window(2, 2).limit(2).toList());
+        // 复用窗口视图，只能立即消费
+        Assertions.assertEquals(Arrays.asList(6, 9, 12),
+                Steam.iterate(1, i -> i <= 5, i -> i + 1).window(3, 1, true).map(w -> Steam.of(w).mapToInt(Integer::intValue).sum()).toList());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Steam.of(1, 2).window(0, 1));
+
+        List<Integer> range = Steam.iterate(0, i -> i < 5003, i -> i + 1).toList();
+        int[][] cases = {{7, 1}, {5, 5}, {3, 8}, {100, 37}};
+        for (int[] c : cases) {
+            List<List<Integer>> expected = new ArrayList<>();
+            for (int i = 0; i + c[0] <= range.size(); i += c[1]) {
+                expected.add(range.subList(i, i + c[0]));
+            }
+            Assertions.assertEquals(expected, Steam.of(range).window(c[0], c[1]).toList());
+            Assertions.assertEquals(expected, Steam.of(range).map(Function.identity()).parallel().window(c[0], c[1]).toList());
+            Assertions.assertEquals(expected, Steam.of(new LinkedList<>(range)).parallel().window(c[0], c[1]).toList());
+            Assertions.assertEquals(expected, Steam.iterate(0, i -> i < 5003, i -> i + 1).parallel().window(c[0], c[1]).toList());
+            Assertions.assertEquals(expected, Steam.of(range).filter(e -> true).parallel().window(c[0], c[1]).toList());
+            Assertions.assertEquals(expected.size(), Steam.of(range).map(Function.identity()).parallel().window(c[0], c[1], true).count());
+        }
+    }
+
+    @Test
+    void testSplitListLazy() {
+        // 无限流
+        List<List<Integer>> lists = Steam.iterate(1, i -> i + 1).splitList(2).limit(2).toList();
+        Assertions.assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4)), lists);
+        Assertions.assertEquals(0, Steam.<Integer>empty().splitList(2).count());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Steam.of(1, 2).splitList(0));
+
+        List<Integer> range = Steam.iterate(0, i -> i < 10007, i -> i + 1).toList();
+        List<List<Integer>> expected = Steam.of(range).splitList(100).toList();
+        Assertions.assertEquals(101, expected.size());
+        // 并行流按批次边界拆分，除最后一批外每一批都是满的
+        Assertions.assertEquals(expected, Steam.of(range).map(Function.identity()).parallel().splitList(100).toList());
+        Assertions.assertEquals(expected, Steam.iterate(0, i -> i < 10007, i -> i + 1).parallel().splitList(100).toList());
+        Assertions.assertEquals(expected, Steam.of(new LinkedList<>(range)).parallel().splitList(100).toList());
+        Assertions.assertEquals(expected, Steam.of(range).filter(e -> true).parallel().splitList(100).toList());
     }
 }
@@ -0,0 +1,39 @@
+package io.github.vampireachao.stream.core.stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * StreamHelperTest
+ *
+ * @author VampireAchao
+ */
+class StreamHelperTest {
+
+    @Test
+    void testPeekStream() {
+        List<Integer> list = Steam.iterate(0, i -> i < 1000, i -> i + 1).toList();
+        ConcurrentHashMap<Integer, Integer> indexes = new ConcurrentHashMap<>();
+        List<Integer> result = StreamHelper.peekStream(list, true, indexes::put).collect(Collectors.toList());
+        Assertions.assertEquals(list, result);
+        Assertions.assertEquals(1000, indexes.size());
+        indexes.forEach(Assertions::assertEquals);
+
+        // 有序集合保留SORTED特征值，比较器取自源集合
+        TreeSet<String> sorted = new TreeSet<>(Comparator.reverseOrder());
+        sorted.addAll(Arrays.asList("a", "c", "b"));
+        List<Integer> peeked = new ArrayList<>();
+        Assertions.assertEquals(Arrays.asList("c", "b", "a"),
+                StreamHelper.peekStream(sorted, false, (e, i) -> peeked.add(i)).sorted(Comparator.reverseOrder()).collect(Collectors.toList()));
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), peeked);
+        Assertions.assertEquals(Arrays.asList("c", "b", "a"), StreamHelper.peekStream(sorted, true).collect(Collectors.toList()));
+    }
+}
@@ -31,6 +31,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -103,7 +104,7 @@ public class Database {
         Class<T> entityClass = getEntityClass(entityList);
         Class<?> mapperClass = ClassUtils.toClassConfident(getTableInfo(entityClass).getCurrentNamespace());
         String sqlStatement = SqlHelper.getSqlStatement(mapperClass, SqlMethod.INSERT_ONE);
-        return SqlHelper.executeBatch(entityClass, log, entityList, batchSize, (sqlSession, entity) -> sqlSession.insert(sqlStatement, entity));
+        return executeBatch(entityClass, entityList.size(), batchSize, () -> SqlHelper.executeBatch(entityClass, log, entityList, batchSize, (sqlSession, entity) -> sqlSession.insert(sqlStatement, entity)));
     }
 
     /**
@@ -176,7 +177,7 @@ public class Database {
         Class<?> mapperClass = ClassUtils.toClassConfident(tableInfo.getCurrentNamespace());
         String keyProperty = tableInfo.getKeyProperty();
         Assert.notEmpty(keyProperty, "error: can not execute. because can not find column for primary key from entity!");
-        return SqlHelper.saveOrUpdateBatch(entityClass, mapperClass, log, entityList, batchSize, (sqlSession, entity) -> {
+        return executeBatch(entityClass, entityList.size(), batchSize, () -> SqlHelper.saveOrUpdateBatch(entityClass, mapperClass, log, entityList, batchSize, (sqlSession, entity) -> {
             Object idVal = tableInfo.getPropertyValue(entity, keyProperty);
             return StringUtils.checkValNull(idVal)
                     || CollectionUtils.isEmpty(sqlSession.selectList(SqlHelper.getSqlStatement(mapperClass, SqlMethod.SELECT_BY_ID), entity));
@@ -184,7 +185,7 @@ public class Database {
             MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
             param.put(Constants.ENTITY, entity);
             sqlSession.update(SqlHelper.getSqlStatement(mapperClass, SqlMethod.UPDATE_BY_ID), param);
-        });
+        }));
     }
 
     /**
@@ -296,11 +297,11 @@ public class Database {
         Class<T> entityClass = getEntityClass(entityList);
         TableInfo tableInfo = getTableInfo(entityClass);
         String sqlStatement = SqlHelper.getSqlStatement(ClassUtils.toClassConfident(tableInfo.getCurrentNamespace()), SqlMethod.UPDATE_BY_ID);
-        return SqlHelper.executeBatch(entityClass, log, entityList, batchSize, (sqlSession, entity) -> {
+        return executeBatch(entityClass, entityList.size(), batchSize, () -> SqlHelper.executeBatch(entityClass, log, entityList, batchSize, (sqlSession, entity) -> {
             MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
             param.put(Constants.ENTITY, entity);
             sqlSession.update(sqlStatement, param);
-        });
+        }));
     }
 
     /**
@@ -310,7 +311,7 @@ public class Database {
      * @param entityClass 实体类
      */
     public static <T> boolean removeByIds(Collection<? extends Serializable> list, Class<T> entityClass) {
-        return execute(entityClass, baseMapper -> SqlHelper.retBool(baseMapper.deleteBatchIds(list)));
+        return execute(entityClass, list == null ? DatabaseEvents.NONE : list.size(), baseMapper -> SqlHelper.retBool(baseMapper.deleteBatchIds(list)));
     }
 
     /**
@@ -392,7 +393,7 @@ public class Database {
      * @param entityClass 实体类
      */
     public static <T> List<T> listByIds(Collection<? extends Serializable> idList, Class<T> entityClass) {
-        return execute(entityClass, baseMapper -> baseMapper.selectBatchIds(idList));
+        return execute(entityClass, idList == null ? DatabaseEvents.NONE : idList.size(), baseMapper -> baseMapper.selectBatchIds(idList));
     }
 
     /**
@@ -573,8 +574,42 @@ public class Database {
      * @param <R>         返回值类型
      * @return 返回lambda执行结果
      */
-    @SuppressWarnings("unchecked")
     public static <T, R> R execute(Class<T> entityClass, SFunction<IMapper<T>, R> sFunction) {
+        return execute(entityClass, DatabaseEvents.NONE, sFunction);
+    }
+
+    /**
+     * 执行lambda，JFR正在录制时记录为{@link DatabaseEvent}
+     *
+     * @param entityClass 实体类
+     * @param inListSize  IN条件的个数，没有时为{@link DatabaseEvents#NONE}
+     * @param sFunction   lambda操作
+     * @param <T>         实体类的类型
+     * @param <R>         返回值类型
+     * @return 返回lambda执行结果
+     */
+    private static <T, R> R execute(Class<T> entityClass, int inListSize, SFunction<IMapper<T>, R> sFunction) {
+        if (DatabaseEvents.isEnabled()) {
+            return DatabaseEvents.execute(entityClass, inListSize, () -> doExecute(entityClass, sFunction));
+        }
+        return doExecute(entityClass, sFunction);
+    }
+
+    /**
+     * 执行批量操作，JFR正在录制时记录为{@link DatabaseEvent}
+     *
+     * @param entityClass 实体类
+     * @param rows        实体个数
+     * @param batchSize   批次大小
+     * @param action      批量操作
+     * @return 是否成功
+     */
+    private static boolean executeBatch(Class<?> entityClass, int rows, int batchSize, Supplier<Boolean> action) {
+        return DatabaseEvents.isEnabled() ? DatabaseEvents.executeBatch(entityClass, rows, batchSize, action) : action.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> R doExecute(Class<T> entityClass, SFunction<IMapper<T>, R> sFunction) {
         SqlSession sqlSession = SqlHelper.sqlSession(entityClass);
         try {
             BaseMapper<T> baseMapper = SqlHelper.getMapper(entityClass, sqlSession);
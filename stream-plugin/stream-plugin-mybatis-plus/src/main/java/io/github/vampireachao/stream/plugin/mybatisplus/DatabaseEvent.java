@@ -0,0 +1,37 @@
+package io.github.vampireachao.stream.plugin.mybatisplus;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@link Database}执行sql的JFR事件，只通过{@link DatabaseEvents}使用，运行环境没有JFR时不会加载该类
+ *
+ * @author VampireAchao
+ */
+@Name("io.github.vampireachao.stream.Database")
+@Label("Database Operation")
+@Category("Stream Query")
+@Description("A Database.execute or batch operation of the mybatis-plus plugin")
+final class DatabaseEvent extends Event {
+
+    @Label("Entity Class")
+    Class<?> entityClass;
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("Affected or returned rows, or the number of entities of a batch; -1 if unknown")
+    long rows;
+
+    @Label("Batch Size")
+    @Description("-1 if the operation is not a batch")
+    int batchSize;
+
+    @Label("IN-List Size")
+    @Description("Number of ids of the IN condition, -1 if the operation has none")
+    int inListSize;
+}
@@ -0,0 +1,136 @@
+package io.github.vampireachao.stream.plugin.mybatisplus;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import jdk.jfr.FlightRecorder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link Database}的JFR事件桥接，运行环境支持JFR(JDK 8u262及以上、JDK 11及以上)时才会加载{@link DatabaseEvent}，
+ * 否则所有方法都不做任何事；JFR未初始化时不会加载事件类，未开始录制时只有一次判断的开销
+ *
+ * @author VampireAchao
+ */
+final class DatabaseEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+    /**
+     * 不涉及的属性
+     */
+    static final int NONE = -1;
+
+    private DatabaseEvents() {
+        /* Do not new me! */
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder", false, DatabaseEvents.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * 事件是否正在录制
+     *
+     * @return 是否正在录制
+     */
+    static boolean isEnabled() {
+        // 加载事件类会注册事件类型并初始化JFR，因此先确认已有录制器，未使用JFR时只读取一个静态字段
+        return AVAILABLE && FlightRecorder.isInitialized() && Jfr.PROBE.isEnabled();
+    }
+
+    /**
+     * 执行操作，并记录为JFR事件，行数取自返回值(集合、分页、map的大小或影响行数)
+     *
+     * @param entityClass 实体类
+     * @param inListSize  IN条件的个数
+     * @param action      操作
+     * @param <R>         返回值类型
+     * @return 操作的返回值
+     */
+    static <R> R execute(Class<?> entityClass, int inListSize, Supplier<R> action) {
+        return Jfr.record(entityClass, NONE, NONE, inListSize, action);
+    }
+
+    /**
+     * 执行批量操作，并记录为JFR事件
+     *
+     * @param entityClass 实体类
+     * @param rows        实体个数
+     * @param batchSize   批次大小
+     * @param action      操作
+     * @return 操作的返回值
+     */
+    static boolean executeBatch(Class<?> entityClass, int rows, int batchSize, Supplier<Boolean> action) {
+        return Jfr.record(entityClass, rows, batchSize, NONE, action);
+    }
+
+    /**
+     * 从调用栈中找到调用的{@link Database}方法，直接调用{@link Database#execute}时为execute
+     */
+    private static String method() {
+        String method = null;
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (Database.class.getName().equals(element.getClassName())) {
+                if (!element.getMethodName().startsWith("lambda$")) {
+                    method = element.getMethodName();
+                }
+            } else if (method != null) {
+                break;
+            }
+        }
+        return method;
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result instanceof IPage) {
+            return ((IPage<?>) result).getRecords().size();
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        return NONE;
+    }
+
+    /**
+     * 所有用到JFR的代码都在这里，只在运行环境支持JFR时加载
+     */
+    private static final class Jfr {
+        /**
+         * 只用于判断是否正在录制，从不提交
+         */
+        private static final DatabaseEvent PROBE = new DatabaseEvent();
+
+        private static <R> R record(Class<?> entityClass, long rows, int batchSize, int inListSize, Supplier<R> action) {
+            DatabaseEvent event = new DatabaseEvent();
+            event.begin();
+            R result = null;
+            try {
+                result = action.get();
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.entityClass = entityClass;
+                    // 遍历调用栈的开销较大，只在确实提交事件时才获取方法名，此时仍在Database方法的调用栈中
+                    event.method = method();
+                    event.rows = rows == NONE ? rows(result) : rows;
+                    event.batchSize = batchSize;
+                    event.inListSize = inListSize;
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -9,9 +9,14 @@ import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
 import io.github.vampireachao.stream.plugin.mybatisplus.pojo.po.RoleInfo;
 import io.github.vampireachao.stream.plugin.mybatisplus.pojo.po.UserInfo;
 import io.github.vampireachao.stream.plugin.mybatisplus.pojo.po.UserRole;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -40,6 +45,34 @@ class DatabaseTest {
                 () -> Database.execute(UserRole.class, m -> m.insertOneSql(Collections.emptyList())));
     }
 
+    @Test
+    void testDatabaseEvent() throws Exception {
+        Path file = Files.createTempFile("database", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("io.github.vampireachao.stream.Database");
+            recording.start();
+            Assertions.assertEquals(2, Database.listByIds(Arrays.asList(1L, 2L), UserInfo.class).size());
+            UserInfo userInfo = new UserInfo();
+            userInfo.setName("ruben");
+            Assertions.assertTrue(Database.saveBatch(Collections.singletonList(userInfo), 10));
+            recording.stop();
+            recording.dump(file);
+            Map<String, RecordedEvent> events = new HashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                events.put(event.getString("method"), event);
+            }
+            RecordedEvent listByIds = events.get("listByIds");
+            Assertions.assertEquals(UserInfo.class.getName(), listByIds.getClass("entityClass").getName());
+            Assertions.assertEquals(2, listByIds.getLong("rows"));
+            Assertions.assertEquals(2, listByIds.getInt("inListSize"));
+            RecordedEvent saveBatch = events.get("saveBatch");
+            Assertions.assertEquals(1, saveBatch.getLong("rows"));
+            Assertions.assertEquals(10, saveBatch.getInt("batchSize"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     @Test
     void testSaveOneSql() {
         UserInfo entity = new UserInfo();